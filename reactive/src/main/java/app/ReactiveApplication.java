@@ -0,0 +1,29 @@
+package app;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Configuration;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApplication.class, args);
+	}
+
+	/**
+	 * The reactive variant reads and writes a single database. Against a sharded deployment it would miss
+	 * every shard but one, so it refuses to start instead.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "notifications.sharding.enabled", havingValue = "true")
+	static class ShardingUnsupported {
+
+		ShardingUnsupported() {
+			throw new IllegalStateException("notifications.sharding.enabled=true is not supported by the reactive variant; run the main service");
+		}
+	}
+}
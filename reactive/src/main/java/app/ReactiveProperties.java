@@ -0,0 +1,19 @@
+package app;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.reactive")
+public class ReactiveProperties {
+
+    private int fetchSize = 500;
+
+    private int bulkBatchSize = 500;
+
+    private int lookupChunkSize = 1000;
+
+    private int mailThreads = 10;
+
+    private int mailQueuedTasks = 1000;
+}
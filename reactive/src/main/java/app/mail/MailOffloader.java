@@ -0,0 +1,36 @@
+package app.mail;
+
+import app.ReactiveProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * JavaMail blocks on the SMTP socket, so sends run on a dedicated bounded-elastic scheduler instead of the
+ * event loop. {@code mail-threads} caps concurrent SMTP sessions and {@code mail-queued-tasks} caps the sends
+ * waiting for one; beyond that the send is rejected rather than queued without bound.
+ */
+@Component
+public class MailOffloader {
+
+    private final JavaMailSender mailSender;
+    private final Scheduler scheduler;
+
+    public MailOffloader(JavaMailSender mailSender, ReactiveProperties properties) {
+        this.mailSender = mailSender;
+        this.scheduler = Schedulers.newBoundedElastic(properties.getMailThreads(), properties.getMailQueuedTasks(), "mail");
+    }
+
+    public Mono<Void> send(SimpleMailMessage message) {
+        return Mono.<Void>fromRunnable(() -> mailSender.send(message)).subscribeOn(scheduler);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
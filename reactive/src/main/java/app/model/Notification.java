@@ -0,0 +1,40 @@
+package app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    private UUID id;
+
+    private String subject;
+
+    private String body;
+
+    private LocalDateTime createdOn;
+
+    private NotificationStatus status;
+
+    private NotificationType type;
+
+    private UUID userId;
+
+    private boolean deleted;
+
+    private LocalDateTime readAt;
+
+    // Not a column: read_at is set or the user's read watermark covers created_on.
+    private boolean read;
+
+    // Not a column: set on the send result, the channel the notification went to.
+    private String channel;
+}
@@ -0,0 +1,43 @@
+package app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreference {
+
+    private UUID id;
+
+    private UUID userId;
+
+    private boolean emailNotificationEnabled;
+
+    private boolean deadLineNotificationEnabled;
+
+    private boolean summaryNotificationEnabled;
+
+    private boolean reminderNotificationEnabled;
+
+    private String email;
+
+    private String webhookUrl;
+
+    private LocalTime quietHoursStart;
+
+    private LocalTime quietHoursEnd;
+
+    private String timeZone;
+
+    private LocalDateTime createdOn;
+
+    private LocalDateTime updatedOn;
+}
@@ -0,0 +1,5 @@
+package app.model;
+
+public enum NotificationStatus {
+    SUCCEEDED, FAILED, PENDING, SUPPRESSED
+}
@@ -0,0 +1,5 @@
+package app.model;
+
+public enum NotificationType {
+    EMAIL, REMINDER, SUMMARY, DEADLINE, ALERT
+}
@@ -0,0 +1,131 @@
+package app.repository;
+
+import app.ReactiveProperties;
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Streams rows straight from the driver: the statement carries a fetch size, so the driver pulls
+ * {@code fetchSize} rows at a time from a server-side cursor and only asks for more when the subscriber does.
+ * Reads join the user's read watermark, so each row comes back with the same read flag notification-svc reports.
+ */
+@Repository
+public class NotificationRepository {
+
+    private static final String COLUMNS = "id, subject, body, created_on, status, type, user_id, deleted";
+    private static final String SELECT = """
+            SELECT n.id, n.subject, n.body, n.created_on, n.status, n.type, n.user_id, n.deleted, n.read_at, w.read_up_to
+            FROM notifications n LEFT JOIN notification_read_watermark w ON w.user_id = n.user_id
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public NotificationRepository(DatabaseClient databaseClient, ReactiveProperties properties) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = properties.getFetchSize();
+    }
+
+    public Mono<Notification> insert(Notification notification) {
+        return databaseClient.sql("INSERT INTO notifications (" + COLUMNS + ") VALUES (:id, :subject, :body, :createdOn, :status, :type, :userId, :deleted)")
+                .bind("id", UuidBytes.toBytes(notification.getId()))
+                .bind("subject", notification.getSubject())
+                .bind("body", notification.getBody())
+                .bind("createdOn", notification.getCreatedOn())
+                .bind("status", notification.getStatus().name())
+                .bind("type", notification.getType().name())
+                .bind("userId", UuidBytes.toBytes(notification.getUserId()))
+                .bind("deleted", notification.isDeleted())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(notification);
+    }
+
+    public Flux<Notification> findAllByUserId(UUID userId) {
+        return databaseClient.sql(SELECT + "WHERE n.user_id = :userId AND n.deleted = FALSE ORDER BY n.created_on DESC")
+                .bind("userId", UuidBytes.toBytes(userId))
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(NotificationRepository::toNotification)
+                .all();
+    }
+
+    public Flux<Notification> findPageByUserId(UUID userId, int page, int size) {
+        return databaseClient.sql(SELECT + "WHERE n.user_id = :userId AND n.deleted = FALSE ORDER BY n.created_on DESC LIMIT :limit OFFSET :offset")
+                .bind("userId", UuidBytes.toBytes(userId))
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(NotificationRepository::toNotification)
+                .all();
+    }
+
+    public Flux<Notification> findUnreadPageByUserId(UUID userId, int page, int size) {
+        return databaseClient.sql(SELECT + """
+                        WHERE n.user_id = :userId AND n.deleted = FALSE AND n.read_at IS NULL
+                          AND (w.read_up_to IS NULL OR n.created_on > w.read_up_to)
+                        ORDER BY n.created_on DESC LIMIT :limit OFFSET :offset
+                        """)
+                .bind("userId", UuidBytes.toBytes(userId))
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(NotificationRepository::toNotification)
+                .all();
+    }
+
+    public Mono<Long> markRead(UUID userId, Collection<UUID> ids, LocalDateTime readAt) {
+        return databaseClient.sql("UPDATE notifications SET read_at = :readAt WHERE user_id = :userId AND id IN (:ids) AND read_at IS NULL")
+                .bind("readAt", readAt)
+                .bind("userId", UuidBytes.toBytes(userId))
+                .bind("ids", ids.stream().map(UuidBytes::toBytes).toList())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Only ever moves the watermark forward, so replays and out-of-order requests are harmless.
+    public Mono<Long> advanceReadWatermark(UUID userId, LocalDateTime readUpTo) {
+        return databaseClient.sql("""
+                        INSERT INTO notification_read_watermark (user_id, read_up_to) VALUES (:userId, :readUpTo)
+                        ON DUPLICATE KEY UPDATE read_up_to = GREATEST(read_up_to, VALUES(read_up_to))
+                        """)
+                .bind("userId", UuidBytes.toBytes(userId))
+                .bind("readUpTo", readUpTo)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteAllByUserId(UUID userId) {
+        return databaseClient.sql("DELETE FROM notifications WHERE user_id = :userId")
+                .bind("userId", UuidBytes.toBytes(userId))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Notification toNotification(Readable row) {
+        String status = row.get("status", String.class);
+        LocalDateTime createdOn = row.get("created_on", LocalDateTime.class);
+        LocalDateTime readAt = row.get("read_at", LocalDateTime.class);
+        LocalDateTime readUpTo = row.get("read_up_to", LocalDateTime.class);
+
+        return Notification.builder()
+                .id(UuidBytes.fromBytes(row.get("id", byte[].class)))
+                .subject(row.get("subject", String.class))
+                .body(row.get("body", String.class))
+                .createdOn(createdOn)
+                .status(status == null ? null : NotificationStatus.valueOf(status))
+                .type(NotificationType.valueOf(row.get("type", String.class)))
+                .userId(UuidBytes.fromBytes(row.get("user_id", byte[].class)))
+                .deleted(Boolean.TRUE.equals(row.get("deleted", Boolean.class)))
+                .readAt(readAt)
+                .read(readAt != null || readUpTo != null && createdOn != null && !createdOn.isAfter(readUpTo))
+                .build();
+    }
+}
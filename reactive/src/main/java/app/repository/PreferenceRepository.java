@@ -0,0 +1,114 @@
+package app.repository;
+
+import app.model.NotificationPreference;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class PreferenceRepository {
+
+    private static final String COLUMNS = """
+            id, user_id, email_notification_enabled, dead_line_notification_enabled, summary_notification_enabled,
+            reminder_notification_enabled, email, webhook_url, quiet_hours_start, quiet_hours_end, time_zone, created_on, updated_on""";
+
+    private static final String ON_DUPLICATE_KEY = """
+             ON DUPLICATE KEY UPDATE
+                email_notification_enabled = VALUES(email_notification_enabled),
+                dead_line_notification_enabled = VALUES(dead_line_notification_enabled),
+                summary_notification_enabled = VALUES(summary_notification_enabled),
+                reminder_notification_enabled = VALUES(reminder_notification_enabled),
+                email = VALUES(email),
+                webhook_url = VALUES(webhook_url),
+                quiet_hours_start = VALUES(quiet_hours_start),
+                quiet_hours_end = VALUES(quiet_hours_end),
+                time_zone = VALUES(time_zone),
+                updated_on = VALUES(updated_on)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public PreferenceRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<NotificationPreference> findByUserId(UUID userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM notification_preference WHERE user_id = :userId")
+                .bind("userId", UuidBytes.toBytes(userId))
+                .map(PreferenceRepository::toPreference)
+                .one();
+    }
+
+    public Flux<NotificationPreference> findAllByUserIdIn(Collection<UUID> userIds) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM notification_preference WHERE user_id IN (:userIds)")
+                .bind("userIds", userIds.stream().map(UuidBytes::toBytes).toList())
+                .map(PreferenceRepository::toPreference)
+                .all();
+    }
+
+    // One multi-row INSERT ... ON DUPLICATE KEY UPDATE per call, like the blocking service's bulk upsert.
+    public Mono<Long> upsertAll(List<NotificationPreference> preferences) {
+        StringBuilder sql = new StringBuilder("INSERT INTO notification_preference (" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < preferences.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:id%1$d, :userId%1$d, :emailEnabled%1$d, :deadLine%1$d, :summary%1$d, :reminder%1$d, :email%1$d, :webhookUrl%1$d, :quietStart%1$d, :quietEnd%1$d, :timeZone%1$d, :createdOn%1$d, :updatedOn%1$d)".formatted(i));
+        }
+        sql.append(ON_DUPLICATE_KEY);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < preferences.size(); i++) {
+            NotificationPreference preference = preferences.get(i);
+            spec = spec.bind("id" + i, UuidBytes.toBytes(preference.getId()))
+                    .bind("userId" + i, UuidBytes.toBytes(preference.getUserId()))
+                    .bind("emailEnabled" + i, preference.isEmailNotificationEnabled())
+                    .bind("deadLine" + i, preference.isDeadLineNotificationEnabled())
+                    .bind("summary" + i, preference.isSummaryNotificationEnabled())
+                    .bind("reminder" + i, preference.isReminderNotificationEnabled())
+                    .bind("createdOn" + i, preference.getCreatedOn())
+                    .bind("updatedOn" + i, preference.getUpdatedOn());
+            spec = bindNullable(spec, "email" + i, preference.getEmail());
+            spec = bindNullable(spec, "webhookUrl" + i, preference.getWebhookUrl());
+            spec = bindNullable(spec, "quietStart" + i, preference.getQuietHoursStart(), LocalTime.class);
+            spec = bindNullable(spec, "quietEnd" + i, preference.getQuietHoursEnd(), LocalTime.class);
+            spec = bindNullable(spec, "timeZone" + i, preference.getTimeZone());
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return bindNullable(spec, name, value, String.class);
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static NotificationPreference toPreference(Readable row) {
+        return NotificationPreference.builder()
+                .id(UuidBytes.fromBytes(row.get("id", byte[].class)))
+                .userId(UuidBytes.fromBytes(row.get("user_id", byte[].class)))
+                .emailNotificationEnabled(Boolean.TRUE.equals(row.get("email_notification_enabled", Boolean.class)))
+                .deadLineNotificationEnabled(Boolean.TRUE.equals(row.get("dead_line_notification_enabled", Boolean.class)))
+                .summaryNotificationEnabled(Boolean.TRUE.equals(row.get("summary_notification_enabled", Boolean.class)))
+                .reminderNotificationEnabled(Boolean.TRUE.equals(row.get("reminder_notification_enabled", Boolean.class)))
+                .email(row.get("email", String.class))
+                .webhookUrl(row.get("webhook_url", String.class))
+                .quietHoursStart(row.get("quiet_hours_start", LocalTime.class))
+                .quietHoursEnd(row.get("quiet_hours_end", LocalTime.class))
+                .timeZone(row.get("time_zone", String.class))
+                .createdOn(row.get("created_on", LocalDateTime.class))
+                .updatedOn(row.get("updated_on", LocalDateTime.class))
+                .build();
+    }
+}
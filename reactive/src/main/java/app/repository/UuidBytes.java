@@ -0,0 +1,23 @@
+package app.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+// Ids are BINARY(16) columns, written by Hibernate in the blocking service as the UUID's 16 big-endian bytes.
+final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
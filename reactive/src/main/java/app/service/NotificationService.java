@@ -0,0 +1,160 @@
+package app.service;
+
+import app.mail.MailOffloader;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.web.dto.NotificationRequest;
+import app.web.dto.ReadRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.*;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class NotificationService {
+
+    // Channel names notification-svc reports in deliveries.
+    private static final String EMAIL_CHANNEL = "email";
+    private static final String IN_APP_CHANNEL = "in-app";
+
+    private final NotificationRepository notificationRepository;
+    private final PreferenceService preferenceService;
+    private final MailOffloader mailOffloader;
+
+    public NotificationService(NotificationRepository notificationRepository, PreferenceService preferenceService, MailOffloader mailOffloader) {
+        this.notificationRepository = notificationRepository;
+        this.preferenceService = preferenceService;
+        this.mailOffloader = mailOffloader;
+    }
+
+    public Flux<Notification> getHistory(UUID userId) {
+        return notificationRepository.findAllByUserId(userId);
+    }
+
+    public Flux<Notification> getHistoryPage(UUID userId, int page, int size) {
+        return notificationRepository.findPageByUserId(userId, page, size);
+    }
+
+    public Flux<Notification> getUnreadPage(UUID userId, int page, int size) {
+        return notificationRepository.findUnreadPageByUserId(userId, page, size);
+    }
+
+    // The watermark covers "mark all read" without touching rows; ids are marked with a single UPDATE.
+    public Mono<Void> markRead(ReadRequest readRequest) {
+        UUID userId = readRequest.getUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        Mono<Long> watermark = readRequest.getUpTo() == null
+                ? Mono.empty()
+                : notificationRepository.advanceReadWatermark(userId, readRequest.getUpTo().isAfter(now) ? now : readRequest.getUpTo());
+        Mono<Long> ids = readRequest.getIds() == null || readRequest.getIds().isEmpty()
+                ? Mono.empty()
+                : notificationRepository.markRead(userId, readRequest.getIds(), now);
+
+        return watermark.then(ids).then();
+    }
+
+    public Mono<Notification> sendNotification(NotificationRequest notificationRequest) {
+        if (notificationRequest.getScheduledFor() != null || notificationRequest.getChannels() != null && !notificationRequest.getChannels().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Scheduled and channel-routed notifications are only supported by notification-svc"));
+        }
+
+        return preferenceService.getByUserId(notificationRequest.getUserId())
+                .flatMap(preference -> {
+                    // notification-svc defers these until quiet hours end; without a scheduler this variant asks the caller to retry then.
+                    Optional<Instant> quietUntil = notificationRequest.getType() == NotificationType.ALERT
+                            ? Optional.empty()
+                            : quietUntil(preference, Instant.now());
+                    if (quietUntil.isPresent()) {
+                        return Mono.error(new QuietHoursException(notificationRequest.getUserId(), quietUntil.get()));
+                    }
+                    return notificationRequest.getType() == NotificationType.EMAIL
+                            ? sendEmail(notificationRequest, preference)
+                            : Mono.just(inApp(notificationRequest, preference));
+                })
+                .flatMap(notificationRepository::insert);
+    }
+
+    public Mono<Void> deleteHistory(UUID userId) {
+        return notificationRepository.deleteAllByUserId(userId).then();
+    }
+
+    private Mono<Notification> sendEmail(NotificationRequest notificationRequest, NotificationPreference preference) {
+        if (!preference.isEmailNotificationEnabled()) {
+            return Mono.error(new IllegalStateException("User with id=[%s] turned of his notifications".formatted(notificationRequest.getUserId())));
+        }
+
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setTo(preference.getEmail());
+        mailMessage.setSubject(notificationRequest.getSubject());
+        mailMessage.setText(notificationRequest.getBody());
+
+        return mailOffloader.send(mailMessage)
+                .thenReturn(NotificationStatus.SUCCEEDED)
+                .onErrorResume(e -> {
+                    log.error("[S2S Call]: Failed due to {}", e.getMessage());
+                    return Mono.just(NotificationStatus.FAILED);
+                })
+                .map(status -> notification(notificationRequest, status, EMAIL_CHANNEL));
+    }
+
+    private Notification inApp(NotificationRequest notificationRequest, NotificationPreference preference) {
+        return notification(notificationRequest, checkNotificationStatus(notificationRequest, preference), IN_APP_CHANNEL);
+    }
+
+    private static NotificationStatus checkNotificationStatus(NotificationRequest request, NotificationPreference preference) {
+        if (request.getType() == NotificationType.DEADLINE && preference.isDeadLineNotificationEnabled()
+         || request.getType() == NotificationType.SUMMARY && preference.isSummaryNotificationEnabled()
+         || request.getType() == NotificationType.REMINDER && preference.isReminderNotificationEnabled()
+         || request.getType() == NotificationType.ALERT) {
+            return NotificationStatus.SUCCEEDED;
+        }
+
+        return NotificationStatus.FAILED;
+    }
+
+    // Same rule as QuietHours in notification-svc: a period ending before it starts runs past midnight, no zone means UTC.
+    static Optional<Instant> quietUntil(NotificationPreference preference, Instant now) {
+        LocalTime start = preference.getQuietHoursStart();
+        LocalTime end = preference.getQuietHoursEnd();
+        if (start == null || end == null || start.equals(end)) {
+            return Optional.empty();
+        }
+
+        ZoneId zone = preference.getTimeZone() == null ? ZoneOffset.UTC : ZoneId.of(preference.getTimeZone());
+        ZonedDateTime local = now.atZone(zone);
+        LocalTime time = local.toLocalTime();
+        boolean quiet = start.isBefore(end)
+                ? !time.isBefore(start) && time.isBefore(end)
+                : !time.isBefore(start) || time.isBefore(end);
+        if (!quiet) {
+            return Optional.empty();
+        }
+
+        ZonedDateTime until = ZonedDateTime.of(local.toLocalDate(), end, zone);
+        return Optional.of((until.isAfter(local) ? until : until.plusDays(1)).toInstant());
+    }
+
+    private static Notification notification(NotificationRequest notificationRequest, NotificationStatus status, String channel) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .subject(notificationRequest.getSubject())
+                .body(notificationRequest.getBody())
+                .createdOn(LocalDateTime.now())
+                .type(notificationRequest.getType())
+                .userId(notificationRequest.getUserId())
+                .status(status)
+                .deleted(false)
+                .channel(channel)
+                .build();
+    }
+}
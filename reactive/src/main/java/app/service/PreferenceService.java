@@ -0,0 +1,96 @@
+package app.service;
+
+import app.ReactiveProperties;
+import app.model.NotificationPreference;
+import app.repository.PreferenceRepository;
+import app.web.dto.PreferenceRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Service
+public class PreferenceService {
+
+    private final PreferenceRepository preferenceRepository;
+    private final int lookupChunkSize;
+
+    public PreferenceService(PreferenceRepository preferenceRepository, ReactiveProperties properties) {
+        this.preferenceRepository = preferenceRepository;
+        this.lookupChunkSize = properties.getLookupChunkSize();
+    }
+
+    public Mono<NotificationPreference> upsert(PreferenceRequest preferenceRequest) {
+        NotificationPreference preference = toPreference(preferenceRequest, now());
+
+        return preferenceRepository.upsertAll(List.of(preference)).thenReturn(preference);
+    }
+
+    public Mono<Integer> upsertAll(List<PreferenceRequest> preferenceRequests) {
+        if (preferenceRequests.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        LocalDateTime now = now();
+        List<NotificationPreference> preferences = preferenceRequests.stream()
+                .map(request -> toPreference(request, now))
+                .toList();
+
+        return preferenceRepository.upsertAll(preferences).thenReturn(preferences.size());
+    }
+
+    public Mono<NotificationPreference> getByUserId(UUID userId) {
+        return preferenceRepository.findByUserId(userId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Preference for this user does not exist!")));
+    }
+
+    public Mono<Map<UUID, NotificationPreference>> getByUserIds(Collection<UUID> userIds) {
+        return Flux.fromIterable(new LinkedHashSet<>(userIds))
+                .buffer(lookupChunkSize)
+                .concatMap(preferenceRepository::findAllByUserIdIn)
+                .collectMap(NotificationPreference::getUserId, preference -> preference, LinkedHashMap::new);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Same rules as notification-svc, which defers deliveries by these fields.
+    private static void validateQuietHours(PreferenceRequest preferenceRequest) {
+        if ((preferenceRequest.getQuietHoursStart() == null) != (preferenceRequest.getQuietHoursEnd() == null)) {
+            throw new IllegalArgumentException("Quiet hours need both a start and an end");
+        }
+        if (preferenceRequest.getTimeZone() != null) {
+            try {
+                ZoneId.of(preferenceRequest.getTimeZone());
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Unknown time zone [%s]".formatted(preferenceRequest.getTimeZone()));
+            }
+        }
+    }
+
+    private NotificationPreference toPreference(PreferenceRequest preferenceRequest, LocalDateTime now) {
+        validateQuietHours(preferenceRequest);
+
+        return NotificationPreference.builder()
+                .id(UUID.randomUUID())
+                .userId(preferenceRequest.getUserId())
+                .deadLineNotificationEnabled(preferenceRequest.isDeadLineNotificationEnabled())
+                .emailNotificationEnabled(preferenceRequest.isEmailNotificationEnabled())
+                .summaryNotificationEnabled(preferenceRequest.isSummaryNotificationEnabled())
+                .reminderNotificationEnabled(preferenceRequest.isReminderNotificationEnabled())
+                .email(preferenceRequest.getEmail())
+                .webhookUrl(preferenceRequest.getWebhookUrl())
+                .quietHoursStart(preferenceRequest.getQuietHoursStart())
+                .quietHoursEnd(preferenceRequest.getQuietHoursEnd())
+                .timeZone(preferenceRequest.getTimeZone())
+                .updatedOn(now)
+                .createdOn(now)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package app.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+public class QuietHoursException extends RuntimeException {
+
+    private final Instant quietUntil;
+
+    public QuietHoursException(UUID userId, Instant quietUntil) {
+        super("User [%s] is in quiet hours until %s".formatted(userId, quietUntil));
+        this.quietUntil = quietUntil;
+    }
+}
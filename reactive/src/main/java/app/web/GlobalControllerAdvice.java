@@ -0,0 +1,49 @@
+package app.web;
+
+import app.service.QuietHoursException;
+import app.web.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+
+@ControllerAdvice
+public class GlobalControllerAdvice {
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleUnavailable(RuntimeException e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(QuietHoursException.class)
+    public ResponseEntity<ErrorResponse> handleQuietHours(QuietHoursException e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+        long retryAfterSeconds = Math.max(1, Duration.between(Instant.now(), e.getQuietUntil()).toSeconds());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+}
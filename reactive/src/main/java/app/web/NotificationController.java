@@ -0,0 +1,74 @@
+package app.web;
+
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
+import app.web.dto.ReadRequest;
+import app.web.mapper.DtoMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/notifications")
+public class NotificationController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_READ_IDS = 1000;
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<NotificationResponse>> sendNotification(@RequestBody NotificationRequest notificationRequest) {
+        return notificationService.sendNotification(notificationRequest)
+                .map(notification -> ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.fromOutcome(notification)));
+    }
+
+    @GetMapping
+    public Flux<NotificationResponse> getHistory(@RequestParam("userId") UUID userId,
+                                                 @RequestParam(value = "page", required = false) Integer page,
+                                                 @RequestParam(value = "size", required = false) Integer size,
+                                                 @RequestParam(value = "unread", required = false) boolean unread) {
+        if (page != null || size != null || unread) {
+            int pageNumber = page == null ? 0 : Math.max(0, page);
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return (unread
+                    ? notificationService.getUnreadPage(userId, pageNumber, pageSize)
+                    : notificationService.getHistoryPage(userId, pageNumber, pageSize)).map(DtoMapper::from);
+        }
+
+        return notificationService.getHistory(userId).map(DtoMapper::from);
+    }
+
+    // One JSON document per line, written as rows arrive from the cursor; a slow client slows the cursor down.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NotificationResponse> exportHistory(@RequestParam("userId") UUID userId) {
+        return notificationService.getHistory(userId).map(DtoMapper::from);
+    }
+
+    @PostMapping("/read")
+    public Mono<ResponseEntity<Void>> markRead(@RequestBody ReadRequest readRequest) {
+        boolean hasIds = readRequest.getIds() != null && !readRequest.getIds().isEmpty();
+        if (readRequest.getUserId() == null || !hasIds && readRequest.getUpTo() == null
+                || hasIds && readRequest.getIds().size() > MAX_READ_IDS) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return notificationService.markRead(readRequest).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @DeleteMapping("/history")
+    public Mono<ResponseEntity<Void>> deleteHistory(@RequestParam("userId") UUID userId) {
+        return notificationService.deleteHistory(userId).thenReturn(ResponseEntity.ok().build());
+    }
+}
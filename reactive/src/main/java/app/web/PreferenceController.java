@@ -0,0 +1,66 @@
+package app.web;
+
+import app.ReactiveProperties;
+import app.service.PreferenceService;
+import app.web.dto.PreferenceImportResponse;
+import app.web.dto.PreferenceRequest;
+import app.web.dto.PreferenceResponse;
+import app.web.mapper.DtoMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/preferences")
+public class PreferenceController {
+
+    private final PreferenceService preferenceService;
+    private final int bulkBatchSize;
+
+    public PreferenceController(PreferenceService preferenceService, ReactiveProperties properties) {
+        this.preferenceService = preferenceService;
+        this.bulkBatchSize = properties.getBulkBatchSize();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<PreferenceResponse>> upsertPreference(@RequestBody PreferenceRequest preferenceRequest) {
+        return preferenceService.upsert(preferenceRequest)
+                .map(preference -> ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.from(preference)));
+    }
+
+    // The array is decoded element by element and only one batch is written at a time, so the request body
+    // is read no faster than the database accepts it.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<PreferenceImportResponse>> bulkUpsertPreferences(@RequestBody Flux<PreferenceRequest> preferenceRequests) {
+        return preferenceRequests
+                .buffer(bulkBatchSize)
+                .concatMap(preferenceService::upsertAll)
+                .reduce(PreferenceImportResponse.builder().imported(0).batches(0).build(), (response, imported) -> PreferenceImportResponse.builder()
+                        .imported(response.getImported() + imported)
+                        .batches(response.getBatches() + 1)
+                        .build())
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<Map<UUID, PreferenceResponse>>> lookupPreferences(@RequestBody List<UUID> userIds) {
+        return preferenceService.getByUserIds(userIds).map(preferences -> {
+            Map<UUID, PreferenceResponse> responses = new LinkedHashMap<>();
+            preferences.forEach((userId, preference) -> responses.put(userId, DtoMapper.from(preference)));
+            return ResponseEntity.ok(responses);
+        });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<PreferenceResponse>> getPreferenceForUser(@RequestParam("userId") UUID userId) {
+        return preferenceService.getByUserId(userId).map(preference -> ResponseEntity.ok(DtoMapper.from(preference)));
+    }
+}
@@ -0,0 +1,19 @@
+package app.web.dto;
+
+import app.model.NotificationStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class DeliveryResponse {
+
+    private String channel;
+
+    private UUID id;
+
+    private NotificationStatus status;
+
+}
@@ -0,0 +1,26 @@
+package app.web.dto;
+
+import app.model.NotificationType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+public class NotificationRequest {
+
+    private UUID userId;
+
+    private String subject;
+
+    private String body;
+
+    private NotificationType type;
+
+    private Set<String> channels;
+
+    private LocalDateTime scheduledFor;
+}
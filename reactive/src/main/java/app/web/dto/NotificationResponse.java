@@ -0,0 +1,32 @@
+package app.web.dto;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class NotificationResponse {
+
+    private UUID id;
+
+    private String subject;
+
+    private LocalDateTime createdOn;
+
+    private NotificationStatus status;
+
+    private NotificationType type;
+
+    private boolean read;
+
+    private LocalDateTime readAt;
+
+    // Only set when sending: the outcome of the channel the notification went to.
+    private List<DeliveryResponse> deliveries;
+
+}
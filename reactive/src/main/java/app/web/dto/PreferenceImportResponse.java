@@ -0,0 +1,14 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PreferenceImportResponse {
+
+    private int imported;
+
+    private int batches;
+
+}
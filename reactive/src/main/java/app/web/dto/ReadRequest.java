@@ -0,0 +1,19 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ReadRequest {
+
+    private UUID userId;
+
+    private List<UUID> ids;
+
+    private LocalDateTime upTo;
+}
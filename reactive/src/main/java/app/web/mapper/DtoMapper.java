@@ -0,0 +1,51 @@
+package app.web.mapper;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.web.dto.DeliveryResponse;
+import app.web.dto.NotificationResponse;
+import app.web.dto.PreferenceResponse;
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+@UtilityClass
+public class DtoMapper {
+
+    public static PreferenceResponse from(NotificationPreference preference) {
+
+        return PreferenceResponse.builder()
+                .email(preference.getEmail())
+                .webhookUrl(preference.getWebhookUrl())
+                .emailNotificationEnabled(preference.isEmailNotificationEnabled())
+                .summaryNotificationEnabled(preference.isSummaryNotificationEnabled())
+                .deadLineNotificationEnabled(preference.isDeadLineNotificationEnabled())
+                .reminderNotificationEnabled(preference.isReminderNotificationEnabled())
+                .quietHoursStart(preference.getQuietHoursStart())
+                .quietHoursEnd(preference.getQuietHoursEnd())
+                .timeZone(preference.getTimeZone())
+                .build();
+    }
+
+    public static NotificationResponse from(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .subject(notification.getSubject())
+                .createdOn(notification.getCreatedOn())
+                .type(notification.getType())
+                .status(notification.getStatus())
+                .read(notification.isRead())
+                .readAt(notification.getReadAt())
+                .build();
+    }
+
+    public static NotificationResponse fromOutcome(Notification notification) {
+        NotificationResponse response = from(notification);
+        response.setDeliveries(List.of(DeliveryResponse.builder()
+                .channel(notification.getChannel())
+                .id(notification.getId())
+                .status(notification.getStatus())
+                .build()));
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package app;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the H2 test schema from the main service's Flyway migrations (copied to {@code db/migration} by the
+ * pom), so the reactive tests run against the columns production has rather than a hand-kept copy.
+ * Statements H2 cannot run are adapted: the V2 legacy webhook_url probe (V1 already creates the column) and
+ * FULLTEXT indexes are dropped, and multi-column ADD COLUMN is split into one ALTER per column. Every test
+ * context shares the in-memory database, so each one starts from an empty database, as Flyway would.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MigrationSchema {
+
+    private static final Pattern VERSION = Pattern.compile("V(\\d+)__.*\\.sql");
+    private static final Pattern ADD_COLUMNS = Pattern.compile("(?is)ALTER TABLE\\s+(\\w+)\\s+(ADD COLUMN .*)");
+
+    @Bean
+    ConnectionFactoryInitializer migrationSchemaInitializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ByteArrayResource(script().getBytes(StandardCharsets.UTF_8))));
+        return initializer;
+    }
+
+    static String script() {
+        try {
+            Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+            if (migrations.length == 0) {
+                throw new IllegalStateException("No migrations on the test classpath");
+            }
+            StringBuilder script = new StringBuilder("DROP ALL OBJECTS;\n");
+            for (Resource migration : Arrays.stream(migrations).sorted(Comparator.comparingInt(MigrationSchema::version)).toList()) {
+                for (String statement : statements(migration.getContentAsString(StandardCharsets.UTF_8))) {
+                    toH2(statement).forEach(converted -> script.append(converted).append(";\n"));
+                }
+            }
+            return script.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<String> toH2(String statement) {
+        String upper = statement.toUpperCase();
+        if (upper.startsWith("SET @") || upper.startsWith("PREPARE ") || upper.startsWith("EXECUTE ")
+                || upper.startsWith("DEALLOCATE ") || upper.contains("FULLTEXT")) {
+            return List.of();
+        }
+        Matcher addColumns = ADD_COLUMNS.matcher(statement);
+        if (addColumns.matches()) {
+            return Arrays.stream(addColumns.group(2).split(",\\s*(?=(?i)ADD COLUMN)"))
+                    .map(column -> "ALTER TABLE " + addColumns.group(1) + " " + column.strip())
+                    .toList();
+        }
+        return List.of(statement);
+    }
+
+    private static List<String> statements(String sql) {
+        String withoutComments = sql.lines()
+                .filter(line -> !line.strip().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::strip)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+    }
+
+    private static int version(Resource migration) {
+        Matcher matcher = VERSION.matcher(migration.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unexpected migration file name " + migration.getFilename());
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+}
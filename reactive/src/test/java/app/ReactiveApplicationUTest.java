@@ -0,0 +1,32 @@
+package app;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveApplicationUTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ReactiveApplication.ShardingUnsupported.class);
+
+    @Test
+    void whenShardingIsEnabled_thenRefuseToStart() {
+        contextRunner.withPropertyValues("notifications.sharding.enabled=true").run(context -> {
+            assertNotNull(context.getStartupFailure());
+            assertInstanceOf(IllegalStateException.class, rootCause(context.getStartupFailure()));
+        });
+    }
+
+    @Test
+    void whenShardingIsNotEnabled_thenStart() {
+        contextRunner.run(context -> assertNull(context.getStartupFailure()));
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        while (failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,236 @@
+package app.web;
+
+import app.MigrationSchema;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
+import app.web.dto.PreferenceRequest;
+import app.web.dto.ReadRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("h2")
+@Import(MigrationSchema.class)
+@AutoConfigureWebTestClient
+@SpringBootTest
+public class NotificationApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        webTestClient.post().uri("/api/v1/preferences")
+                .bodyValue(PreferenceRequest.builder().userId(userId).email("ivan@test.bg").emailNotificationEnabled(true).build())
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void whenEmailIsSent_thenMailGoesOutOffTheEventLoopAndIsRecorded() {
+        doAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("mail-"));
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage.class));
+
+        NotificationResponse response = send(NotificationType.EMAIL, "hello");
+
+        assertEquals(NotificationStatus.SUCCEEDED, response.getStatus());
+        verify(mailSender).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void whenSmtpFails_thenRecordFailedNotification() {
+        doThrow(new MailSendException("smtp down")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        assertEquals(NotificationStatus.FAILED, send(NotificationType.EMAIL, "hello").getStatus());
+    }
+
+    @Test
+    void whenHistoryIsRequested_thenReturnNewestFirstAndPageOnRequest() {
+        send(NotificationType.ALERT, "first");
+        send(NotificationType.ALERT, "second");
+        send(NotificationType.ALERT, "third");
+
+        List<NotificationResponse> history = webTestClient.get().uri("/api/v1/notifications?userId={userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(NotificationResponse.class)
+                .returnResult().getResponseBody();
+        List<NotificationResponse> page = webTestClient.get().uri("/api/v1/notifications?userId={userId}&page=1&size=2", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(NotificationResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(List.of("third", "second", "first"), history.stream().map(NotificationResponse::getSubject).toList());
+        assertEquals(List.of("first"), page.stream().map(NotificationResponse::getSubject).toList());
+    }
+
+    @Test
+    void whenNotificationsAreMarkedRead_thenHistoryAndUnreadPageReflectIt() {
+        NotificationResponse first = send(NotificationType.ALERT, "first");
+        NotificationResponse second = send(NotificationType.ALERT, "second");
+
+        assertNotNull(first.getId());
+        assertEquals(1, first.getDeliveries().size());
+        assertEquals("in-app", first.getDeliveries().get(0).getChannel());
+        assertEquals(first.getId(), first.getDeliveries().get(0).getId());
+        assertFalse(first.isRead());
+
+        markRead(ReadRequest.builder().userId(userId).ids(List.of(first.getId())).build());
+        assertEquals(List.of(second.getId()), unread().stream().map(NotificationResponse::getId).toList());
+        NotificationResponse readOne = history().stream().filter(response -> response.getId().equals(first.getId())).findFirst().orElseThrow();
+        assertTrue(readOne.isRead());
+        assertNotNull(readOne.getReadAt());
+
+        markRead(ReadRequest.builder().userId(userId).upTo(LocalDateTime.now()).build());
+        assertEquals(List.of(), unread());
+        assertTrue(history().stream().allMatch(NotificationResponse::isRead));
+
+        NotificationResponse third = send(NotificationType.ALERT, "third");
+        assertEquals(List.of(third.getId()), unread().stream().map(NotificationResponse::getId).toList());
+
+        webTestClient.post().uri("/api/v1/notifications/read")
+                .bodyValue(ReadRequest.builder().userId(userId).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenExporting_thenStreamOneJsonDocumentPerNotification() {
+        for (int i = 0; i < 5; i++) {
+            send(NotificationType.REMINDER, "reminder-" + i);
+        }
+
+        Flux<NotificationResponse> export = webTestClient.get().uri("/api/v1/notifications/export?userId={userId}", userId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(NotificationResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(export, 2)
+                .expectNextCount(2)
+                .thenRequest(10)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenHistoryIsDeleted_thenItIsEmpty() {
+        send(NotificationType.ALERT, "gone");
+
+        webTestClient.delete().uri("/api/v1/notifications/history?userId={userId}", userId)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/v1/notifications?userId={userId}", userId)
+                .exchange()
+                .expectBodyList(NotificationResponse.class).hasSize(0);
+    }
+
+    @Test
+    void whenRequestIsScheduled_thenRejectAsUnsupported() {
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.REMINDER)
+                .subject("later")
+                .body("later")
+                .scheduledFor(LocalDateTime.now().plusHours(1))
+                .build();
+
+        webTestClient.post().uri("/api/v1/notifications")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenUserIsInQuietHours_thenAskToRetryWhenTheyEndForAllButAlerts() {
+        LocalTime now = LocalTime.now(ZoneOffset.UTC);
+        webTestClient.post().uri("/api/v1/preferences")
+                .bodyValue(PreferenceRequest.builder().userId(userId).email("ivan@test.bg").reminderNotificationEnabled(true)
+                        .quietHoursStart(now.minusHours(1)).quietHoursEnd(now.plusHours(1)).timeZone("UTC").build())
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post().uri("/api/v1/notifications")
+                .bodyValue(NotificationRequest.builder().userId(userId).type(NotificationType.REMINDER).subject("quiet").body("quiet").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().value(HttpHeaders.RETRY_AFTER, retryAfter -> assertTrue(Long.parseLong(retryAfter) > 3500 && Long.parseLong(retryAfter) <= 3600));
+        assertEquals(NotificationStatus.SUCCEEDED, send(NotificationType.ALERT, "urgent").getStatus());
+    }
+
+    private void markRead(ReadRequest request) {
+        webTestClient.post().uri("/api/v1/notifications/read")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private List<NotificationResponse> history() {
+        return webTestClient.get().uri("/api/v1/notifications?userId={userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(NotificationResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    private List<NotificationResponse> unread() {
+        return webTestClient.get().uri("/api/v1/notifications?userId={userId}&unread=true", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(NotificationResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    private NotificationResponse send(NotificationType type, String subject) {
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(type)
+                .subject(subject)
+                .body("body")
+                .build();
+
+        return webTestClient.post().uri("/api/v1/notifications")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(NotificationResponse.class)
+                .returnResult().getResponseBody();
+    }
+}
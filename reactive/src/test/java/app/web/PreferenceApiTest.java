@@ -0,0 +1,96 @@
+package app.web;
+
+import app.MigrationSchema;
+import app.web.dto.PreferenceImportResponse;
+import app.web.dto.PreferenceRequest;
+import app.web.dto.PreferenceResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("h2")
+@Import(MigrationSchema.class)
+@AutoConfigureWebTestClient
+@SpringBootTest(properties = "notifications.reactive.bulk-batch-size=4")
+public class PreferenceApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @Test
+    void whenUpsertTwice_thenSecondWriteWins() {
+        UUID userId = UUID.randomUUID();
+
+        upsert(PreferenceRequest.builder().userId(userId).email("first@test.bg").build());
+        upsert(PreferenceRequest.builder().userId(userId).email("second@test.bg").reminderNotificationEnabled(true).build());
+
+        PreferenceResponse response = webTestClient.get().uri("/api/v1/preferences?userId={userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PreferenceResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals("second@test.bg", response.getEmail());
+        assertTrue(response.isReminderNotificationEnabled());
+    }
+
+    @Test
+    void whenBulkImport_thenWriteInBatchesAndLookUpAll() {
+        List<PreferenceRequest> requests = IntStream.range(0, 10)
+                .mapToObj(i -> PreferenceRequest.builder().userId(UUID.randomUUID()).email("user" + i + "@test.bg").build())
+                .toList();
+
+        PreferenceImportResponse imported = webTestClient.post().uri("/api/v1/preferences/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PreferenceImportResponse.class)
+                .returnResult().getResponseBody();
+
+        assertEquals(10, imported.getImported());
+        assertEquals(3, imported.getBatches());
+
+        Map<UUID, PreferenceResponse> found = webTestClient.post().uri("/api/v1/preferences/lookup")
+                .bodyValue(requests.stream().map(PreferenceRequest::getUserId).toList())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<Map<UUID, PreferenceResponse>>() { })
+                .returnResult().getResponseBody();
+
+        assertEquals(10, found.size());
+        assertEquals("user3@test.bg", found.get(requests.get(3).getUserId()).getEmail());
+    }
+
+    @Test
+    void whenPreferenceIsMissing_thenReturnServerError() {
+        webTestClient.get().uri("/api/v1/preferences?userId={userId}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    private void upsert(PreferenceRequest request) {
+        webTestClient.post().uri("/api/v1/preferences")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+    }
+}
@@ -0,0 +1,66 @@
+package app;
+
+import app.model.*;
+import app.web.dto.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Native-image hints for what Spring AOT cannot infer. {@code PreferenceController} parses
+ * {@link PreferenceRequest} from a raw stream, the webhook and error bodies are written directly through
+ * Jackson, and JavaMail loads its SMTP transport and content handlers by name from its META-INF files.
+ */
+public class NotificationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> DTOS = List.of(
+            NotificationRequest.class,
+            NotificationResponse.class,
+            PreferenceRequest.class,
+            PreferenceResponse.class,
+            PreferenceImportResponse.class,
+            ErrorResponse.class);
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Notification.class,
+            NotificationPreference.class,
+            ScheduledNotification.class);
+
+    private static final List<String> MAIL_CLASSES = List.of(
+            "org.eclipse.angus.mail.smtp.SMTPProvider",
+            "org.eclipse.angus.mail.smtp.SMTPSSLProvider",
+            "org.eclipse.angus.mail.smtp.SMTPTransport",
+            "org.eclipse.angus.mail.smtp.SMTPSSLTransport",
+            "org.eclipse.angus.mail.handlers.text_plain",
+            "org.eclipse.angus.mail.handlers.text_html",
+            "org.eclipse.angus.mail.handlers.text_xml",
+            "org.eclipse.angus.mail.handlers.multipart_mixed",
+            "org.eclipse.angus.mail.handlers.message_rfc822");
+
+    private static final List<String> MAIL_RESOURCES = List.of(
+            "META-INF/mailcap",
+            "META-INF/javamail.providers",
+            "META-INF/javamail.default.providers",
+            "META-INF/javamail.address.map",
+            "META-INF/javamail.default.address.map",
+            "META-INF/javamail.charset.map");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        DTOS.forEach(dto -> bindingRegistrar.registerReflectionHints(hints.reflection(), dto));
+
+        ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        MAIL_CLASSES.forEach(className -> hints.reflection().registerType(TypeReference.of(className),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        MAIL_RESOURCES.forEach(hints.resources()::registerPattern);
+    }
+}
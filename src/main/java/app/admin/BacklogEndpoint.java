@@ -0,0 +1,21 @@
+package app.admin;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "backlog")
+public class BacklogEndpoint {
+
+    private final BacklogMonitor backlogMonitor;
+
+    public BacklogEndpoint(BacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    @ReadOperation
+    public BacklogReport backlog() {
+        return backlogMonitor.report();
+    }
+}
@@ -0,0 +1,33 @@
+package app.admin;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Part of the readiness group: reports OUT_OF_SERVICE while one of this instance's channel lanes is saturated
+ * or its SMTP circuit is open, so the load balancer sends traffic to other instances until it recovers.
+ */
+@Component
+public class BacklogHealthIndicator implements HealthIndicator {
+
+    private final BacklogMonitor backlogMonitor;
+
+    public BacklogHealthIndicator(BacklogMonitor backlogMonitor) {
+        this.backlogMonitor = backlogMonitor;
+    }
+
+    @Override
+    public Health health() {
+        BacklogReport report = backlogMonitor.report();
+        List<String> reasons = backlogMonitor.notReadyReasons(report);
+
+        return Health.status(reasons.isEmpty() ? Status.UP : Status.OUT_OF_SERVICE)
+                .withDetail("smtpCircuit", report.getSmtp().state())
+                .withDetail("reasons", reasons)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package app.admin;
+
+import app.channel.AgeBucket;
+import app.channel.ChannelDispatcher;
+import app.channel.ChannelStats;
+import app.channel.InAppWriteBuffer;
+import app.mail.CircuitState;
+import app.mail.GuardedMailSender;
+import app.mail.SmtpProperties;
+import app.model.NotificationType;
+import app.model.ScheduleState;
+import app.repository.ScheduledNotificationRepository;
+import app.repository.ScheduledNotificationRepository.TypeCount;
+import app.schedule.ScheduledDeliveryService;
+import app.shard.ShardRouter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Assembles the backlog report from the in-memory counters of the dispatcher, write buffer, scheduler and
+ * mail sender. Overdue scheduled items are counted with range queries on the (state, due_at, type) index and
+ * reloaded at most once per {@code refresh-interval}, so probes and dashboards polling it stay cheap.
+ * Readiness only looks at this instance (its lanes and its SMTP circuit). The overdue count and the SMTP
+ * failure rate are the same on every instance, so they are reported as warnings instead: taking instances out
+ * of rotation for them would not help and, with every instance failing together, would take the service down.
+ */
+@Component
+public class BacklogMonitor {
+
+    private final ScheduledNotificationRepository scheduledNotificationRepository;
+    private final ScheduledDeliveryService scheduledDeliveryService;
+    private final ChannelDispatcher channelDispatcher;
+    private final InAppWriteBuffer writeBuffer;
+    private final GuardedMailSender mailSender;
+    private final SmtpProperties smtpProperties;
+    private final ShardRouter shardRouter;
+    private final BacklogProperties properties;
+
+    private PendingBacklog pending;
+    private long pendingLoadedAt;
+
+    public BacklogMonitor(ScheduledNotificationRepository scheduledNotificationRepository,
+                          ScheduledDeliveryService scheduledDeliveryService,
+                          ChannelDispatcher channelDispatcher,
+                          InAppWriteBuffer writeBuffer,
+                          GuardedMailSender mailSender,
+                          SmtpProperties smtpProperties,
+                          ShardRouter shardRouter,
+                          BacklogProperties properties) {
+        this.scheduledNotificationRepository = scheduledNotificationRepository;
+        this.scheduledDeliveryService = scheduledDeliveryService;
+        this.channelDispatcher = channelDispatcher;
+        this.writeBuffer = writeBuffer;
+        this.mailSender = mailSender;
+        this.smtpProperties = smtpProperties;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    public BacklogReport report() {
+        PendingBacklog pending = pending();
+        int maxConcurrentSends = smtpProperties.getMaxConcurrentSends();
+
+        BacklogReport report = BacklogReport.builder()
+                .generatedAt(LocalDateTime.now())
+                .overduePending(pending.total())
+                .pendingByAge(pending.byAge())
+                .oldestPending(pending.oldest())
+                .scheduledInMemory(scheduledDeliveryService.pendingInMemory())
+                .failedByAge(channelDispatcher.failuresByAge())
+                .channels(channelDispatcher.stats())
+                .writeBehindPending(writeBuffer.pending())
+                .smtp(new BacklogReport.Smtp(mailSender.getCircuitState(), mailSender.getFailureRate(),
+                        maxConcurrentSends - mailSender.getAvailableSendPermits(), maxConcurrentSends))
+                .replicaFailures(shardRouter.replicaFailures())
+                .build();
+        report.setWarnings(warnings(report));
+        return report;
+    }
+
+    public List<String> notReadyReasons(BacklogReport report) {
+        List<String> reasons = new ArrayList<>();
+
+        for (ChannelStats channel : report.getChannels()) {
+            double utilization = queueUtilization(channel);
+            if (utilization > properties.getMaxQueueUtilization()) {
+                reasons.add("Channel [%s] queue is %.0f%% full".formatted(channel.getChannel(), utilization * 100));
+            }
+        }
+
+        if (report.getSmtp().state() == CircuitState.OPEN) {
+            reasons.add("SMTP circuit is open");
+        }
+
+        return reasons;
+    }
+
+    List<String> warnings(BacklogReport report) {
+        List<String> warnings = new ArrayList<>();
+
+        if (report.getOverduePending() > properties.getMaxOverduePending()) {
+            warnings.add("%d overdue scheduled notifications (max %d)".formatted(report.getOverduePending(), properties.getMaxOverduePending()));
+        }
+
+        if (report.getSmtp().failureRate() > properties.getMaxSmtpFailureRate()) {
+            warnings.add("SMTP failure rate is %.0f%% (circuit %s)".formatted(report.getSmtp().failureRate() * 100, report.getSmtp().state()));
+        }
+
+        return warnings;
+    }
+
+    static double queueUtilization(ChannelStats channel) {
+        if (channel.getQueueCapacity() <= 0 || channel.getQueuedByPriority() == null) {
+            return 0;
+        }
+        int fullestLane = channel.getQueuedByPriority().values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return (double) fullestLane / channel.getQueueCapacity();
+    }
+
+    private synchronized PendingBacklog pending() {
+        long now = System.nanoTime();
+        if (pending == null || now - pendingLoadedAt >= properties.getRefreshInterval().toNanos()) {
+            pending = loadPending();
+            pendingLoadedAt = now;
+        }
+        return pending;
+    }
+
+    private PendingBacklog loadPending() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<NotificationType, Map<AgeBucket, Long>> byAge = new EnumMap<>(NotificationType.class);
+        long total = 0;
+
+        LocalDateTime to = now;
+        for (AgeBucket bucket : AgeBucket.values()) {
+            List<TypeCount> counts;
+            if (bucket.upperBound() == null) {
+                counts = scheduledNotificationRepository.countPendingDueUpTo(to);
+            } else {
+                LocalDateTime from = now.minus(bucket.upperBound());
+                counts = scheduledNotificationRepository.countPendingDueBetween(from, to);
+                to = from;
+            }
+
+            for (TypeCount count : counts) {
+                byAge.computeIfAbsent(count.getType(), type -> new EnumMap<>(AgeBucket.class)).put(bucket, count.getCount());
+                total += count.getCount();
+            }
+        }
+
+        BacklogReport.OldestPending oldest = scheduledNotificationRepository.findFirstByStateOrderByDueAtAsc(ScheduleState.PENDING)
+                .filter(item -> !item.getDueAt().isAfter(now))
+                .map(item -> new BacklogReport.OldestPending(item.getId(), item.getType(), item.getDueAt(),
+                        Duration.between(item.getDueAt(), now).toSeconds()))
+                .orElse(null);
+
+        return new PendingBacklog(byAge, total, oldest);
+    }
+
+    private record PendingBacklog(Map<NotificationType, Map<AgeBucket, Long>> byAge, long total, BacklogReport.OldestPending oldest) {
+    }
+}
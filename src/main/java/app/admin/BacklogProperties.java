@@ -0,0 +1,19 @@
+package app.admin;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.backlog")
+public class BacklogProperties {
+
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    private long maxOverduePending = 1000;
+
+    private double maxQueueUtilization = 0.9;
+
+    private double maxSmtpFailureRate = 0.5;
+}
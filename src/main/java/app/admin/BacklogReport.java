@@ -0,0 +1,47 @@
+package app.admin;
+
+import app.channel.AgeBucket;
+import app.channel.ChannelStats;
+import app.mail.CircuitState;
+import app.model.NotificationType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BacklogReport {
+
+    private LocalDateTime generatedAt;
+
+    private long overduePending;
+
+    private Map<NotificationType, Map<AgeBucket, Long>> pendingByAge;
+
+    private OldestPending oldestPending;
+
+    private int scheduledInMemory;
+
+    private Map<NotificationType, Map<AgeBucket, Long>> failedByAge;
+
+    private List<ChannelStats> channels;
+
+    private int writeBehindPending;
+
+    private Smtp smtp;
+
+    private long replicaFailures;
+
+    // Backlog-wide thresholds that are crossed; they do not affect readiness.
+    private List<String> warnings;
+
+    public record OldestPending(UUID id, NotificationType type, LocalDateTime dueAt, long overdueSeconds) {
+    }
+
+    public record Smtp(CircuitState state, double failureRate, int sendsInFlight, int maxConcurrentSends) {
+    }
+}
@@ -0,0 +1,93 @@
+package app.archive;
+
+import app.model.Notification;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Moves notifications older than {@code notifications.archive.older-than} from every shard into the
+ * {@link ArchiveStore}, oldest first, {@code batch-size} rows per segment. A batch is only deleted from the
+ * database once its segment is on disk; if the instance dies in between, the rows are archived again on the
+ * next run and the duplicates are dropped when reading. The delete locks the batch first and carries over read
+ * marks set since it was read, so a markRead racing the job is not lost. Enable it on one instance only.
+ * Created eagerly: nothing depends on it, so under lazy initialization its schedule would never start.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty(name = "notifications.archive.enabled", havingValue = "true")
+public class ArchivalJob {
+
+    private final NotificationRepository notificationRepository;
+    private final ArchiveStore archiveStore;
+    private final ShardRouter shardRouter;
+    private final ArchiveProperties properties;
+
+    public ArchivalJob(NotificationRepository notificationRepository, ArchiveStore archiveStore, ShardRouter shardRouter, ArchiveProperties properties) {
+        this.notificationRepository = notificationRepository;
+        this.archiveStore = archiveStore;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.archive.interval:1h}", initialDelayString = "${notifications.archive.initial-delay:1m}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getOlderThan());
+        for (String shard : shardRouter.sourceShards()) {
+            long moved = archiveShard(shard, cutoff);
+            if (moved > 0) {
+                log.info("Archived {} notifications older than {} from shard [{}]", moved, cutoff, shard);
+            }
+        }
+    }
+
+    long archiveShard(String shard, LocalDateTime cutoff) {
+        int batchSize = properties.getBatchSize();
+        long moved = 0;
+
+        List<Notification> batch;
+        do {
+            batch = shardRouter.onShard(shard, () -> notificationRepository.findByCreatedOnBeforeOrderByCreatedOnAsc(cutoff, PageRequest.of(0, batchSize)));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            archiveStore.append(batch);
+            List<Notification> archived = batch;
+            shardRouter.inTransactionOn(shard, () -> {
+                deleteArchived(archived);
+                return null;
+            });
+            moved += batch.size();
+        } while (batch.size() == batchSize);
+
+        return moved;
+    }
+
+    private void deleteArchived(List<Notification> archived) {
+        Set<UUID> archivedUnread = archived.stream()
+                .filter(notification -> notification.getReadAt() == null)
+                .map(Notification::getId)
+                .collect(Collectors.toSet());
+        List<UUID> ids = archived.stream().map(Notification::getId).toList();
+
+        Map<UUID, LocalDateTime> readSince = new HashMap<>();
+        for (Notification current : notificationRepository.lockAllById(ids)) {
+            if (current.getReadAt() != null && archivedUnread.contains(current.getId())) {
+                readSince.put(current.getId(), current.getReadAt());
+            }
+        }
+        archiveStore.recordReads(readSince);
+        notificationRepository.deleteAllByIdInBatch(ids);
+    }
+}
@@ -0,0 +1,22 @@
+package app.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data/archive");
+
+    private Duration olderThan = Duration.ofDays(90);
+
+    private int batchSize = 10_000;
+
+    private Duration rescanInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,257 @@
+package app.archive;
+
+import app.model.Notification;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Append-only archive of notifications moved out of the database, as immutable {@link Segment} files in
+ * {@code notifications.archive.directory}. Segments written by other instances sharing the directory are
+ * picked up within {@code rescan-interval}. Deleting a user's history appends a tombstone instead of
+ * rewriting segments; archived notifications created before it are hidden. Marking archived notifications as
+ * read appends to a read log the same way. Both logs are small fixed-size records kept in memory.
+ * A directory of which segments hold each user is built as segments are written or scanned, so a lookup only
+ * reads the segments that have the user's rows, however many segments there are.
+ */
+@Component
+public class ArchiveStore {
+
+    private static final String TOMBSTONES = "tombstones.bin";
+    private static final String READS = "reads.bin";
+    private static final int RECORD_BYTES = 28;
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private final ArchiveProperties properties;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Map<UUID, List<Segment>> segmentsByUser = new ConcurrentHashMap<>();
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, LocalDateTime> tombstones = new ConcurrentHashMap<>();
+    private final Map<UUID, LocalDateTime> reads = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile long lastScanNanos;
+    private boolean scanned;
+    private long tombstoneBytesLoaded;
+    private long readBytesLoaded;
+
+    public ArchiveStore(ArchiveProperties properties) {
+        this.properties = properties;
+    }
+
+    public void append(Collection<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        SortedMap<UUID, List<Notification>> byUser = new TreeMap<>();
+        for (Notification notification : notifications) {
+            byUser.computeIfAbsent(notification.getUserId(), userId -> new ArrayList<>()).add(notification);
+        }
+        byUser.values().forEach(list -> list.sort(Comparator.comparing(Notification::getCreatedOn).reversed()));
+
+        String name = "segment-%s-%s-%04d".formatted(LocalDateTime.now(ZoneOffset.UTC).format(SEGMENT_TIME), instanceId,
+                sequence.incrementAndGet() % 10_000);
+        try {
+            Files.createDirectories(properties.getDirectory());
+            loaded.add(name);
+            register(Segment.write(properties.getDirectory(), name, byUser));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment [%s]".formatted(name), e);
+        }
+    }
+
+    /**
+     * The user's archived, not deleted notifications, newest first.
+     */
+    public List<Notification> find(UUID userId) {
+        rescanIfDue();
+
+        LocalDateTime deletedAt = tombstones.get(userId);
+        Map<UUID, Notification> byId = new LinkedHashMap<>();
+        for (Segment segment : segmentsByUser.getOrDefault(userId, List.of())) {
+            try {
+                for (Notification notification : segment.read(userId)) {
+                    if (!notification.isDeleted() && (deletedAt == null || notification.getCreatedOn().isAfter(deletedAt))) {
+                        if (notification.getReadAt() == null) {
+                            notification.setReadAt(reads.get(notification.getId()));
+                        }
+                        byId.putIfAbsent(notification.getId(), notification);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive segment [%s]".formatted(segment.name()), e);
+            }
+        }
+
+        if (byId.isEmpty()) {
+            return List.of();
+        }
+        List<Notification> found = new ArrayList<>(byId.values());
+        found.sort(Comparator.comparing(Notification::getCreatedOn).reversed());
+        return found;
+    }
+
+    // Always recorded, even with nothing archived yet: the archival job may be about to append this user's rows.
+    public void delete(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            appendRecords(TOMBSTONES, Map.of(userId, now));
+            tombstones.merge(userId, now, ArchiveStore::later);
+        }
+    }
+
+    /**
+     * Records the given notifications as read if they are among the user's archived ones; returns how many were.
+     */
+    public int markRead(UUID userId, Collection<UUID> ids, LocalDateTime readAt) {
+        Set<UUID> wanted = new HashSet<>(ids);
+        Map<UUID, LocalDateTime> marks = new LinkedHashMap<>();
+        for (Notification notification : find(userId)) {
+            if (wanted.contains(notification.getId()) && notification.getReadAt() == null) {
+                marks.put(notification.getId(), readAt);
+            }
+        }
+        recordReads(marks);
+        return marks.size();
+    }
+
+    /**
+     * Records read marks for archived notifications by id, e.g. for rows marked read while they were being archived.
+     */
+    void recordReads(Map<UUID, LocalDateTime> marks) {
+        if (marks.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            appendRecords(READS, marks);
+            marks.forEach((id, at) -> reads.merge(id, at, ArchiveStore::earlier));
+        }
+    }
+
+    public int segmentCount() {
+        rescanIfDue();
+        return segments.size();
+    }
+
+    int segmentCount(UUID userId) {
+        rescanIfDue();
+        return segmentsByUser.getOrDefault(userId, List.of()).size();
+    }
+
+    private void register(Segment segment) {
+        segments.add(segment);
+        for (UUID userId : segment.users()) {
+            segmentsByUser.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(segment);
+        }
+    }
+
+    private void rescanIfDue() {
+        long now = System.nanoTime();
+        if (scanned && now - lastScanNanos < properties.getRescanInterval().toNanos()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (scanned && now - lastScanNanos < properties.getRescanInterval().toNanos()) {
+                return;
+            }
+            scan();
+            scanned = true;
+            lastScanNanos = now;
+        }
+    }
+
+    private void scan() {
+        Path directory = properties.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(Segment.INDEX_SUFFIX)).sorted().toList()) {
+                String fileName = file.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - Segment.INDEX_SUFFIX.length());
+                if (loaded.add(name)) {
+                    register(Segment.open(directory, name));
+                }
+            }
+            tombstoneBytesLoaded = loadRecords(directory.resolve(TOMBSTONES), tombstoneBytesLoaded, tombstones, ArchiveStore::later);
+            readBytesLoaded = loadRecords(directory.resolve(READS), readBytesLoaded, reads, ArchiveStore::earlier);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not scan archive directory [%s]".formatted(directory), e);
+        }
+    }
+
+    private void appendRecords(String file, Map<UUID, LocalDateTime> records) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * records.size());
+        records.forEach((id, at) -> buffer.putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putLong(at.toEpochSecond(ZoneOffset.UTC))
+                .putInt(at.getNano()));
+        buffer.flip();
+
+        try {
+            Files.createDirectories(properties.getDirectory());
+            try (FileChannel channel = FileChannel.open(properties.getDirectory().resolve(file),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to archive log [%s]".formatted(file), e);
+        }
+    }
+
+    private static long loadRecords(Path file, long loadedBytes, Map<UUID, LocalDateTime> into,
+                                    BinaryOperator<LocalDateTime> merge) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == loadedBytes) {
+            return loadedBytes;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long complete = channel.size() / RECORD_BYTES * RECORD_BYTES;
+            ByteBuffer buffer = ByteBuffer.allocate((int) (complete - loadedBytes));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, loadedBytes + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+
+            while (buffer.remaining() >= RECORD_BYTES) {
+                UUID id = new UUID(buffer.getLong(), buffer.getLong());
+                LocalDateTime at = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                into.merge(id, at, merge);
+            }
+            return complete;
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+        return second.isAfter(first) ? second : first;
+    }
+
+    private static LocalDateTime earlier(LocalDateTime first, LocalDateTime second) {
+        return second.isBefore(first) ? second : first;
+    }
+}
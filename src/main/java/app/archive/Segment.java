@@ -0,0 +1,217 @@
+package app.archive;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable archive segment: a data file holding a deflate-compressed block of notifications per user and
+ * an index file of fixed-size entries (user id, block offset, block length, count) sorted by user id. The
+ * index is memory-mapped and binary-searched, so finding a user's block costs no heap and no read syscalls;
+ * only that user's block is read and inflated. The data file is opened per read, so an idle segment holds no
+ * file descriptor. The index is written last, so a segment without one is an interrupted write and is ignored.
+ */
+final class Segment {
+
+    static final String DATA_SUFFIX = ".dat";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4E415243;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 32;
+
+    private final String name;
+    private final Path dataFile;
+    private final MappedByteBuffer index;
+    private final int entries;
+
+    private Segment(String name, Path dataFile, MappedByteBuffer index) {
+        this.name = name;
+        this.dataFile = dataFile;
+        this.index = index;
+        if (index.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Archive segment [%s] has an invalid index".formatted(name));
+        }
+        this.entries = index.getInt(8);
+    }
+
+    static Segment open(Path directory, String name) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(directory.resolve(name + INDEX_SUFFIX), StandardOpenOption.READ)) {
+            return new Segment(name, directory.resolve(name + DATA_SUFFIX), indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size()));
+        }
+    }
+
+    static Segment write(Path directory, String name, SortedMap<UUID, List<Notification>> byUser) throws IOException {
+        Path dataFile = directory.resolve(name + DATA_SUFFIX);
+        Path indexFile = directory.resolve(name + INDEX_SUFFIX);
+        Path dataTmp = directory.resolve(name + DATA_SUFFIX + ".tmp");
+        Path indexTmp = directory.resolve(name + INDEX_SUFFIX + ".tmp");
+
+        ByteBuffer indexBuffer = ByteBuffer.allocate(HEADER_BYTES + byUser.size() * ENTRY_BYTES);
+        indexBuffer.putInt(MAGIC).putInt(1).putInt(byUser.size()).putInt(0);
+
+        try (FileChannel channel = FileChannel.open(dataTmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offset = 0;
+            for (Map.Entry<UUID, List<Notification>> entry : byUser.entrySet()) {
+                byte[] block = encode(entry.getValue());
+                ByteBuffer buffer = ByteBuffer.wrap(block);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                indexBuffer.putLong(entry.getKey().getMostSignificantBits())
+                        .putLong(entry.getKey().getLeastSignificantBits())
+                        .putLong(offset)
+                        .putInt(block.length)
+                        .putInt(entry.getValue().size());
+                offset += block.length;
+            }
+            channel.force(true);
+        }
+        Files.move(dataTmp, dataFile, StandardCopyOption.ATOMIC_MOVE);
+
+        indexBuffer.flip();
+        try (FileChannel channel = FileChannel.open(indexTmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (indexBuffer.hasRemaining()) {
+                channel.write(indexBuffer);
+            }
+            channel.force(true);
+        }
+        Files.move(indexTmp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+
+        return open(directory, name);
+    }
+
+    String name() {
+        return name;
+    }
+
+    List<UUID> users() {
+        List<UUID> users = new ArrayList<>(entries);
+        for (int entry = 0; entry < entries; entry++) {
+            int position = HEADER_BYTES + entry * ENTRY_BYTES;
+            users.add(new UUID(index.getLong(position), index.getLong(position + 8)));
+        }
+        return users;
+    }
+
+    List<Notification> read(UUID userId) throws IOException {
+        int entry = find(userId);
+        if (entry < 0) {
+            return List.of();
+        }
+
+        int position = HEADER_BYTES + entry * ENTRY_BYTES;
+        long offset = index.getLong(position + 16);
+        int length = index.getInt(position + 24);
+
+        ByteBuffer block = ByteBuffer.allocate(length);
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            while (block.hasRemaining()) {
+                if (data.read(block, offset + block.position()) < 0) {
+                    throw new EOFException("Archive segment [%s] is truncated".formatted(name));
+                }
+            }
+        }
+        return decode(block.array(), userId);
+    }
+
+    private int find(UUID userId) {
+        long msb = userId.getMostSignificantBits();
+        long lsb = userId.getLeastSignificantBits();
+        int low = 0;
+        int high = entries - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = HEADER_BYTES + mid * ENTRY_BYTES;
+            int comparison = Long.compare(index.getLong(position), msb);
+            if (comparison == 0) {
+                comparison = Long.compare(index.getLong(position + 8), lsb);
+            }
+
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] encode(List<Notification> notifications) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(notifications.size());
+            for (Notification notification : notifications) {
+                out.writeLong(notification.getId().getMostSignificantBits());
+                out.writeLong(notification.getId().getLeastSignificantBits());
+                writeTime(out, notification.getCreatedOn());
+                writeTime(out, notification.getReadAt());
+                out.writeUTF(notification.getStatus() == null ? "" : notification.getStatus().name());
+                out.writeUTF(notification.getType().name());
+                out.writeBoolean(notification.isDeleted());
+                out.writeUTF(notification.getSubject());
+                out.writeUTF(notification.getBody());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Notification> decode(byte[] block, UUID userId) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block)))) {
+            int count = in.readInt();
+            List<Notification> notifications = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                LocalDateTime createdOn = readTime(in);
+                LocalDateTime readAt = readTime(in);
+                String status = in.readUTF();
+
+                notifications.add(Notification.builder()
+                        .id(id)
+                        .userId(userId)
+                        .createdOn(createdOn)
+                        .readAt(readAt)
+                        .status(status.isEmpty() ? null : NotificationStatus.valueOf(status))
+                        .type(NotificationType.valueOf(in.readUTF()))
+                        .deleted(in.readBoolean())
+                        .subject(in.readUTF())
+                        .body(in.readUTF())
+                        .build());
+            }
+            return notifications;
+        }
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,40 @@
+package app.channel;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.Duration;
+
+public enum AgeBucket {
+
+    UNDER_1M("<1m", Duration.ofMinutes(1)),
+    UNDER_5M("1m-5m", Duration.ofMinutes(5)),
+    UNDER_15M("5m-15m", Duration.ofMinutes(15)),
+    UNDER_1H("15m-1h", Duration.ofHours(1)),
+    OVER_1H(">1h", null);
+
+    private final String label;
+    private final Duration upperBound;
+
+    AgeBucket(String label, Duration upperBound) {
+        this.label = label;
+        this.upperBound = upperBound;
+    }
+
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    public Duration upperBound() {
+        return upperBound;
+    }
+
+    public static AgeBucket of(Duration age) {
+        for (AgeBucket bucket : values()) {
+            if (bucket.upperBound == null || age.compareTo(bucket.upperBound) < 0) {
+                return bucket;
+            }
+        }
+        return OVER_1H;
+    }
+}
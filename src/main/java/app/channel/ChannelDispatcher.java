@@ -0,0 +1,260 @@
+package app.channel;
+
+import app.lifecycle.DeliveryHandedOffException;
+import app.lifecycle.Drainable;
+import app.logging.DeliveryMdc;
+import app.lifecycle.ShuttingDownException;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Order(1)
+@Component
+public class ChannelDispatcher implements Drainable {
+
+    private final Map<String, ChannelExecutor> executors = new LinkedHashMap<>();
+    private final FailureWindow failures = new FailureWindow(System::currentTimeMillis);
+    private volatile boolean accepting = true;
+
+    public ChannelDispatcher(List<NotificationChannel> channels, ChannelProperties properties) {
+        for (NotificationChannel channel : channels) {
+            executors.put(channel.name(), new ChannelExecutor(channel, properties.forChannel(channel.name()), properties.getLaneWeights(), failures));
+        }
+    }
+
+    /**
+     * One outcome per target channel, in order, each tagged with its channel. A channel that failed is reported
+     * as FAILED and one still sending when its timeout ran out as PENDING. Throws only when every channel failed.
+     */
+    public List<Notification> dispatch(NotificationRequest request, NotificationPreference preference) {
+        if (!accepting) {
+            throw new ShuttingDownException();
+        }
+
+        List<ChannelExecutor> targets = resolve(request);
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No notification channel supports type [%s]".formatted(request.getType()));
+        }
+
+        List<Future<Notification>> futures = new ArrayList<>(targets.size());
+        for (ChannelExecutor channelExecutor : targets) {
+            futures.add(channelExecutor.submit(request, preference));
+        }
+
+        List<Notification> outcomes = new ArrayList<>(targets.size());
+        RuntimeException firstFailure = null;
+        int failed = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            ChannelExecutor target = targets.get(i);
+            Notification outcome;
+            try {
+                outcome = target.await(futures.get(i), request);
+            } catch (RuntimeException e) {
+                log.warn("Channel [{}] failed for user [{}]: {}", target.channel.name(), request.getUserId(), e.getMessage());
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+                failed++;
+                outcome = unsent(request, NotificationStatus.FAILED);
+            }
+            outcome.setChannel(target.channel.name());
+            outcomes.add(outcome);
+        }
+
+        if (failed == targets.size()) {
+            throw firstFailure;
+        }
+
+        return outcomes;
+    }
+
+    public List<ChannelStats> stats() {
+        return executors.values().stream().map(ChannelExecutor::stats).toList();
+    }
+
+    public Map<NotificationType, Map<AgeBucket, Long>> failuresByAge() {
+        return failures.byAge();
+    }
+
+    public Set<String> channelNames() {
+        return Collections.unmodifiableSet(executors.keySet());
+    }
+
+    @Override
+    public void stopIntake() {
+        accepting = false;
+        shutdown();
+    }
+
+    @Override
+    public boolean awaitDrained(long deadlineNanos) throws InterruptedException {
+        for (ChannelExecutor channelExecutor : executors.values()) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (!channelExecutor.executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Only queued sends are handed back. Running ones are not interrupted: an interrupted SMTP or HTTP call may
+    // still have gone out, and redelivering it would send it twice.
+    @Override
+    public List<NotificationRequest> abandon() {
+        List<NotificationRequest> leftovers = new ArrayList<>();
+        for (ChannelExecutor channelExecutor : executors.values()) {
+            for (Runnable queued : channelExecutor.executor.drainQueued()) {
+                if (queued instanceof DeliveryTask task && !task.isCancelled()) {
+                    task.cancel(false);
+                    leftovers.add(task.request.toBuilder().channels(Set.of(channelExecutor.channel.name())).build());
+                }
+            }
+        }
+        return leftovers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(channelExecutor -> channelExecutor.executor.shutdown());
+    }
+
+    private static Notification unsent(NotificationRequest request, NotificationStatus status) {
+        return Notification.builder()
+                .userId(request.getUserId())
+                .subject(request.getSubject())
+                .body(request.getBody())
+                .type(request.getType())
+                .createdOn(LocalDateTime.now())
+                .status(status)
+                .build();
+    }
+
+    private List<ChannelExecutor> resolve(NotificationRequest request) {
+        if (request.getChannels() == null || request.getChannels().isEmpty()) {
+            return executors.values().stream().filter(channelExecutor -> channelExecutor.channel.supports(request)).toList();
+        }
+
+        List<ChannelExecutor> targets = new ArrayList<>();
+        for (String name : request.getChannels()) {
+            ChannelExecutor channelExecutor = executors.get(name);
+            if (channelExecutor == null) {
+                throw new IllegalArgumentException("Unknown notification channel [%s]".formatted(name));
+            }
+            targets.add(channelExecutor);
+        }
+        return targets;
+    }
+
+    private static final class ChannelExecutor {
+
+        private final NotificationChannel channel;
+        private final ChannelProperties.Settings settings;
+        private final PriorityLaneExecutor executor;
+        private final ChannelMetrics metrics = new ChannelMetrics();
+        private final FailureWindow failures;
+
+        private ChannelExecutor(NotificationChannel channel, ChannelProperties.Settings settings, Map<Priority, Integer> laneWeights, FailureWindow failures) {
+            this.channel = channel;
+            this.settings = settings;
+            this.failures = failures;
+            this.executor = new PriorityLaneExecutor(channel.name(), settings.getConcurrency(), settings.getCriticalConcurrency(),
+                    settings.getQueueCapacity(), laneWeights);
+        }
+
+        private Future<Notification> submit(NotificationRequest request, NotificationPreference preference) {
+            DeliveryTask task = new DeliveryTask(request, () -> {
+                long start = System.nanoTime();
+                boolean success = false;
+                Notification notification = null;
+                try (DeliveryMdc ignored = DeliveryMdc.open(request, channel.name())) {
+                    notification = channel.deliver(request, preference);
+                    success = true;
+                    return notification;
+                } finally {
+                    metrics.onCompleted(System.nanoTime() - start, success);
+                    if (!success || notification != null && notification.getStatus() == NotificationStatus.FAILED) {
+                        failures.record(request.getType());
+                    }
+                }
+            });
+
+            if (!executor.offer(task, Priority.of(request.getType()))) {
+                metrics.onRejected();
+                return CompletableFuture.failedFuture(new ChannelSaturatedException(channel.name()));
+            }
+
+            metrics.onSubmitted();
+            return task;
+        }
+
+        private Notification await(Future<Notification> future, NotificationRequest request) {
+            try {
+                return future.get(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (CancellationException e) {
+                throw new DeliveryHandedOffException();
+            } catch (TimeoutException e) {
+                // Never started: it won't run later either. Already sending: let it finish, the channel records it.
+                if (future instanceof DeliveryTask task && task.cancelIfNotStarted()) {
+                    metrics.onRejected();
+                    throw new ChannelSaturatedException(channel.name());
+                }
+                return unsent(request, NotificationStatus.PENDING);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for channel [%s]".formatted(channel.name()));
+            }
+        }
+
+        private ChannelStats stats() {
+            Map<Priority, Integer> queued = executor.queued();
+
+            return metrics.snapshot()
+                    .channel(channel.name())
+                    .concurrency(settings.getConcurrency() + settings.getCriticalConcurrency())
+                    .queueCapacity(settings.getQueueCapacity())
+                    .activeWorkers(executor.activeWorkers())
+                    .queued(queued.values().stream().mapToInt(Integer::intValue).sum())
+                    .queuedByPriority(queued)
+                    .build();
+        }
+    }
+
+    private static final class DeliveryTask extends FutureTask<Notification> {
+
+        private final NotificationRequest request;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private DeliveryTask(NotificationRequest request, Callable<Notification> delivery) {
+            super(delivery);
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        private boolean cancelIfNotStarted() {
+            return started.compareAndSet(false, true) && cancel(false);
+        }
+    }
+}
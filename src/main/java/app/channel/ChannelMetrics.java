@@ -0,0 +1,42 @@
+package app.channel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class ChannelMetrics {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    void onSubmitted() {
+        submitted.increment();
+    }
+
+    void onRejected() {
+        rejected.increment();
+    }
+
+    void onCompleted(long elapsedNanos, boolean success) {
+        latencyNanos.add(elapsedNanos);
+        if (success) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    ChannelStats.ChannelStatsBuilder snapshot() {
+        long completed = succeeded.sum() + failed.sum();
+        double averageLatencyMillis = completed == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(latencyNanos.sum()) / completed / 1000.0;
+
+        return ChannelStats.builder()
+                .submitted(submitted.sum())
+                .succeeded(succeeded.sum())
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .averageLatencyMillis(averageLatencyMillis);
+    }
+}
@@ -0,0 +1,46 @@
+package app.channel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.channels")
+public class ChannelProperties {
+
+    private Settings defaults = new Settings(8, 2, 1000, Duration.ofSeconds(15));
+
+    private Map<String, Settings> channel = new HashMap<>();
+
+    private Map<Priority, Integer> laneWeights = new EnumMap<>(Map.of(Priority.CRITICAL, 8, Priority.NORMAL, 4, Priority.BULK, 1));
+
+    public Settings forChannel(String name) {
+        Settings settings = channel.getOrDefault(name, new Settings());
+
+        return new Settings(
+                settings.getConcurrency() != null ? settings.getConcurrency() : defaults.getConcurrency(),
+                settings.getCriticalConcurrency() != null ? settings.getCriticalConcurrency() : defaults.getCriticalConcurrency(),
+                settings.getQueueCapacity() != null ? settings.getQueueCapacity() : defaults.getQueueCapacity(),
+                settings.getTimeout() != null ? settings.getTimeout() : defaults.getTimeout());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Settings {
+
+        private Integer concurrency;
+
+        private Integer criticalConcurrency;
+
+        private Integer queueCapacity;
+
+        private Duration timeout;
+    }
+}
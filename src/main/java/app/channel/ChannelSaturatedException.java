@@ -0,0 +1,8 @@
+package app.channel;
+
+public class ChannelSaturatedException extends RuntimeException {
+
+    public ChannelSaturatedException(String channel) {
+        super("Channel [%s] queue is full".formatted(channel));
+    }
+}
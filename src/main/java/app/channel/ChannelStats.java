@@ -0,0 +1,33 @@
+package app.channel;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class ChannelStats {
+
+    private String channel;
+
+    private int concurrency;
+
+    private int activeWorkers;
+
+    private int queued;
+
+    private int queueCapacity;
+
+    private Map<Priority, Integer> queuedByPriority;
+
+    private long submitted;
+
+    private long succeeded;
+
+    private long failed;
+
+    private long rejected;
+
+    private double averageLatencyMillis;
+}
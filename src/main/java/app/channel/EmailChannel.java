@@ -0,0 +1,106 @@
+package app.channel;
+
+import app.logging.DeliveryMdc;
+import app.logging.LogThrottle;
+import app.mail.GuardedMailSender;
+import app.mail.MailUnavailableException;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.web.dto.NotificationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class EmailChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private static final LogThrottle FAILURE_LOG = new LogThrottle(10, Duration.ofSeconds(1));
+
+    private final NotificationRepository notificationRepository;
+    private final GuardedMailSender mailSender;
+    private final ShardRouter shardRouter;
+
+    public EmailChannel(NotificationRepository notificationRepository, GuardedMailSender mailSender, ShardRouter shardRouter) {
+        this.notificationRepository = notificationRepository;
+        this.mailSender = mailSender;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(NotificationRequest request) {
+        return request.getType() == NotificationType.EMAIL;
+    }
+
+    @Override
+    public Notification deliver(NotificationRequest notificationRequest, NotificationPreference preference) {
+
+        boolean enabled = preference.isEmailNotificationEnabled();
+        if (!enabled) {
+            throw new IllegalStateException("User with id=[%s] turned of his notifications".formatted(notificationRequest.getUserId()));
+        }
+
+        Notification notification = Notification.builder()
+                .subject(notificationRequest.getSubject())
+                .body(notificationRequest.getBody())
+                .createdOn(LocalDateTime.now())
+                .type(NotificationType.EMAIL)
+                .userId(notificationRequest.getUserId())
+                .deleted(false)
+                .build();
+
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setTo(preference.getEmail());
+        mailMessage.setSubject(notificationRequest.getSubject());
+        mailMessage.setText(notificationRequest.getBody());
+
+        Exception failure = null;
+        try {
+            mailSender.send(mailMessage, Priority.of(notificationRequest.getType()) == Priority.CRITICAL);
+            notification.setStatus(NotificationStatus.SUCCEEDED);
+        } catch (Exception e) {
+            notification.setStatus(NotificationStatus.FAILED);
+            failure = e;
+        }
+
+        Notification saved = shardRouter.write(notification.getUserId(), () -> notificationRepository.save(notification),
+                copy -> notificationRepository.copyAll(List.of(copy)));
+        if (failure != null) {
+            logFailure(notification, failure);
+        }
+        return saved;
+    }
+
+    private static void logFailure(Notification notification, Exception failure) {
+        DeliveryMdc.notificationId(notification.getId());
+        if (!FAILURE_LOG.tryAcquire()) {
+            return;
+        }
+
+        long suppressed = FAILURE_LOG.takeSuppressed();
+        if (suppressed > 0) {
+            log.warn("[S2S Call]: {} failure logs suppressed", suppressed);
+        }
+
+        if (failure instanceof MailUnavailableException) {
+            log.warn("[S2S Call]: Skipped email [{}] for user [{}]: {}", notification.getId(), notification.getUserId(), failure.getMessage());
+        } else {
+            log.error("[S2S Call]: Failed email [{}] for user [{}]: {}", notification.getId(), notification.getUserId(), failure.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package app.channel;
+
+import app.model.NotificationType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed deliveries per notification type in one-minute slots over the last hour, so the backlog
+ * report can show recent failures by age without querying the notifications table.
+ */
+public class FailureWindow {
+
+    private static final int SLOTS = 60;
+    private static final long SLOT_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final LongSupplier currentTimeMillis;
+    private final Map<NotificationType, long[]> counts = new EnumMap<>(NotificationType.class);
+    private final long[] slotMinute = new long[SLOTS];
+
+    public FailureWindow(LongSupplier currentTimeMillis) {
+        this.currentTimeMillis = currentTimeMillis;
+        for (NotificationType type : NotificationType.values()) {
+            counts.put(type, new long[SLOTS]);
+        }
+    }
+
+    public synchronized void record(NotificationType type) {
+        long minute = currentTimeMillis.getAsLong() / SLOT_MILLIS;
+        int slot = (int) (minute % SLOTS);
+        if (slotMinute[slot] != minute) {
+            slotMinute[slot] = minute;
+            counts.values().forEach(slots -> slots[slot] = 0);
+        }
+        counts.get(type)[slot]++;
+    }
+
+    public synchronized Map<NotificationType, Map<AgeBucket, Long>> byAge() {
+        long now = currentTimeMillis.getAsLong() / SLOT_MILLIS;
+        Map<NotificationType, Map<AgeBucket, Long>> byAge = new EnumMap<>(NotificationType.class);
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            long age = now - slotMinute[slot];
+            if (age < 0 || age >= SLOTS) {
+                continue;
+            }
+
+            AgeBucket bucket = AgeBucket.of(Duration.ofMinutes(age));
+            for (Map.Entry<NotificationType, long[]> entry : counts.entrySet()) {
+                long count = entry.getValue()[slot];
+                if (count > 0) {
+                    byAge.computeIfAbsent(entry.getKey(), type -> new EnumMap<>(AgeBucket.class)).merge(bucket, count, Long::sum);
+                }
+            }
+        }
+        return byAge;
+    }
+}
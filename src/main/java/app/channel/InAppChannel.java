@@ -0,0 +1,70 @@
+package app.channel;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.web.dto.NotificationRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class InAppChannel implements NotificationChannel {
+
+    public static final String NAME = "in-app";
+
+    private final NotificationRepository notificationRepository;
+    private final InAppWriteBuffer writeBuffer;
+    private final ShardRouter shardRouter;
+
+    public InAppChannel(NotificationRepository notificationRepository, InAppWriteBuffer writeBuffer, ShardRouter shardRouter) {
+        this.notificationRepository = notificationRepository;
+        this.writeBuffer = writeBuffer;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(NotificationRequest request) {
+        return request.getType() != NotificationType.EMAIL;
+    }
+
+    @Override
+    public Notification deliver(NotificationRequest notificationRequest, NotificationPreference preference) {
+        Notification notification = Notification.builder()
+                .subject(notificationRequest.getSubject())
+                .body(notificationRequest.getBody())
+                .createdOn(LocalDateTime.now())
+                .type(notificationRequest.getType())
+                .userId(notificationRequest.getUserId())
+                .deleted(false)
+                .status(checkNotificationStatus(notificationRequest, preference))
+                .build();
+
+        if (writeBuffer.isEnabled()) {
+            return writeBuffer.write(notification);
+        }
+
+        return shardRouter.write(notification.getUserId(), () -> notificationRepository.save(notification),
+                saved -> notificationRepository.copyAll(List.of(saved)));
+    }
+
+    public NotificationStatus checkNotificationStatus(NotificationRequest request, NotificationPreference preference) {
+        if (request.getType().equals(NotificationType.DEADLINE) && preference.isDeadLineNotificationEnabled()
+         || request.getType().equals(NotificationType.SUMMARY) && preference.isSummaryNotificationEnabled()
+         || request.getType().equals(NotificationType.REMINDER) && preference.isReminderNotificationEnabled()
+         || request.getType().equals(NotificationType.ALERT)) {
+            return NotificationStatus.SUCCEEDED;
+        }
+
+        return NotificationStatus.FAILED;
+    }
+}
@@ -0,0 +1,240 @@
+package app.channel;
+
+import app.lifecycle.Drainable;
+import app.lifecycle.ShuttingDownException;
+import app.model.Notification;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.web.dto.NotificationRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in write-behind for in-app notifications. Callers enqueue entities into a bounded queue and a single
+ * writer thread persists them with one multi-row insert and one commit per {@code batchSize} rows or
+ * {@code flushInterval}, whichever comes first. Ids are assigned before enqueueing and the caller gets a copy,
+ * so the response carries the final id and never shares an object with the writer thread. A full queue pushes back on the caller for up to
+ * {@code offerTimeout} and then rejects. In durable mode the caller waits until its batch has committed.
+ * <p>
+ * Its producers are the channel workers, which {@link ChannelDispatcher} drains first, so the buffer keeps
+ * accepting after {@link #stopIntake()} and only closes once it has flushed in {@link #awaitDrained(long)}.
+ */
+@Slf4j
+@Order(2)
+@Component
+public class InAppWriteBuffer implements Drainable {
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final NotificationRepository notificationRepository;
+    private final WriteBehindProperties properties;
+    private final ShardRouter shardRouter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private volatile boolean closing;
+    private volatile boolean closed;
+    private Thread writer;
+
+    public InAppWriteBuffer(NotificationRepository notificationRepository, WriteBehindProperties properties, ShardRouter shardRouter) {
+        this.notificationRepository = notificationRepository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        writer = new Thread(this::runWriter, "in-app-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Notification write(Notification notification) {
+        if (closed) {
+            throw new ShuttingDownException();
+        }
+
+        if (notification.getId() == null) {
+            notification.setId(UUID.randomUUID());
+        }
+        Notification copy = copyOf(notification);
+
+        PendingWrite pendingWrite = new PendingWrite(notification, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pendingWrite, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ChannelSaturatedException(InAppChannel.NAME);
+            }
+
+            if (properties.isDurable()) {
+                pendingWrite.committed().get(properties.getCommitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShuttingDownException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("In-app write failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("In-app write was not committed within " + properties.getCommitTimeout());
+        }
+
+        return copy;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long commits() {
+        return commits.sum();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    @Override
+    public void stopIntake() {
+    }
+
+    @Override
+    public boolean awaitDrained(long deadlineNanos) throws InterruptedException {
+        closing = true;
+        if (writer == null) {
+            return queue.isEmpty();
+        }
+
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        writer.join(Math.max(1, remainingMillis));
+        closed = !writer.isAlive();
+        return closed;
+    }
+
+    @Override
+    public List<NotificationRequest> abandon() {
+        closed = true;
+        List<PendingWrite> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+
+        ShuttingDownException shuttingDown = new ShuttingDownException();
+        return leftovers.stream()
+                .peek(pendingWrite -> pendingWrite.committed().completeExceptionally(shuttingDown))
+                .map(PendingWrite::notification)
+                .map(notification -> NotificationRequest.builder()
+                        .userId(notification.getUserId())
+                        .subject(notification.getSubject())
+                        .body(notification.getBody())
+                        .type(notification.getType())
+                        .channels(Set.of(InAppChannel.NAME))
+                        .build())
+                .toList();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        closing = true;
+        if (writer != null) {
+            writer.join(properties.getCommitTimeout().toMillis());
+        }
+        closed = true;
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(properties.getBatchSize());
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        long idlePollNanos = Math.min(flushIntervalNanos, IDLE_POLL_NANOS);
+
+        try {
+            while (true) {
+                PendingWrite first = queue.poll(idlePollNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (closing) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                fill(batch, System.nanoTime() + flushIntervalNanos);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            queue.drainTo(batch);
+            flush(batch);
+        }
+    }
+
+    private void fill(List<PendingWrite> batch, long flushAtNanos) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remainingNanos = flushAtNanos - System.nanoTime();
+            if (batch.size() >= batchSize || closing || remainingNanos <= 0) {
+                return;
+            }
+
+            PendingWrite next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            shardRouter.writeAll(batch.stream().map(PendingWrite::notification).toList(), Notification::getUserId,
+                    notificationRepository::insertAll, notificationRepository::copyAll);
+            commits.increment();
+            written.add(batch.size());
+            batch.forEach(pendingWrite -> pendingWrite.committed().complete(null));
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush of {} in-app notifications failed", batch.size(), e);
+            batch.forEach(pendingWrite -> pendingWrite.committed().completeExceptionally(e));
+        }
+    }
+
+    private static Notification copyOf(Notification notification) {
+        return Notification.builder()
+                .id(notification.getId())
+                .subject(notification.getSubject())
+                .body(notification.getBody())
+                .createdOn(notification.getCreatedOn())
+                .status(notification.getStatus())
+                .type(notification.getType())
+                .userId(notification.getUserId())
+                .deleted(notification.isDeleted())
+                .readAt(notification.getReadAt())
+                .build();
+    }
+
+    private record PendingWrite(Notification notification, CompletableFuture<Void> committed) {
+    }
+}
@@ -0,0 +1,18 @@
+package app.channel;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.web.dto.NotificationRequest;
+
+/**
+ * A delivery channel (email, in-app, webhook, ...). Channels are discovered as Spring beans and each
+ * one runs on its own executor inside {@link ChannelDispatcher}, so a slow channel only queues its own work.
+ */
+public interface NotificationChannel {
+
+    String name();
+
+    boolean supports(NotificationRequest request);
+
+    Notification deliver(NotificationRequest request, NotificationPreference preference);
+}
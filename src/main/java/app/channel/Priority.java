@@ -0,0 +1,17 @@
+package app.channel;
+
+import app.model.NotificationType;
+
+public enum Priority {
+    CRITICAL, NORMAL, BULK;
+
+    public static Priority of(NotificationType type) {
+        if (type == NotificationType.ALERT) {
+            return CRITICAL;
+        }
+        if (type == NotificationType.SUMMARY) {
+            return BULK;
+        }
+        return NORMAL;
+    }
+}
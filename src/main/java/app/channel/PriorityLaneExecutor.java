@@ -0,0 +1,237 @@
+package app.channel;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Worker pool of one channel with a bounded queue per {@link Priority}. Shared workers pick the next lane
+ * by smooth weighted round robin over the non-empty lanes, so bulk traffic keeps moving but only gets its
+ * weight's share while other lanes have work. A few reserved workers serve the CRITICAL lane alone, which
+ * keeps alerts flowing even while every shared worker is stuck in a slow bulk delivery.
+ */
+final class PriorityLaneExecutor {
+
+    private static final Priority[] LANES = Priority.values();
+
+    private final String name;
+    private final int sharedWorkers;
+    private final int criticalWorkers;
+    private final int laneCapacity;
+    private final int[] weights = new int[LANES.length];
+    private final int[] currentWeights = new int[LANES.length];
+    private final List<ArrayDeque<Runnable>> lanes = new ArrayList<>(LANES.length);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition anyWork = lock.newCondition();
+    private final Condition criticalWork = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+    private int liveWorkers;
+    private boolean started;
+    private boolean shutdown;
+
+    PriorityLaneExecutor(String name, int sharedWorkers, int criticalWorkers, int laneCapacity, Map<Priority, Integer> laneWeights) {
+        this.name = name;
+        this.sharedWorkers = sharedWorkers;
+        this.criticalWorkers = criticalWorkers;
+        this.laneCapacity = laneCapacity;
+        for (Priority priority : LANES) {
+            weights[priority.ordinal()] = Math.max(1, laneWeights.getOrDefault(priority, 1));
+            lanes.add(new ArrayDeque<>());
+        }
+    }
+
+    boolean offer(Runnable task, Priority priority) {
+        lock.lock();
+        try {
+            ArrayDeque<Runnable> lane = lanes.get(priority.ordinal());
+            if (shutdown || lane.size() >= laneCapacity) {
+                return false;
+            }
+
+            startWorkers();
+            lane.addLast(task);
+            if (priority == Priority.CRITICAL) {
+                criticalWork.signal();
+            }
+            anyWork.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            anyWork.signalAll();
+            criticalWork.signalAll();
+            if (liveWorkers == 0) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Runnable> shutdownNow() {
+        lock.lock();
+        try {
+            List<Runnable> queued = drainQueued();
+            workers.forEach(Thread::interrupt);
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Like shutdownNow, but tasks already running are left to finish.
+    List<Runnable> drainQueued() {
+        List<Runnable> queued = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown();
+            lanes.forEach(lane -> {
+                queued.addAll(lane);
+                lane.clear();
+            });
+        } finally {
+            lock.unlock();
+        }
+        return queued;
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!shutdown || liveWorkers > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int activeWorkers() {
+        return activeWorkers.get();
+    }
+
+    Map<Priority, Integer> queued() {
+        lock.lock();
+        try {
+            Map<Priority, Integer> queued = new EnumMap<>(Priority.class);
+            for (Priority priority : LANES) {
+                queued.put(priority, lanes.get(priority.ordinal()).size());
+            }
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorkers() {
+        if (started) {
+            return;
+        }
+
+        started = true;
+        for (int i = 1; i <= sharedWorkers; i++) {
+            startWorker("channel-" + name + "-" + i, false);
+        }
+        for (int i = 1; i <= criticalWorkers; i++) {
+            startWorker("channel-" + name + "-critical-" + i, true);
+        }
+    }
+
+    private void startWorker(String threadName, boolean critical) {
+        Thread thread = new Thread(() -> runWorker(critical), threadName);
+        thread.setDaemon(true);
+        workers.add(thread);
+        liveWorkers++;
+        thread.start();
+    }
+
+    private void runWorker(boolean critical) {
+        try {
+            while (true) {
+                Runnable task = take(critical);
+                if (task == null) {
+                    return;
+                }
+
+                activeWorkers.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    activeWorkers.decrementAndGet();
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                if (--liveWorkers == 0) {
+                    terminated.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Runnable take(boolean critical) {
+        lock.lock();
+        try {
+            while (true) {
+                Runnable task = critical ? lanes.get(Priority.CRITICAL.ordinal()).pollFirst() : nextWeighted();
+                if (task != null) {
+                    return task;
+                }
+                if (shutdown) {
+                    return null;
+                }
+
+                try {
+                    (critical ? criticalWork : anyWork).await();
+                } catch (InterruptedException e) {
+                    if (shutdown) {
+                        return null;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Runnable nextWeighted() {
+        int totalWeight = 0;
+        int selected = -1;
+        for (int i = 0; i < LANES.length; i++) {
+            if (lanes.get(i).isEmpty()) {
+                currentWeights[i] = 0;
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            totalWeight += weights[i];
+            if (selected < 0 || currentWeights[i] > currentWeights[selected]) {
+                selected = i;
+            }
+        }
+
+        if (selected < 0) {
+            return null;
+        }
+
+        currentWeights[selected] -= totalWeight;
+        return lanes.get(selected).pollFirst();
+    }
+}
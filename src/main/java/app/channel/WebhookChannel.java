@@ -0,0 +1,126 @@
+package app.channel;
+
+import app.logging.DeliveryMdc;
+import app.logging.LogThrottle;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.web.dto.NotificationRequest;
+import app.webhook.WebhookClient;
+import app.webhook.WebhookProperties;
+import app.webhook.WebhookUrls;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class WebhookChannel implements NotificationChannel {
+
+    public static final String NAME = "webhook";
+
+    private static final LogThrottle FAILURE_LOG = new LogThrottle(10, Duration.ofSeconds(1));
+
+    private final NotificationRepository notificationRepository;
+    private final WebhookClient webhookClient;
+    private final long waitMillis;
+    private final ShardRouter shardRouter;
+    private final boolean allowPrivateHosts;
+
+    public WebhookChannel(NotificationRepository notificationRepository, WebhookClient webhookClient, WebhookProperties properties, ShardRouter shardRouter) {
+        this.notificationRepository = notificationRepository;
+        this.webhookClient = webhookClient;
+        this.shardRouter = shardRouter;
+        this.waitMillis = properties.getRequestTimeout().plus(properties.getBatchLinger()).toMillis();
+        this.allowPrivateHosts = properties.isAllowPrivateHosts();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(NotificationRequest request) {
+        return false;
+    }
+
+    @Override
+    public Notification deliver(NotificationRequest notificationRequest, NotificationPreference preference) {
+        if (preference.getWebhookUrl() == null || preference.getWebhookUrl().isBlank()) {
+            throw new IllegalStateException("User with id=[%s] has no webhook endpoint".formatted(notificationRequest.getUserId()));
+        }
+
+        // Rows written before endpoints were validated on upsert are checked again here.
+        URI endpoint;
+        try {
+            endpoint = WebhookUrls.validate(preference.getWebhookUrl(), allowPrivateHosts);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("User with id=[%s] has an unusable webhook endpoint: %s".formatted(notificationRequest.getUserId(), e.getMessage()));
+        }
+
+        Notification notification = Notification.builder()
+                .subject(notificationRequest.getSubject())
+                .body(notificationRequest.getBody())
+                .createdOn(LocalDateTime.now())
+                .type(notificationRequest.getType())
+                .userId(notificationRequest.getUserId())
+                .deleted(false)
+                .build();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", notification.getUserId());
+        payload.put("type", notification.getType());
+        payload.put("subject", notification.getSubject());
+        payload.put("body", notification.getBody());
+        payload.put("createdOn", notification.getCreatedOn());
+
+        Exception failure = null;
+        CompletableFuture<Integer> call = webhookClient.send(endpoint, payload);
+        try {
+            int status = call.get(waitMillis, TimeUnit.MILLISECONDS);
+            notification.setStatus(status >= 200 && status < 300 ? NotificationStatus.SUCCEEDED : NotificationStatus.FAILED);
+        } catch (ExecutionException | TimeoutException e) {
+            // Recorded FAILED, so a call still queued for the destination must not be posted later.
+            call.cancel(false);
+            notification.setStatus(NotificationStatus.FAILED);
+            failure = e;
+        } catch (InterruptedException e) {
+            call.cancel(false);
+            Thread.currentThread().interrupt();
+            notification.setStatus(NotificationStatus.FAILED);
+        }
+
+        Notification saved = shardRouter.write(notification.getUserId(), () -> notificationRepository.save(notification),
+                copy -> notificationRepository.copyAll(List.of(copy)));
+        if (failure != null) {
+            logFailure(notification, failure);
+        }
+        return saved;
+    }
+
+    private static void logFailure(Notification notification, Exception failure) {
+        DeliveryMdc.notificationId(notification.getId());
+        if (!FAILURE_LOG.tryAcquire()) {
+            return;
+        }
+
+        long suppressed = FAILURE_LOG.takeSuppressed();
+        if (suppressed > 0) {
+            log.warn("[Webhook Call]: {} failure logs suppressed", suppressed);
+        }
+        log.error("[Webhook Call]: Failed webhook [{}] for user [{}]: {}", notification.getId(), notification.getUserId(), failure.getMessage());
+    }
+}
@@ -0,0 +1,25 @@
+package app.channel;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.in-app.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    private int capacity = 10_000;
+
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    private boolean durable = false;
+
+    private Duration commitTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,17 @@
+package app.dedup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.dedup")
+public class DedupProperties {
+
+    private boolean enabled = true;
+
+    private Duration window = Duration.ofSeconds(30);
+
+    private int buckets = 6;
+}
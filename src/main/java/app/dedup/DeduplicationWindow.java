@@ -0,0 +1,126 @@
+package app.dedup;
+
+import app.web.dto.NotificationRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers a 64-bit content key (userId, type, subject, body and the scheduled time, so the same reminder
+ * deliberately scheduled for two different times is not collapsed) for every notification seen within the last
+ * {@code window} and reports repeats. Keys live in a ring of {@code buckets} time slices; a slice is
+ * replaced wholesale once its time has passed, so expiry costs nothing per key and memory is bounded by the
+ * traffic of one window. A key is remembered for between {@code window - window/buckets} and {@code window}.
+ * {@link #isDuplicate} claims the key atomically; a caller whose send then fails calls {@link #forget} so a
+ * retry is not suppressed.
+ */
+@Component
+public class DeduplicationWindow {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final DedupProperties properties;
+    private final LongSupplier currentTimeMillis;
+    private final long sliceMillis;
+    private final AtomicReferenceArray<Slice> slices;
+
+    @Autowired
+    public DeduplicationWindow(DedupProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    DeduplicationWindow(DedupProperties properties, LongSupplier currentTimeMillis) {
+        this.properties = properties;
+        this.currentTimeMillis = currentTimeMillis;
+        this.sliceMillis = Math.max(1, properties.getWindow().toMillis() / properties.getBuckets());
+        this.slices = new AtomicReferenceArray<>(properties.getBuckets());
+    }
+
+    public boolean isDuplicate(NotificationRequest request) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+
+        long key = contentKey(request);
+        long epoch = currentTimeMillis.getAsLong() / sliceMillis;
+        int buckets = slices.length();
+
+        for (long older = epoch - buckets + 1; older < epoch; older++) {
+            Slice slice = slices.get((int) Math.floorMod(older, (long) buckets));
+            if (slice != null && slice.epoch() == older && slice.keys().contains(key)) {
+                return true;
+            }
+        }
+
+        return !current(epoch).keys().add(key);
+    }
+
+    public void forget(NotificationRequest request) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long key = contentKey(request);
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (slice != null) {
+                slice.keys().remove(key);
+            }
+        }
+    }
+
+    private Slice current(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) slices.length());
+        while (true) {
+            Slice slice = slices.get(index);
+            if (slice != null && slice.epoch() == epoch) {
+                return slice;
+            }
+
+            Slice fresh = new Slice(epoch, ConcurrentHashMap.newKeySet());
+            if (slices.compareAndSet(index, slice, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    static long contentKey(NotificationRequest request) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, request.getUserId() == null ? 0L : request.getUserId().getMostSignificantBits());
+        hash = mix(hash, request.getUserId() == null ? 0L : request.getUserId().getLeastSignificantBits());
+        hash = mix(hash, request.getType() == null ? -1L : request.getType().ordinal());
+        hash = mix(hash, request.getScheduledFor() == null ? -1L : request.getScheduledFor().toEpochSecond(ZoneOffset.UTC));
+        hash = mix(hash, request.getSubject());
+        return mix(hash, request.getBody());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        hash = mix(hash, bytes.length);
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private record Slice(long epoch, Set<Long> keys) {
+    }
+}
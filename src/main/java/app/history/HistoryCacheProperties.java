@@ -0,0 +1,19 @@
+package app.history;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.history-cache")
+public class HistoryCacheProperties {
+
+    private boolean enabled = true;
+
+    private int perUser = 20;
+
+    private int maxEntries = 200_000;
+
+    private Duration ttl = Duration.ofSeconds(10);
+}
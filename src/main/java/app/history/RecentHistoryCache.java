@@ -0,0 +1,180 @@
+package app.history;
+
+import app.web.dto.NotificationResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the latest {@code perUser} history entries of recently active users, newest first, so first-page
+ * history reads skip MySQL. A ring is only created from a full database read and then kept current by
+ * {@link #record} and {@link #clear}; a ring holding fewer than {@code perUser} entries is therefore the
+ * user's whole history. Users are evicted least recently used once all rings together exceed
+ * {@code maxEntries}.
+ * <p>
+ * The cache is per instance and only sees this instance's writes, so a ring is reloaded {@code ttl} after it
+ * was read from the database. That bounds how long sends, reads and deletes handled elsewhere stay invisible.
+ * <p>
+ * A database read races with concurrent sends, so every mutation bumps a version stripe for the user and
+ * the read result is dropped instead of installed if the stripe moved while it was loading.
+ */
+@Component
+public class RecentHistoryCache {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final HistoryCacheProperties properties;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<UUID, Ring> rings = new LinkedHashMap<>(256, 0.75f, true);
+    private final long[] versions = new long[VERSION_STRIPES];
+    private int totalEntries;
+
+    @Autowired
+    public RecentHistoryCache(HistoryCacheProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RecentHistoryCache(HistoryCacheProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    public Optional<List<NotificationResponse>> firstPage(UUID userId, int size, IntFunction<List<NotificationResponse>> loader) {
+        if (!properties.isEnabled() || size > properties.getPerUser()) {
+            return Optional.empty();
+        }
+
+        long version;
+        synchronized (this) {
+            Ring ring = rings.get(userId);
+            if (ring != null && nanoClock.getAsLong() - ring.loadedAt < properties.getTtl().toNanos()) {
+                return Optional.of(ring.latest(size));
+            }
+            if (ring != null) {
+                rings.remove(userId);
+                totalEntries -= ring.size();
+            }
+            version = versions[stripe(userId)];
+        }
+
+        List<NotificationResponse> latest = loader.apply(properties.getPerUser());
+
+        synchronized (this) {
+            if (versions[stripe(userId)] == version && !rings.containsKey(userId)) {
+                Ring ring = new Ring(properties.getPerUser(), nanoClock.getAsLong());
+                for (int i = latest.size() - 1; i >= 0; i--) {
+                    ring.push(latest.get(i));
+                }
+                install(userId, ring);
+            }
+        }
+
+        return Optional.of(latest.subList(0, Math.min(size, latest.size())));
+    }
+
+    public synchronized void record(UUID userId, List<NotificationResponse> responses) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        versions[stripe(userId)]++;
+        Ring ring = rings.get(userId);
+        if (ring == null) {
+            return;
+        }
+
+        int before = ring.size();
+        responses.forEach(ring::push);
+        totalEntries += ring.size() - before;
+        evictOverCap(userId);
+    }
+
+    public synchronized void clear(UUID userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        versions[stripe(userId)]++;
+        Ring removed = rings.remove(userId);
+        if (removed != null) {
+            totalEntries -= removed.size();
+        }
+        install(userId, new Ring(properties.getPerUser(), nanoClock.getAsLong()));
+    }
+
+    public synchronized void evict(UUID userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        versions[stripe(userId)]++;
+        Ring removed = rings.remove(userId);
+        if (removed != null) {
+            totalEntries -= removed.size();
+        }
+    }
+
+    public synchronized int users() {
+        return rings.size();
+    }
+
+    public synchronized int entries() {
+        return totalEntries;
+    }
+
+    private void install(UUID userId, Ring ring) {
+        rings.put(userId, ring);
+        totalEntries += ring.size();
+        evictOverCap(userId);
+    }
+
+    private void evictOverCap(UUID keep) {
+        Iterator<Map.Entry<UUID, Ring>> eldest = rings.entrySet().iterator();
+        while (totalEntries > properties.getMaxEntries() && eldest.hasNext()) {
+            Map.Entry<UUID, Ring> entry = eldest.next();
+            if (!entry.getKey().equals(keep)) {
+                totalEntries -= entry.getValue().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static int stripe(UUID userId) {
+        return (userId.hashCode() & 0x7fffffff) % VERSION_STRIPES;
+    }
+
+    private static final class Ring {
+
+        private final NotificationResponse[] entries;
+        private final long loadedAt;
+        private int head;
+        private int size;
+
+        private Ring(int capacity, long loadedAt) {
+            this.entries = new NotificationResponse[capacity];
+            this.loadedAt = loadedAt;
+        }
+
+        private void push(NotificationResponse response) {
+            head = (head + 1) % entries.length;
+            entries[head] = response;
+            size = Math.min(size + 1, entries.length);
+        }
+
+        private List<NotificationResponse> latest(int count) {
+            int n = Math.min(count, size);
+            List<NotificationResponse> latest = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                latest.add(entries[Math.floorMod(head - i, entries.length)]);
+            }
+            return latest;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package app.lifecycle;
+
+public class DeliveryHandedOffException extends ShuttingDownException {
+}
@@ -0,0 +1,20 @@
+package app.lifecycle;
+
+import app.web.dto.NotificationRequest;
+
+import java.util.List;
+
+/**
+ * A component holding in-flight or queued notification work that must be finished, flushed or handed
+ * back before the JVM exits. {@link ShutdownCoordinator} calls the steps in order across all drainables.
+ */
+public interface Drainable {
+
+    void stopIntake();
+
+    boolean awaitDrained(long deadlineNanos) throws InterruptedException;
+
+    default List<NotificationRequest> abandon() {
+        return List.of();
+    }
+}
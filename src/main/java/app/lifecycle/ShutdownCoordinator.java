@@ -0,0 +1,86 @@
+package app.lifecycle;
+
+import app.schedule.ScheduledDeliveryService;
+import app.web.dto.NotificationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs right after the web server has finished its graceful shutdown (no new HTTP requests, in-flight
+ * ones completed): closes every other intake, waits for queued deliveries and batched writes up to the
+ * drain deadline, and persists whatever is still queued as PENDING scheduled items so the next instance
+ * delivers them. Work that was already running is then given {@code in-flight-grace} to finish.
+ */
+@Slf4j
+@Component
+public class ShutdownCoordinator implements SmartLifecycle {
+
+    private final List<Drainable> drainables;
+    private final ScheduledDeliveryService scheduledDeliveryService;
+    private final ShutdownProperties properties;
+    private volatile boolean running;
+
+    public ShutdownCoordinator(List<Drainable> drainables, ScheduledDeliveryService scheduledDeliveryService, ShutdownProperties properties) {
+        this.drainables = drainables;
+        this.scheduledDeliveryService = scheduledDeliveryService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+
+        drainables.forEach(Drainable::stopIntake);
+
+        List<NotificationRequest> leftovers = new ArrayList<>();
+        List<Drainable> abandoned = new ArrayList<>();
+        for (Drainable drainable : drainables) {
+            if (!awaitDrained(drainable, deadline)) {
+                leftovers.addAll(drainable.abandon());
+                abandoned.add(drainable);
+            }
+        }
+
+        if (!leftovers.isEmpty()) {
+            scheduledDeliveryService.persistForRecovery(leftovers);
+            log.warn("Persisted {} undelivered notifications as PENDING for the next instance", leftovers.size());
+        }
+
+        long graceDeadline = System.nanoTime() + properties.getInFlightGrace().toNanos();
+        for (Drainable drainable : abandoned) {
+            if (!awaitDrained(drainable, graceDeadline)) {
+                log.warn("[{}] still had work running when the in-flight grace ran out", drainable.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private static boolean awaitDrained(Drainable drainable, long deadlineNanos) {
+        try {
+            return drainable.awaitDrained(deadlineNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+}
@@ -0,0 +1,15 @@
+package app.lifecycle;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.shutdown")
+public class ShutdownProperties {
+
+    private Duration drainTimeout = Duration.ofSeconds(20);
+
+    private Duration inFlightGrace = Duration.ofSeconds(5);
+}
@@ -0,0 +1,8 @@
+package app.lifecycle;
+
+public class ShuttingDownException extends RuntimeException {
+
+    public ShuttingDownException() {
+        super("Notification service is shutting down");
+    }
+}
@@ -0,0 +1,87 @@
+package app.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style adaptive concurrency limit. Latency is averaged over windows of {@code windowSamples}
+ * completed requests and compared with a baseline, the lowest window latency seen. Once the limit is down to
+ * {@code minLimit} the current latency becomes the baseline, so a lasting slowdown of SMTP is eventually taken as
+ * the new normal instead of pinning the limit at its minimum. While a window stays within
+ * {@code tolerance} times the baseline the limit grows by about its square root; beyond that it shrinks in
+ * proportion to the latency increase, by at most half per window. The limit only moves while at least half of
+ * it is in use, so a quiet period neither inflates nor collapses it.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSamples;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double baselineNanos;
+    private long windowNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int windowSamples) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSamples = Math.max(1, windowSamples);
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release(long elapsedNanos) {
+        onSample(elapsedNanos, inFlight.getAndDecrement());
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long elapsedNanos, int inFlightAtCompletion) {
+        windowNanos += elapsedNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+        if (++windowCount < windowSamples) {
+            return;
+        }
+
+        double windowRtt = Math.max(1, (double) windowNanos / windowCount);
+        int maxInFlight = windowMaxInFlight;
+        windowNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        baselineNanos = baselineNanos == 0 || limit <= minLimit ? windowRtt : Math.min(windowRtt, baselineNanos);
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / windowRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + target * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,23 @@
+package app.limit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Enables its properties itself so @WebMvcTest slices, which include the interceptor, can build it.
+@Configuration
+@EnableConfigurationProperties(LimiterProperties.class)
+public class ConcurrencyLimitConfiguration implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public ConcurrencyLimitConfiguration(ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/api/v1/notifications");
+    }
+}
@@ -0,0 +1,8 @@
+package app.limit;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(int limit) {
+        super("Too many notifications in flight (limit %d), retry shortly".formatted(limit));
+    }
+}
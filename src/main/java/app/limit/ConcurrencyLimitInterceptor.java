@@ -0,0 +1,54 @@
+package app.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits sends while the adaptive limit has room and rejects the rest with a 503 before they take a
+ * delivery slot. The latency of every admitted send feeds the limit.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit limit;
+
+    public ConcurrencyLimitInterceptor(LimiterProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.limit = new AdaptiveConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getTolerance(), properties.getSmoothing(), properties.getWindowSamples());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+
+        if (!limit.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(limit.limit());
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            limit.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return limit.inFlight();
+    }
+}
@@ -0,0 +1,23 @@
+package app.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.limiter")
+public class LimiterProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    private double tolerance = 1.5;
+
+    private double smoothing = 0.2;
+
+    private int windowSamples = 20;
+}
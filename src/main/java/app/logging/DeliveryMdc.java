@@ -0,0 +1,60 @@
+package app.logging;
+
+import app.web.dto.NotificationRequest;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+/**
+ * Puts the notification being delivered into the MDC for the current thread and restores the previous
+ * values when closed. Structured log output carries these keys as fields.
+ */
+public final class DeliveryMdc implements AutoCloseable {
+
+    public static final String USER_ID = "userId";
+    public static final String TYPE = "type";
+    public static final String CHANNEL = "channel";
+    public static final String NOTIFICATION_ID = "notificationId";
+
+    private static final String[] KEYS = {USER_ID, TYPE, CHANNEL, NOTIFICATION_ID};
+
+    private final String[] previous = new String[KEYS.length];
+
+    private DeliveryMdc(NotificationRequest request, String channel) {
+        for (int i = 0; i < KEYS.length; i++) {
+            previous[i] = MDC.get(KEYS[i]);
+        }
+
+        put(USER_ID, request.getUserId());
+        put(TYPE, request.getType());
+        put(CHANNEL, channel);
+        put(NOTIFICATION_ID, null);
+    }
+
+    public static DeliveryMdc open(NotificationRequest request) {
+        return new DeliveryMdc(request, null);
+    }
+
+    public static DeliveryMdc open(NotificationRequest request, String channel) {
+        return new DeliveryMdc(request, channel);
+    }
+
+    public static void notificationId(UUID notificationId) {
+        put(NOTIFICATION_ID, notificationId);
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < KEYS.length; i++) {
+            put(KEYS[i], previous[i]);
+        }
+    }
+
+    private static void put(String key, Object value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value.toString());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package app.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets at most {@code permits} log statements through per interval and counts the rest, so a failing
+ * dependency produces a steady trickle of log lines instead of one per request.
+ */
+public final class LogThrottle {
+
+    private final int permits;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogThrottle(int permits, Duration interval) {
+        this(permits, interval, System::nanoTime);
+    }
+
+    LogThrottle(int permits, Duration interval, LongSupplier nanoTime) {
+        this.permits = permits;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+
+        if (used.incrementAndGet() <= permits) {
+            return true;
+        }
+
+        suppressed.increment();
+        return false;
+    }
+
+    public long takeSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
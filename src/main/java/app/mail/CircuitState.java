@@ -0,0 +1,5 @@
+package app.mail;
+
+public enum CircuitState {
+    CLOSED, OPEN, HALF_OPEN
+}
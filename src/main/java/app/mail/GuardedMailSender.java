@@ -0,0 +1,87 @@
+package app.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class GuardedMailSender {
+
+    private final MailSender mailSender;
+    private final MailCircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final Semaphore criticalBulkhead;
+    private final long bulkheadMaxWaitNanos;
+
+    public GuardedMailSender(MailSender mailSender, SmtpProperties properties) {
+        this.mailSender = mailSender;
+        this.circuitBreaker = new MailCircuitBreaker(properties, System::nanoTime);
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentSends());
+        this.criticalBulkhead = new Semaphore(properties.getCriticalConcurrentSends());
+        this.bulkheadMaxWaitNanos = properties.getBulkheadMaxWait().toNanos();
+    }
+
+    public void send(SimpleMailMessage mailMessage) {
+        send(mailMessage, false);
+    }
+
+    // Critical sends take a reserved permit when one is free and otherwise compete for the shared ones.
+    public void send(SimpleMailMessage mailMessage, boolean critical) {
+        Semaphore permit = acquireBulkhead(critical);
+        if (permit == null) {
+            throw new MailUnavailableException("SMTP bulkhead is full");
+        }
+
+        try {
+            MailCircuitBreaker.Permit circuitPermit = circuitBreaker.tryAcquirePermission();
+            if (circuitPermit == null) {
+                throw new MailUnavailableException("SMTP circuit is open");
+            }
+
+            try {
+                mailSender.send(mailMessage);
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure(circuitPermit);
+                throw e;
+            }
+            circuitBreaker.onSuccess(circuitPermit);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public CircuitState getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public double getFailureRate() {
+        return circuitBreaker.getFailureRate();
+    }
+
+    public int getAvailableSendPermits() {
+        return bulkhead.availablePermits();
+    }
+
+    private Semaphore acquireBulkhead(boolean critical) {
+        try {
+            if (critical && criticalBulkhead.tryAcquire()) {
+                return criticalBulkhead;
+            }
+            if (bulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return bulkhead;
+            }
+            if (critical && criticalBulkhead.tryAcquire(bulkheadMaxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return criticalBulkhead;
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
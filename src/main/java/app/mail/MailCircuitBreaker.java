@@ -0,0 +1,128 @@
+package app.mail;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker: trips once the failure rate over the last {@code slidingWindowSize}
+ * sends crosses the threshold, rejects calls while open, then lets a single probe through.
+ * Every state change starts a new generation. A permit carries the generation it was issued in, and the
+ * outcome of a permit from an earlier generation is ignored, so a slow send that started before the circuit
+ * opened cannot re-open it, and only the probe decides whether a half-open circuit closes.
+ */
+public class MailCircuitBreaker {
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long generation;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public MailCircuitBreaker(SmtpProperties properties, LongSupplier nanoTime) {
+        this.window = new boolean[properties.getSlidingWindowSize()];
+        this.minimumCalls = Math.min(properties.getMinimumCalls(), properties.getSlidingWindowSize());
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    // Returns null when the call is not permitted.
+    public synchronized Permit tryAcquirePermission() {
+        if (state == CircuitState.OPEN && nanoTime.getAsLong() - openedAt >= openDurationNanos) {
+            state = CircuitState.HALF_OPEN;
+            generation++;
+            probeInFlight = false;
+        }
+
+        return switch (state) {
+            case CLOSED -> new Permit(generation);
+            case OPEN -> null;
+            case HALF_OPEN -> {
+                if (probeInFlight) {
+                    yield null;
+                }
+                probeInFlight = true;
+                yield new Permit(generation);
+            }
+        };
+    }
+
+    public synchronized void onSuccess(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+
+        if (recordedCalls >= minimumCalls && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0 : (double) failedCalls / recordedCalls;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = CircuitState.OPEN;
+        generation++;
+        openedAt = nanoTime.getAsLong();
+        probeInFlight = false;
+    }
+
+    private void reset() {
+        state = CircuitState.CLOSED;
+        generation++;
+        probeInFlight = false;
+        recordedCalls = 0;
+        failedCalls = 0;
+        windowIndex = 0;
+        Arrays.fill(window, false);
+    }
+
+    public record Permit(long generation) {
+    }
+}
@@ -0,0 +1,8 @@
+package app.mail;
+
+public class MailUnavailableException extends RuntimeException {
+
+    public MailUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package app.mail;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.smtp")
+public class SmtpProperties {
+
+    private int maxConcurrentSends = 10;
+
+    // Extra permits only critical (ALERT) sends may use, so a bulk blast holding every shared permit cannot starve them.
+    private int criticalConcurrentSends = 2;
+
+    private Duration bulkheadMaxWait = Duration.ofMillis(100);
+
+    private int slidingWindowSize = 20;
+
+    private int minimumCalls = 10;
+
+    private double failureRateThreshold = 0.5;
+
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -14,7 +14,12 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "notifications")
+// The generated search_text column and its FULLTEXT index (V8) have no JPA equivalent and only exist in MySQL.
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "userId, createdOn"),
+        @Index(name = "idx_notifications_user_unread", columnList = "userId, readAt, createdOn"),
+        @Index(name = "idx_notifications_created", columnList = "createdOn")
+})
 public class Notification {
 
     @Id
@@ -41,4 +46,10 @@ public class Notification {
     private UUID userId;
 
     private boolean deleted;
+
+    private LocalDateTime readAt;
+
+    // Set on delivery outcomes only: which channel produced this row.
+    @Transient
+    private String channel;
 }
@@ -5,17 +5,25 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.UUID;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = NotificationPreference.CACHE_REGION)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_notification_preference_updated_on", columnList = "updatedOn, userId"))
 public class NotificationPreference {
 
+    public static final String CACHE_REGION = "notification-preference";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -33,6 +41,14 @@ public class NotificationPreference {
 
     private String email;
 
+    private String webhookUrl;
+
+    private LocalTime quietHoursStart;
+
+    private LocalTime quietHoursEnd;
+
+    private String timeZone;
+
     @Column(nullable = false)
     private LocalDateTime createdOn;
 
@@ -1,5 +1,5 @@
 package app.model;
 
 public enum NotificationStatus {
-    SUCCEEDED, FAILED
+    SUCCEEDED, FAILED, PENDING, SUPPRESSED
 }
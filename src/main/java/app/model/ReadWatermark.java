@@ -0,0 +1,28 @@
+package app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Everything a user received up to {@code readUpTo} counts as read, without touching the notification rows.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "notification_read_watermark")
+public class ReadWatermark {
+
+    @Id
+    private UUID userId;
+
+    @Column(nullable = false)
+    private LocalDateTime readUpTo;
+}
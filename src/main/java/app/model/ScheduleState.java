@@ -0,0 +1,5 @@
+package app.model;
+
+public enum ScheduleState {
+    PENDING, DISPATCHING, DISPATCHED, FAILED
+}
@@ -0,0 +1,50 @@
+package app.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "scheduled_notifications", indexes = @Index(name = "idx_scheduled_state_due_type", columnList = "state, dueAt, type"))
+public class ScheduledNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String body;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String channels;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ScheduleState state;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+
+    private LocalDateTime claimedOn;
+}
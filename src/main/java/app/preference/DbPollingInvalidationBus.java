@@ -0,0 +1,90 @@
+package app.preference;
+
+import app.repository.NotificationPreferenceRepository;
+import app.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Uses the preference table itself as the invalidation log: every upsert moves {@code updated_on}, so each
+ * instance polls for rows changed since its watermark and turns them into invalidations. Publishing is a
+ * no-op because the committed row is the message. Each poll re-reads a {@code clock-skew} window behind the
+ * watermark to cover clocks of other instances and transactions that commit after they stamped the row.
+ * With sharding every shard is polled from the same watermark.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notifications.preferences.cache.invalidation", havingValue = "db-polling")
+public class DbPollingInvalidationBus implements PreferenceInvalidationBus {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final PreferenceCacheProperties properties;
+    private final ShardRouter shardRouter;
+    private final List<Consumer<PreferenceInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile LocalDateTime watermark = LocalDateTime.now();
+
+    public DbPollingInvalidationBus(NotificationPreferenceRepository preferenceRepository, PreferenceCacheProperties properties, ShardRouter shardRouter) {
+        this.preferenceRepository = preferenceRepository;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void publish(PreferenceInvalidation invalidation) {
+    }
+
+    @Override
+    public void subscribe(Consumer<PreferenceInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.preferences.cache.poll-interval:1s}")
+    public void poll() {
+        LocalDateTime from = watermark.minus(properties.getClockSkew());
+        LocalDateTime newest = watermark;
+
+        for (String shard : shardRouter.shards()) {
+            LocalDateTime shardNewest = shardRouter.onShard(shard, () -> poll(from));
+            if (shardNewest.isAfter(newest)) {
+                newest = shardNewest;
+            }
+        }
+
+        watermark = newest;
+    }
+
+    private LocalDateTime poll(LocalDateTime from) {
+        LocalDateTime since = from;
+        UUID afterUserId = FIRST_ID;
+        LocalDateTime newest = from;
+        int batchSize = properties.getPollBatchSize();
+
+        List<PreferenceInvalidation> changed;
+        do {
+            changed = preferenceRepository.findChangedSince(since, afterUserId, PageRequest.of(0, batchSize));
+            changed.forEach(invalidation -> subscribers.forEach(subscriber -> subscriber.accept(invalidation)));
+
+            if (!changed.isEmpty()) {
+                PreferenceInvalidation last = changed.get(changed.size() - 1);
+                since = last.version();
+                afterUserId = last.userId();
+                if (since.isAfter(newest)) {
+                    newest = since;
+                }
+            }
+        } while (changed.size() == batchSize);
+
+        return newest;
+    }
+}
@@ -0,0 +1,8 @@
+package app.preference;
+
+public class InvalidPreferenceException extends RuntimeException {
+
+    public InvalidPreferenceException(String message) {
+        super(message);
+    }
+}
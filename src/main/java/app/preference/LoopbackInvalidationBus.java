@@ -0,0 +1,29 @@
+package app.preference;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously to every subscriber in this JVM. Enough for a single instance,
+ * and lets tests wire several caches to one bus to play separate nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.preferences.cache.invalidation", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationBus implements PreferenceInvalidationBus {
+
+    private final List<Consumer<PreferenceInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PreferenceInvalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<PreferenceInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,112 @@
+package app.preference;
+
+import app.model.NotificationPreference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Local LRU cache of preferences, kept coherent across instances by a {@link PreferenceInvalidationBus}.
+ * Every preference carries its {@code updatedOn} as a version. An invalidation evicts older entries and
+ * raises a per-user version floor, so a load that read the row before the write committed (or from a
+ * lagging replica) is refused instead of being cached. Entries also expire after {@code ttl} as a backstop
+ * for an invalidation that never arrives.
+ */
+@Component
+public class PreferenceCache {
+
+    private final PreferenceCacheProperties properties;
+    private final LongSupplier nanoTime;
+    private final Map<UUID, Entry> entries;
+    private final Map<UUID, LocalDateTime> floors;
+
+    @Autowired
+    public PreferenceCache(PreferenceCacheProperties properties, PreferenceInvalidationBus invalidationBus) {
+        this(properties, invalidationBus, System::nanoTime);
+    }
+
+    PreferenceCache(PreferenceCacheProperties properties, PreferenceInvalidationBus invalidationBus, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.entries = boundedLru(properties.getMaxEntries());
+        this.floors = boundedLru(properties.getMaxEntries());
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    public Optional<NotificationPreference> get(UUID userId, Supplier<Optional<NotificationPreference>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+
+        NotificationPreference cached = getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<NotificationPreference> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public synchronized NotificationPreference getIfPresent(UUID userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+
+        if (nanoTime.getAsLong() - entry.loadedAtNanos() > properties.getTtl().toNanos()) {
+            entries.remove(userId);
+            return null;
+        }
+
+        return entry.preference();
+    }
+
+    public synchronized boolean put(NotificationPreference preference) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+
+        LocalDateTime version = preference.getUpdatedOn();
+        LocalDateTime floor = floors.get(preference.getUserId());
+        Entry current = entries.get(preference.getUserId());
+        if (floor != null && version.isBefore(floor) || current != null && version.isBefore(current.preference().getUpdatedOn())) {
+            return false;
+        }
+
+        entries.put(preference.getUserId(), new Entry(preference, nanoTime.getAsLong()));
+        return true;
+    }
+
+    public synchronized void invalidate(PreferenceInvalidation invalidation) {
+        floors.merge(invalidation.userId(), invalidation.version(), (existing, incoming) -> incoming.isAfter(existing) ? incoming : existing);
+
+        Entry current = entries.get(invalidation.userId());
+        if (current != null && current.preference().getUpdatedOn().isBefore(invalidation.version())) {
+            entries.remove(invalidation.userId());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static <V> Map<UUID, V> boundedLru(int maxEntries) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record Entry(NotificationPreference preference, long loadedAtNanos) {
+    }
+}
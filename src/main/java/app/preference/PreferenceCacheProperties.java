@@ -0,0 +1,25 @@
+package app.preference;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.preferences.cache")
+public class PreferenceCacheProperties {
+
+    private boolean enabled = true;
+
+    private int maxEntries = 100_000;
+
+    private Duration ttl = Duration.ofMinutes(10);
+
+    private String invalidation = "loopback";
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int pollBatchSize = 1000;
+
+    private Duration clockSkew = Duration.ofSeconds(5);
+}
@@ -0,0 +1,10 @@
+package app.preference;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Announces that the preference of {@code userId} was written with {@code version} as its {@code updatedOn}.
+ */
+public record PreferenceInvalidation(UUID userId, LocalDateTime version) {
+}
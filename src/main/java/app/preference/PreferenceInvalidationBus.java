@@ -0,0 +1,14 @@
+package app.preference;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries preference invalidations between service instances. The writing instance invalidates its own
+ * cache directly; {@link #publish} only has to reach the others.
+ */
+public interface PreferenceInvalidationBus {
+
+    void publish(PreferenceInvalidation invalidation);
+
+    void subscribe(Consumer<PreferenceInvalidation> subscriber);
+}
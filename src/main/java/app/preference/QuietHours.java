@@ -0,0 +1,55 @@
+package app.preference;
+
+import app.model.NotificationPreference;
+
+import java.time.*;
+import java.util.Optional;
+
+/**
+ * A daily quiet period in the user's time zone. A period that ends before it starts runs past midnight;
+ * users without a time zone are treated as UTC.
+ */
+public record QuietHours(LocalTime start, LocalTime end, ZoneId zone) {
+
+    public static Optional<QuietHours> of(NotificationPreference preference) {
+        LocalTime start = preference.getQuietHoursStart();
+        LocalTime end = preference.getQuietHoursEnd();
+        if (start == null || end == null || start.equals(end)) {
+            return Optional.empty();
+        }
+
+        String timeZone = preference.getTimeZone();
+        return Optional.of(new QuietHours(start, end, timeZone == null ? ZoneOffset.UTC : ZoneId.of(timeZone)));
+    }
+
+    public static boolean isValid(LocalTime start, LocalTime end, String timeZone) {
+        if ((start == null) != (end == null)) {
+            return false;
+        }
+        if (timeZone == null) {
+            return true;
+        }
+
+        try {
+            ZoneId.of(timeZone);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    // The end of the current quiet period, or empty when deliveries are allowed at that instant.
+    public Optional<Instant> endIfQuiet(Instant now) {
+        ZonedDateTime local = now.atZone(zone);
+        LocalTime time = local.toLocalTime();
+        boolean quiet = start.isBefore(end)
+                ? !time.isBefore(start) && time.isBefore(end)
+                : !time.isBefore(start) || time.isBefore(end);
+        if (!quiet) {
+            return Optional.empty();
+        }
+
+        LocalDate endDate = time.isBefore(end) ? local.toLocalDate() : local.toLocalDate().plusDays(1);
+        return Optional.of(ZonedDateTime.of(endDate, end, zone).toInstant());
+    }
+}
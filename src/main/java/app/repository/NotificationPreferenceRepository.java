@@ -1,14 +1,66 @@
 package app.repository;
 
 import app.model.NotificationPreference;
+import app.preference.PreferenceInvalidation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID> {
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, UUID>, NotificationPreferenceRepositoryCustom {
 
+    // Only takes effect when the query cache is on (the "tuned" profile).
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<NotificationPreference> findByUserId(UUID userId);
+
+    List<NotificationPreference> findAllByUserIdIn(Collection<UUID> userIds);
+
+    List<NotificationPreference> findByIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
+
+    @Query("""
+            SELECT new app.preference.PreferenceInvalidation(p.userId, p.updatedOn)
+            FROM NotificationPreference p
+            WHERE p.updatedOn > :since OR (p.updatedOn = :since AND p.userId > :afterUserId)
+            ORDER BY p.updatedOn, p.userId
+            """)
+    List<PreferenceInvalidation> findChangedSince(@Param("since") LocalDateTime since,
+                                                  @Param("afterUserId") UUID afterUserId,
+                                                  Pageable pageable);
+
+    // Naming the table keeps this native write from evicting every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_preference"))
+    @Query(value = """
+            INSERT INTO notification_preference (id, user_id, email_notification_enabled, dead_line_notification_enabled,
+                                                 summary_notification_enabled, reminder_notification_enabled, email, webhook_url,
+                                                 quiet_hours_start, quiet_hours_end, time_zone, created_on, updated_on)
+            VALUES (:#{#preference.id}, :#{#preference.userId}, :#{#preference.emailNotificationEnabled}, :#{#preference.deadLineNotificationEnabled},
+                    :#{#preference.summaryNotificationEnabled}, :#{#preference.reminderNotificationEnabled}, :#{#preference.email}, :#{#preference.webhookUrl},
+                    :#{#preference.quietHoursStart}, :#{#preference.quietHoursEnd}, :#{#preference.timeZone},
+                    :#{#preference.createdOn}, :#{#preference.updatedOn})
+            ON DUPLICATE KEY UPDATE
+                email_notification_enabled = VALUES(email_notification_enabled),
+                dead_line_notification_enabled = VALUES(dead_line_notification_enabled),
+                summary_notification_enabled = VALUES(summary_notification_enabled),
+                reminder_notification_enabled = VALUES(reminder_notification_enabled),
+                email = VALUES(email),
+                webhook_url = VALUES(webhook_url),
+                quiet_hours_start = VALUES(quiet_hours_start),
+                quiet_hours_end = VALUES(quiet_hours_end),
+                time_zone = VALUES(time_zone),
+                updated_on = VALUES(updated_on)
+            """, nativeQuery = true)
+    int upsert(@Param("preference") NotificationPreference preference);
 }
@@ -0,0 +1,10 @@
+package app.repository;
+
+import app.model.NotificationPreference;
+
+import java.util.Collection;
+
+public interface NotificationPreferenceRepositoryCustom {
+
+    int upsertAll(Collection<NotificationPreference> preferences);
+}
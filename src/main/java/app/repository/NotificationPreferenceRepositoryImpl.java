@@ -0,0 +1,94 @@
+package app.repository;
+
+import app.model.NotificationPreference;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class NotificationPreferenceRepositoryImpl implements NotificationPreferenceRepositoryCustom {
+
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT = """
+            INSERT INTO notification_preference (id, user_id, email_notification_enabled, dead_line_notification_enabled,
+                                                 summary_notification_enabled, reminder_notification_enabled, email, webhook_url,
+                                                 quiet_hours_start, quiet_hours_end, time_zone, created_on, updated_on)
+            VALUES\s""";
+
+    private static final String ON_DUPLICATE_KEY = """
+             ON DUPLICATE KEY UPDATE
+                email_notification_enabled = VALUES(email_notification_enabled),
+                dead_line_notification_enabled = VALUES(dead_line_notification_enabled),
+                summary_notification_enabled = VALUES(summary_notification_enabled),
+                reminder_notification_enabled = VALUES(reminder_notification_enabled),
+                email = VALUES(email),
+                webhook_url = VALUES(webhook_url),
+                quiet_hours_start = VALUES(quiet_hours_start),
+                quiet_hours_end = VALUES(quiet_hours_end),
+                time_zone = VALUES(time_zone),
+                updated_on = VALUES(updated_on)
+            """;
+
+    private static final int COLUMNS = 13;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int upsertAll(Collection<NotificationPreference> preferences) {
+        List<NotificationPreference> rows = new ArrayList<>(preferences);
+        int affected = 0;
+
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<NotificationPreference> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            affected += upsertChunk(chunk);
+        }
+
+        return affected;
+    }
+
+    private int upsertChunk(List<NotificationPreference> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT);
+        int position = 1;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            for (int c = 0; c < COLUMNS; c++) {
+                if (c > 0) {
+                    sql.append(", ");
+                }
+                sql.append('?').append(position++);
+            }
+            sql.append(')');
+        }
+        sql.append(ON_DUPLICATE_KEY);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(NotificationPreference.class);
+        position = 1;
+        for (NotificationPreference preference : chunk) {
+            query.setParameter(position++, preference.getId());
+            query.setParameter(position++, preference.getUserId());
+            query.setParameter(position++, preference.isEmailNotificationEnabled());
+            query.setParameter(position++, preference.isDeadLineNotificationEnabled());
+            query.setParameter(position++, preference.isSummaryNotificationEnabled());
+            query.setParameter(position++, preference.isReminderNotificationEnabled());
+            query.setParameter(position++, preference.getEmail());
+            query.setParameter(position++, preference.getWebhookUrl());
+            query.setParameter(position++, preference.getQuietHoursStart());
+            query.setParameter(position++, preference.getQuietHoursEnd());
+            query.setParameter(position++, preference.getTimeZone());
+            query.setParameter(position++, preference.getCreatedOn());
+            query.setParameter(position++, preference.getUpdatedOn());
+        }
+
+        return query.executeUpdate();
+    }
+}
@@ -1,16 +1,63 @@
 package app.repository;
 
 import app.model.Notification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, NotificationRepositoryCustom {
 
     List<Notification> findAllByUserId(UUID userId);
 
+    List<Notification> findAllByUserIdAndDeletedFalseOrderByCreatedOnDesc(UUID userId, Pageable pageable);
+
     void deleteAllByUserId(UUID userId);
+
+    List<Notification> findByIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
+
+    List<Notification> findByCreatedOnBeforeOrderByCreatedOnAsc(LocalDateTime cutoff, Pageable pageable);
+
+    long countByUserIdAndDeletedFalse(UUID userId);
+
+    @Query("""
+            select count(n) from Notification n
+            where n.userId = :userId and n.readAt is null and n.createdOn > :after and n.deleted = false
+            """)
+    long countUnread(@Param("userId") UUID userId, @Param("after") LocalDateTime after);
+
+    @Query("""
+            select n from Notification n
+            where n.userId = :userId and n.readAt is null and n.createdOn > :after and n.deleted = false
+            order by n.createdOn desc
+            """)
+    List<Notification> findUnread(@Param("userId") UUID userId, @Param("after") LocalDateTime after, Pageable pageable);
+
+    // Holds the rows until the transaction ends, so a concurrent markRead waits for the archival delete.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select n from Notification n where n.id in :ids")
+    List<Notification> lockAllById(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update Notification n set n.readAt = :readAt where n.userId = :userId and n.id in :ids and n.readAt is null")
+    int markRead(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids, @Param("readAt") LocalDateTime readAt);
+
+    // Relies on the MySQL FULLTEXT index from V8, so it does not run on H2. Terms carry the user's search token.
+    @Query(value = """
+            SELECT * FROM notifications
+            WHERE user_id = :userId AND deleted = false
+              AND MATCH (search_text) AGAINST (:terms IN BOOLEAN MODE)
+            ORDER BY MATCH (search_text) AGAINST (:terms IN BOOLEAN MODE) DESC, created_on DESC
+            """, nativeQuery = true)
+    List<Notification> search(@Param("userId") UUID userId, @Param("terms") String terms, Pageable pageable);
 }
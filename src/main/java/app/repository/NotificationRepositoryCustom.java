@@ -0,0 +1,12 @@
+package app.repository;
+
+import app.model.Notification;
+
+import java.util.Collection;
+
+public interface NotificationRepositoryCustom {
+
+    int insertAll(Collection<Notification> notifications);
+
+    int copyAll(Collection<Notification> notifications);
+}
@@ -0,0 +1,87 @@
+package app.repository;
+
+import app.model.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Inserts notifications that already carry an id, keeping the id. {@link #insertAll} is a plain multi-row
+ * INSERT: a bad or duplicate row fails the statement, like {@code save()} would. {@link #copyAll} uses
+ * INSERT IGNORE so replaying a copy to a replica or another shard twice is harmless; only use it for rows that
+ * were already written successfully somewhere else.
+ */
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String COLUMN_LIST = """
+             INTO notifications (id, subject, body, created_on, status, type, user_id, deleted, read_at)
+            VALUES\s""";
+
+    private static final int COLUMNS = 9;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertAll(Collection<Notification> notifications) {
+        return insert("INSERT", notifications);
+    }
+
+    @Override
+    public int copyAll(Collection<Notification> notifications) {
+        return insert("INSERT IGNORE", notifications);
+    }
+
+    private int insert(String verb, Collection<Notification> notifications) {
+        List<Notification> rows = new ArrayList<>(notifications);
+        int affected = 0;
+
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            affected += insertChunk(verb, rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size())));
+        }
+
+        return affected;
+    }
+
+    private int insertChunk(String verb, List<Notification> chunk) {
+        StringBuilder sql = new StringBuilder(verb).append(COLUMN_LIST);
+        int position = 1;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            for (int c = 0; c < COLUMNS; c++) {
+                if (c > 0) {
+                    sql.append(", ");
+                }
+                sql.append('?').append(position++);
+            }
+            sql.append(')');
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(Notification.class);
+        position = 1;
+        for (Notification notification : chunk) {
+            query.setParameter(position++, notification.getId());
+            query.setParameter(position++, notification.getSubject());
+            query.setParameter(position++, notification.getBody());
+            query.setParameter(position++, notification.getCreatedOn());
+            query.setParameter(position++, notification.getStatus() == null ? null : notification.getStatus().name());
+            query.setParameter(position++, notification.getType().name());
+            query.setParameter(position++, notification.getUserId());
+            query.setParameter(position++, notification.isDeleted());
+            query.setParameter(position++, notification.getReadAt());
+        }
+
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,32 @@
+package app.repository;
+
+import app.model.ReadWatermark;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReadWatermarkRepository extends JpaRepository<ReadWatermark, UUID> {
+
+    List<ReadWatermark> findByUserIdGreaterThanOrderByUserIdAsc(UUID afterUserId, Pageable pageable);
+
+    // Only ever moves the watermark forward, so replays and out-of-order requests are harmless.
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "notification_read_watermark"))
+    @Query(value = """
+            INSERT INTO notification_read_watermark (user_id, read_up_to)
+            VALUES (:userId, :readUpTo)
+            ON DUPLICATE KEY UPDATE read_up_to = GREATEST(read_up_to, VALUES(read_up_to))
+            """, nativeQuery = true)
+    int advance(@Param("userId") UUID userId, @Param("readUpTo") LocalDateTime readUpTo);
+}
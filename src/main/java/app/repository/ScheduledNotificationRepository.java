@@ -0,0 +1,65 @@
+package app.repository;
+
+import app.model.NotificationType;
+import app.model.ScheduleState;
+import app.model.ScheduledNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ScheduledNotificationRepository extends JpaRepository<ScheduledNotification, UUID> {
+
+    @Query("""
+            select s from ScheduledNotification s
+            where s.state = app.model.ScheduleState.PENDING and s.dueAt <= :upTo
+              and (s.dueAt > :afterDueAt or (s.dueAt = :afterDueAt and s.id > :afterId))
+            order by s.dueAt, s.id
+            """)
+    List<ScheduledNotification> findPendingAfter(@Param("afterDueAt") LocalDateTime afterDueAt,
+                                                 @Param("afterId") UUID afterId,
+                                                 @Param("upTo") LocalDateTime upTo,
+                                                 Pageable pageable);
+
+    @Query("""
+            select s.type as type, count(s) as count from ScheduledNotification s
+            where s.state = app.model.ScheduleState.PENDING and s.dueAt > :from and s.dueAt <= :to
+            group by s.type
+            """)
+    List<TypeCount> countPendingDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+            select s.type as type, count(s) as count from ScheduledNotification s
+            where s.state = app.model.ScheduleState.PENDING and s.dueAt <= :to
+            group by s.type
+            """)
+    List<TypeCount> countPendingDueUpTo(@Param("to") LocalDateTime to);
+
+    Optional<ScheduledNotification> findFirstByStateOrderByDueAtAsc(ScheduleState state);
+
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.state = :to, s.claimedOn = :now where s.id = :id and s.state = :from")
+    int transition(@Param("id") UUID id, @Param("from") ScheduleState from, @Param("to") ScheduleState to, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.state = app.model.ScheduleState.PENDING, s.claimedOn = null where s.state = app.model.ScheduleState.DISPATCHING and s.claimedOn < :cutoff")
+    int releaseExpiredClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    interface TypeCount {
+
+        NotificationType getType();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,50 @@
+package app.schedule;
+
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import app.preference.QuietHours;
+import app.web.dto.NotificationRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Decides whether a delivery falls into the user's quiet hours and, if so, when it may go out. Alerts are
+ * never deferred. Release times are spread over {@code release-spread} by user, so the users of one time zone
+ * do not all get their deferred mail at the same second, while one user's notifications keep their order.
+ */
+@Component
+public class DeliveryWindow {
+
+    private final QuietHoursProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public DeliveryWindow(QuietHoursProperties properties) {
+        this(properties, Clock.systemDefaultZone());
+    }
+
+    DeliveryWindow(QuietHoursProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public Optional<LocalDateTime> deferUntil(NotificationRequest request, NotificationPreference preference) {
+        if (!properties.isEnabled() || request.getType() == NotificationType.ALERT) {
+            return Optional.empty();
+        }
+
+        return QuietHours.of(preference)
+                .flatMap(quietHours -> quietHours.endIfQuiet(clock.instant()))
+                .map(end -> LocalDateTime.ofInstant(end.plusMillis(spreadOffsetMillis(request.getUserId())), clock.getZone()));
+    }
+
+    private long spreadOffsetMillis(UUID userId) {
+        long spread = properties.getReleaseSpread().toMillis();
+        return spread <= 0 ? 0 : Math.floorMod(userId.getMostSignificantBits() ^ userId.getLeastSignificantBits(), spread);
+    }
+}
@@ -0,0 +1,15 @@
+package app.schedule;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.quiet-hours")
+public class QuietHoursProperties {
+
+    private boolean enabled = true;
+
+    private Duration releaseSpread = Duration.ofMinutes(15);
+}
@@ -0,0 +1,228 @@
+package app.schedule;
+
+import app.lifecycle.DeliveryHandedOffException;
+import app.lifecycle.Drainable;
+import app.lifecycle.ShuttingDownException;
+import app.model.*;
+import app.repository.ScheduledNotificationRepository;
+import app.web.dto.NotificationRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds delayed notifications. Every item is persisted in {@code scheduled_notifications}; only those due
+ * within the configured horizon are kept in an in-memory {@link TimingWheel}. A periodic loader pulls the
+ * next horizon slice from the (state, dueAt) index in batches, so far-future items never cost a scan.
+ * Firing claims the row first, which keeps restarts and multiple instances from sending an item twice.
+ * Always created eagerly: the wheel poller and the periodic loader must run before the first request.
+ */
+@Slf4j
+@Lazy(false)
+@Order(0)
+@Service
+public class ScheduledDeliveryService implements Drainable {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    private final ScheduledNotificationRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SchedulerProperties properties;
+    private final TimingWheel<UUID> wheel;
+    private final Set<UUID> inWheel = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatchExecutor;
+    private final Thread pollerThread;
+    private volatile LocalDateTime loadedUpTo = BEGINNING;
+    private volatile boolean running = true;
+
+    public ScheduledDeliveryService(ScheduledNotificationRepository repository, ApplicationEventPublisher eventPublisher, SchedulerProperties properties) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(), System.currentTimeMillis());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(properties.getDispatchConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollerThread = new Thread(this::pollWheel, "scheduled-wheel");
+        this.pollerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        pollerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopIntake();
+    }
+
+    @Override
+    public void stopIntake() {
+        running = false;
+        pollerThread.interrupt();
+        dispatchExecutor.shutdown();
+    }
+
+    // Items still in the wheel or queued for dispatch were never claimed, so they stay PENDING in the table.
+    @Override
+    public boolean awaitDrained(long deadlineNanos) throws InterruptedException {
+        if (dispatchExecutor.awaitTermination(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        dispatchExecutor.shutdownNow();
+        return false;
+    }
+
+    public void persistForRecovery(List<NotificationRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAll(requests.stream().map(request -> toScheduled(request, now)).toList());
+    }
+
+    public Notification schedule(NotificationRequest request) {
+        ScheduledNotification scheduled = repository.save(toScheduled(request, request.getScheduledFor()));
+
+        if (!scheduled.getDueAt().isAfter(LocalDateTime.now().plus(properties.getHorizon()))) {
+            enqueue(scheduled.getId(), scheduled.getDueAt());
+        }
+
+        return Notification.builder()
+                .subject(scheduled.getSubject())
+                .body(scheduled.getBody())
+                .createdOn(scheduled.getCreatedOn())
+                .type(scheduled.getType())
+                .userId(scheduled.getUserId())
+                .status(NotificationStatus.PENDING)
+                .deleted(false)
+                .build();
+    }
+
+    public int pendingInMemory() {
+        return wheel.size();
+    }
+
+    // Overdue PENDING rows are rescanned on every load: released claims, shutdown hand-backs and items that were
+    // in the wheel of an instance that crashed sit behind the watermark. The claim keeps a row from firing twice.
+    @Scheduled(fixedDelayString = "${notifications.scheduler.load-interval:30s}")
+    public void loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.releaseExpiredClaims(now.minus(properties.getClaimLease()));
+
+        LocalDateTime overdue = now.minus(properties.getTick());
+        if (loadedUpTo.isAfter(overdue)) {
+            load(BEGINNING, overdue);
+        }
+
+        LocalDateTime upTo = now.plus(properties.getHorizon());
+        load(loadedUpTo, upTo);
+        loadedUpTo = upTo;
+    }
+
+    private void load(LocalDateTime afterDueAt, LocalDateTime upTo) {
+        UUID afterId = LAST_ID;
+        List<ScheduledNotification> batch;
+        do {
+            batch = repository.findPendingAfter(afterDueAt, afterId, upTo, PageRequest.of(0, properties.getLoadBatchSize()));
+            for (ScheduledNotification scheduled : batch) {
+                enqueue(scheduled.getId(), scheduled.getDueAt());
+                afterDueAt = scheduled.getDueAt();
+                afterId = scheduled.getId();
+            }
+        } while (batch.size() == properties.getLoadBatchSize());
+    }
+
+    private void enqueue(UUID id, LocalDateTime dueAt) {
+        if (!running || !inWheel.add(id)) {
+            return;
+        }
+
+        long dueMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.add(id, dueMillis)) {
+            dispatchExecutor.execute(() -> fire(id));
+        }
+    }
+
+    private void pollWheel() {
+        while (running) {
+            try {
+                for (UUID id : wheel.poll(properties.getTick().toMillis())) {
+                    dispatchExecutor.execute(() -> fire(id));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Scheduled notification poller failed", e);
+            }
+        }
+    }
+
+    private void fire(UUID id) {
+        inWheel.remove(id);
+        if (repository.transition(id, ScheduleState.PENDING, ScheduleState.DISPATCHING, LocalDateTime.now()) == 0) {
+            return;
+        }
+
+        Optional<ScheduledNotification> scheduled = repository.findById(id);
+        if (scheduled.isEmpty()) {
+            return;
+        }
+
+        ScheduleState outcome = ScheduleState.DISPATCHED;
+        try {
+            eventPublisher.publishEvent(new ScheduledNotificationDueEvent(toRequest(scheduled.get())));
+        } catch (DeliveryHandedOffException e) {
+            log.info("Scheduled notification [{}] was handed off for recovery during shutdown", id);
+        } catch (ShuttingDownException e) {
+            outcome = ScheduleState.PENDING;
+        } catch (RuntimeException e) {
+            outcome = ScheduleState.FAILED;
+            log.warn("Scheduled notification [{}] failed: {}", id, e.getMessage());
+        }
+
+        repository.transition(id, ScheduleState.DISPATCHING, outcome, LocalDateTime.now());
+    }
+
+    private ScheduledNotification toScheduled(NotificationRequest request, LocalDateTime dueAt) {
+        return ScheduledNotification.builder()
+                .userId(request.getUserId())
+                .subject(request.getSubject())
+                .body(request.getBody())
+                .type(request.getType())
+                .channels(request.getChannels() == null || request.getChannels().isEmpty() ? null : String.join(",", request.getChannels()))
+                .dueAt(dueAt)
+                .state(ScheduleState.PENDING)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    private NotificationRequest toRequest(ScheduledNotification scheduled) {
+        return NotificationRequest.builder()
+                .userId(scheduled.getUserId())
+                .subject(scheduled.getSubject())
+                .body(scheduled.getBody())
+                .type(scheduled.getType())
+                .channels(scheduled.getChannels() == null ? null : new LinkedHashSet<>(Arrays.asList(scheduled.getChannels().split(","))))
+                .build();
+    }
+}
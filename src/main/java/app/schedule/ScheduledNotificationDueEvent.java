@@ -0,0 +1,6 @@
+package app.schedule;
+
+import app.web.dto.NotificationRequest;
+
+public record ScheduledNotificationDueEvent(NotificationRequest request) {
+}
@@ -0,0 +1,23 @@
+package app.schedule;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.scheduler")
+public class SchedulerProperties {
+
+    private Duration tick = Duration.ofMillis(100);
+
+    private int wheelSize = 512;
+
+    private Duration horizon = Duration.ofMinutes(5);
+
+    private int loadBatchSize = 500;
+
+    private int dispatchConcurrency = 4;
+
+    private Duration claimLease = Duration.ofMinutes(5);
+}
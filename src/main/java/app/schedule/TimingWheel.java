@@ -0,0 +1,155 @@
+package app.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel. Adding an item is O(1): it lands in the bucket of the lowest wheel whose
+ * span covers its due time, and overflow wheels with coarser ticks are created on demand. Only buckets
+ * that hold items are tracked by the delay queue, so an idle wheel costs nothing per tick. When a coarse
+ * bucket expires its items cascade down into finer wheels until they are due.
+ */
+public class TimingWheel<T> {
+
+    private final DelayQueue<Bucket<T>> expiringBuckets = new DelayQueue<>();
+    private final Wheel<T> root;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.root = new Wheel<>(tickMillis, wheelSize, startMillis, expiringBuckets);
+    }
+
+    /**
+     * @return {@code false} if the item is already due and should be handled by the caller right away
+     */
+    public synchronized boolean add(T item, long dueMillis) {
+        boolean added = root.add(new Entry<>(item, dueMillis));
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for the next bucket to expire and returns every item that became due.
+     */
+    public List<T> poll(long timeoutMillis) throws InterruptedException {
+        Bucket<T> bucket = expiringBuckets.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        List<T> due = new ArrayList<>();
+
+        while (bucket != null) {
+            synchronized (this) {
+                root.advanceClock(bucket.getExpiration());
+                for (Entry<T> entry : bucket.drain()) {
+                    if (!root.add(entry)) {
+                        due.add(entry.item());
+                        size--;
+                    }
+                }
+            }
+            bucket = expiringBuckets.poll();
+        }
+
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static final class Wheel<T> {
+
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long intervalMillis;
+        private final List<Bucket<T>> buckets;
+        private final DelayQueue<Bucket<T>> expiringBuckets;
+        private long currentTime;
+        private Wheel<T> overflow;
+
+        private Wheel(long tickMillis, int wheelSize, long startMillis, DelayQueue<Bucket<T>> expiringBuckets) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.expiringBuckets = expiringBuckets;
+            this.currentTime = startMillis - (startMillis % tickMillis);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket<>());
+            }
+        }
+
+        private boolean add(Entry<T> entry) {
+            if (entry.dueMillis() < currentTime + tickMillis) {
+                return false;
+            }
+
+            if (entry.dueMillis() < currentTime + intervalMillis) {
+                long virtualId = entry.dueMillis() / tickMillis;
+                Bucket<T> bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMillis)) {
+                    expiringBuckets.offer(bucket);
+                }
+                return true;
+            }
+
+            if (overflow == null) {
+                overflow = new Wheel<>(intervalMillis, wheelSize, currentTime, expiringBuckets);
+            }
+            return overflow.add(entry);
+        }
+
+        private void advanceClock(long timeMillis) {
+            if (timeMillis >= currentTime + tickMillis) {
+                currentTime = timeMillis - (timeMillis % tickMillis);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+
+    private static final class Bucket<T> implements Delayed {
+
+        private final List<Entry<T>> entries = new ArrayList<>();
+        private long expiration = -1;
+
+        private synchronized void add(Entry<T> entry) {
+            entries.add(entry);
+        }
+
+        private synchronized boolean setExpiration(long expiration) {
+            boolean changed = this.expiration != expiration;
+            this.expiration = expiration;
+            return changed;
+        }
+
+        private synchronized long getExpiration() {
+            return expiration;
+        }
+
+        private synchronized List<Entry<T>> drain() {
+            List<Entry<T>> drained = new ArrayList<>(entries);
+            entries.clear();
+            expiration = -1;
+            return drained;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket<?>) other).getExpiration());
+        }
+    }
+
+    private record Entry<T>(T item, long dueMillis) {
+    }
+}
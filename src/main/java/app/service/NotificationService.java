@@ -1,111 +1,286 @@
 package app.service;
 
+import app.archive.ArchiveStore;
+import app.channel.ChannelDispatcher;
+import app.dedup.DeduplicationWindow;
+import app.history.RecentHistoryCache;
+import app.logging.DeliveryMdc;
 import app.model.Notification;
 import app.model.NotificationPreference;
 import app.model.NotificationStatus;
-import app.model.NotificationType;
+import app.model.ReadWatermark;
 import app.repository.NotificationRepository;
+import app.repository.ReadWatermarkRepository;
+import app.schedule.DeliveryWindow;
+import app.schedule.ScheduledDeliveryService;
+import app.schedule.ScheduledNotificationDueEvent;
+import app.shard.ShardRouter;
 import app.web.dto.NotificationRequest;
-import jakarta.transaction.Transactional;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
+import app.web.dto.NotificationResponse;
+import app.web.dto.ReadRequest;
+import app.web.mapper.DtoMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-@Slf4j
 @Service
 public class NotificationService {
 
+    private static final LocalDateTime NEVER_READ = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Shorter prefixes would match most of a user's history.
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    private static final int SEARCH_TOKEN_LENGTH = 16;
+    private static final int MAX_SEARCH_TERMS = 10;
+
     private final NotificationRepository notificationRepository;
     private final PreferenceService preferenceService;
-    private final MailSender mailSender;
+    private final ChannelDispatcher channelDispatcher;
+    private final ScheduledDeliveryService scheduledDeliveryService;
+    private final RecentHistoryCache recentHistoryCache;
+    private final DeduplicationWindow deduplicationWindow;
+    private final ShardRouter shardRouter;
+    private final ReadWatermarkRepository readWatermarkRepository;
+    private final ArchiveStore archiveStore;
+    private final DeliveryWindow deliveryWindow;
+    private final int maxSearchTermLength;
 
-    public NotificationService(NotificationRepository notificationRepository, PreferenceService preferenceService, MailSender mailSender) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               PreferenceService preferenceService,
+                               ChannelDispatcher channelDispatcher,
+                               ScheduledDeliveryService scheduledDeliveryService,
+                               RecentHistoryCache recentHistoryCache,
+                               DeduplicationWindow deduplicationWindow,
+                               ShardRouter shardRouter,
+                               ReadWatermarkRepository readWatermarkRepository,
+                               ArchiveStore archiveStore,
+                               DeliveryWindow deliveryWindow,
+                               SearchProperties searchProperties) {
         this.notificationRepository = notificationRepository;
         this.preferenceService = preferenceService;
-        this.mailSender = mailSender;
+        this.channelDispatcher = channelDispatcher;
+        this.scheduledDeliveryService = scheduledDeliveryService;
+        this.recentHistoryCache = recentHistoryCache;
+        this.deduplicationWindow = deduplicationWindow;
+        this.shardRouter = shardRouter;
+        this.readWatermarkRepository = readWatermarkRepository;
+        this.archiveStore = archiveStore;
+        this.deliveryWindow = deliveryWindow;
+        // Indexed words carry the user's search token, and InnoDB skips words over its max token size.
+        this.maxSearchTermLength = searchProperties.getMaxTokenSize() - SEARCH_TOKEN_LENGTH;
     }
 
-    public Notification sendEmail(NotificationRequest notificationRequest) {
+    public List<Notification> getHistory(UUID userId) {
+        List<Notification> history = shardRouter.read(userId, () -> notificationRepository.findAllByUserId(userId)).stream().filter(n -> !n.isDeleted()).collect(Collectors.toList());
 
-        NotificationPreference preference = preferenceService.getByUserId(notificationRequest.getUserId());
+        List<Notification> archived = archiveStore.find(userId);
+        if (!archived.isEmpty()) {
+            Set<UUID> hotIds = history.stream().map(Notification::getId).collect(Collectors.toSet());
+            archived.stream().filter(notification -> !hotIds.contains(notification.getId())).forEach(history::add);
+        }
+        return history;
+    }
 
-        boolean enabled = preference.isEmailNotificationEnabled();
-        if (!enabled) {
-            throw new IllegalStateException("User with id=[%s] turned of his notifications".formatted(notificationRequest.getUserId()));
+    public List<NotificationResponse> getHistoryPage(UUID userId, int page, int size) {
+        if (page == 0) {
+            Optional<List<NotificationResponse>> cached = recentHistoryCache.firstPage(userId, size, limit -> findHistoryPage(userId, 0, limit));
+            if (cached.isPresent()) {
+                return cached.get();
+            }
         }
 
-        Notification notification = Notification.builder()
-                .subject(notificationRequest.getSubject())
-                .body(notificationRequest.getBody())
-                .createdOn(LocalDateTime.now())
-                .type(NotificationType.EMAIL)
-                .userId(notificationRequest.getUserId())
-                .deleted(false)
-                .build();
+        return findHistoryPage(userId, page, size);
+    }
+
+    public List<NotificationResponse> getUnreadPage(UUID userId, int page, int size) {
+        return shardRouter.read(userId, () -> {
+            LocalDateTime readUpTo = readUpTo(userId);
+            LocalDateTime after = readUpTo == null ? NEVER_READ : readUpTo;
+            List<Notification> hot = notificationRepository.findUnread(userId, after, PageRequest.of(page, size));
+
+            return withArchive(userId, page, size, hot, () -> notificationRepository.countUnread(userId, after),
+                    notification -> notification.getReadAt() == null && notification.getCreatedOn().isAfter(after)).stream()
+                    .map(DtoMapper::from)
+                    .toList();
+        });
+    }
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(preference.getEmail());
-        mailMessage.setSubject(notificationRequest.getSubject());
-        mailMessage.setText(notificationRequest.getBody());
-
-        try {
-            mailSender.send(mailMessage);
-            notification.setStatus(NotificationStatus.SUCCEEDED);
-        } catch (Exception e) {
-            notification.setStatus(NotificationStatus.FAILED);
-            log.error("[S2S Call]: Failed due to %s".formatted(e.getMessage()));
+    // Hot notifications only; archived ones are not indexed.
+    public List<NotificationResponse> search(UUID userId, String query, int page, int size) {
+        String terms = toBooleanQuery(userId, query);
+        if (terms.isEmpty()) {
+            return List.of();
         }
 
-        return notificationRepository.save(notification);
+        return shardRouter.read(userId, () -> {
+            LocalDateTime readUpTo = readUpTo(userId);
+            return notificationRepository.search(userId, terms, PageRequest.of(page, size)).stream()
+                    .map(notification -> DtoMapper.from(notification, readUpTo))
+                    .toList();
+        });
+    }
+
+    public LocalDateTime getReadUpTo(UUID userId) {
+        return shardRouter.read(userId, () -> readUpTo(userId));
     }
 
-    public Notification sendInAppNotification(NotificationRequest notificationRequest) {
+    // The watermark covers "mark all read" without touching rows; ids are marked with a single UPDATE.
+    public void markRead(ReadRequest readRequest) {
+        UUID userId = readRequest.getUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (readRequest.getUpTo() != null) {
+            LocalDateTime upTo = readRequest.getUpTo().isAfter(now) ? now : readRequest.getUpTo();
+            shardRouter.write(userId, () -> readWatermarkRepository.advance(userId, upTo),
+                    ignored -> readWatermarkRepository.advance(userId, upTo));
+        }
+
+        if (readRequest.getIds() != null && !readRequest.getIds().isEmpty()) {
+            int updated = shardRouter.write(userId, () -> notificationRepository.markRead(userId, readRequest.getIds(), now),
+                    ignored -> notificationRepository.markRead(userId, readRequest.getIds(), now));
+            // Ids the database did not update may be archived (or already read); those are marked in the archive.
+            if (updated < readRequest.getIds().size()) {
+                archiveStore.markRead(userId, readRequest.getIds(), now);
+            }
+        }
+
+        recentHistoryCache.evict(userId);
+    }
+
+    /**
+     * The outcome of every channel the request went to, the first accepted one first. Scheduled, deferred and
+     * suppressed requests have a single outcome.
+     */
+    public List<Notification> sendNotification(NotificationRequest notificationRequest) {
+        try (DeliveryMdc ignored = DeliveryMdc.open(notificationRequest)) {
+            if (deduplicationWindow.isDuplicate(notificationRequest)) {
+                return List.of(suppressed(notificationRequest));
+            }
+
+            // Only an accepted send keeps its dedup key; a failed one must stay retryable.
+            boolean accepted = false;
+            try {
+                List<Notification> outcomes = notificationRequest.getScheduledFor() != null && notificationRequest.getScheduledFor().isAfter(LocalDateTime.now())
+                        ? List.of(scheduledDeliveryService.schedule(notificationRequest))
+                        : deliver(notificationRequest);
+                accepted = outcomes.get(0).getStatus() != NotificationStatus.FAILED;
+                return outcomes;
+            } finally {
+                if (!accepted) {
+                    deduplicationWindow.forget(notificationRequest);
+                }
+            }
+        }
+    }
+
+    // Already passed the dedup window when it was scheduled.
+    @EventListener
+    public void onScheduledNotificationDue(ScheduledNotificationDueEvent event) {
+        try (DeliveryMdc ignored = DeliveryMdc.open(event.request())) {
+            deliver(event.request());
+        }
+    }
+
+    private List<Notification> deliver(NotificationRequest notificationRequest) {
         NotificationPreference preference = preferenceService.getByUserId(notificationRequest.getUserId());
 
-        Notification notification = Notification.builder()
+        // Deferred items come back through onScheduledNotificationDue once the window opens.
+        Optional<LocalDateTime> deferUntil = deliveryWindow.deferUntil(notificationRequest, preference);
+        if (deferUntil.isPresent()) {
+            return List.of(scheduledDeliveryService.schedule(notificationRequest.toBuilder().scheduledFor(deferUntil.get()).build()));
+        }
+
+        List<Notification> outcomes = channelDispatcher.dispatch(notificationRequest, preference);
+        // Outcomes without an id were never stored; a PENDING one is stored later, so the cached page can't be patched.
+        if (outcomes.stream().allMatch(outcome -> outcome.getId() != null)) {
+            recentHistoryCache.record(notificationRequest.getUserId(), outcomes.stream().map(DtoMapper::from).toList());
+        } else {
+            recentHistoryCache.evict(notificationRequest.getUserId());
+        }
+
+        List<Notification> ordered = new ArrayList<>(outcomes);
+        ordered.sort(Comparator.comparing(outcome -> outcome.getStatus() == NotificationStatus.FAILED));
+        return ordered;
+    }
+
+    public void deleteHistory(UUID userId) {
+        shardRouter.write(userId, () -> {
+            notificationRepository.deleteAllByUserId(userId);
+            return null;
+        }, ignored -> notificationRepository.deleteAllByUserId(userId));
+        archiveStore.delete(userId);
+        recentHistoryCache.clear(userId);
+    }
+
+    private Notification suppressed(NotificationRequest notificationRequest) {
+        return Notification.builder()
+                .userId(notificationRequest.getUserId())
                 .subject(notificationRequest.getSubject())
                 .body(notificationRequest.getBody())
-                .createdOn(LocalDateTime.now())
                 .type(notificationRequest.getType())
-                .userId(notificationRequest.getUserId())
-                .deleted(false)
-                .status(checkNotificationStatus(notificationRequest, preference))
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.SUPPRESSED)
                 .build();
-
-        return notificationRepository.save(notification);
     }
 
-    public List<Notification> getHistory(UUID userId) {
-        return notificationRepository.findAllByUserId(userId).stream().filter(n -> !n.isDeleted()).collect(Collectors.toList());
+    private List<NotificationResponse> findHistoryPage(UUID userId, int page, int size) {
+        return shardRouter.read(userId, () -> {
+            LocalDateTime readUpTo = readUpTo(userId);
+            List<Notification> hot = notificationRepository.findAllByUserIdAndDeletedFalseOrderByCreatedOnDesc(userId, PageRequest.of(page, size));
+
+            return withArchive(userId, page, size, hot, () -> notificationRepository.countByUserIdAndDeletedFalse(userId), notification -> true).stream()
+                    .map(notification -> DtoMapper.from(notification, readUpTo))
+                    .toList();
+        });
     }
 
-    public Notification sendNotification(NotificationRequest notificationRequest) {
-        if (notificationRequest.getType().equals(NotificationType.EMAIL) ) {
-            return sendEmail(notificationRequest);
-        }
+    // Every keyword is required and matches as a prefix; boolean-mode operators in the input are dropped.
+    String toBooleanQuery(UUID userId, String query) {
+        String token = searchToken(userId);
+        return Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> term.length() >= MIN_SEARCH_TERM_LENGTH && term.length() <= maxSearchTermLength)
+                .map(term -> term.toLowerCase(Locale.ROOT))
+                .distinct()
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> "+" + token + term + "*")
+                .collect(Collectors.joining(" "));
+    }
 
-        return sendInAppNotification(notificationRequest);
+    // Matches the prefix V8 puts on every word of search_text: the first 8 bytes of the stored user_id in hex.
+    static String searchToken(UUID userId) {
+        return userId.toString().replace("-", "").substring(0, SEARCH_TOKEN_LENGTH);
     }
 
-    public NotificationStatus checkNotificationStatus(NotificationRequest request, NotificationPreference preference) {
-        if (request.getType().equals(NotificationType.DEADLINE) && preference.isDeadLineNotificationEnabled()
-         || request.getType().equals(NotificationType.SUMMARY) && preference.isSummaryNotificationEnabled()
-         || request.getType().equals(NotificationType.REMINDER) && preference.isReminderNotificationEnabled()
-         || request.getType().equals(NotificationType.ALERT)) {
-            return NotificationStatus.SUCCEEDED;
+    // Archived notifications are older than the hot ones, so they continue a page once the hot rows run out.
+    private List<Notification> withArchive(UUID userId, int page, int size, List<Notification> hot,
+                                           LongSupplier hotTotal, Predicate<Notification> filter) {
+        if (hot.size() == size) {
+            return hot;
         }
 
-        return NotificationStatus.FAILED;
+        List<Notification> archived = archiveStore.find(userId);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+
+        long skip = hot.isEmpty() ? Math.max(0, (long) page * size - hotTotal.getAsLong()) : 0;
+        Set<UUID> hotIds = hot.stream().map(Notification::getId).collect(Collectors.toSet());
+        List<Notification> merged = new ArrayList<>(hot);
+        archived.stream()
+                .filter(filter)
+                .filter(notification -> !hotIds.contains(notification.getId()))
+                .skip(skip)
+                .limit(size - hot.size())
+                .forEach(merged::add);
+        return merged;
     }
 
-    @Transactional
-    public void deleteHistory(UUID userId) {
-        notificationRepository.deleteAllByUserId(userId);
+    private LocalDateTime readUpTo(UUID userId) {
+        return readWatermarkRepository.findById(userId).map(ReadWatermark::getReadUpTo).orElse(null);
     }
 }
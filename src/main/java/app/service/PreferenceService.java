@@ -1,54 +1,145 @@
 package app.service;
 
 import app.model.NotificationPreference;
+import app.preference.InvalidPreferenceException;
+import app.preference.PreferenceCache;
+import app.preference.PreferenceInvalidation;
+import app.preference.PreferenceInvalidationBus;
+import app.preference.QuietHours;
 import app.repository.NotificationPreferenceRepository;
+import app.shard.ShardRouter;
 import app.web.dto.PreferenceRequest;
+import app.webhook.WebhookProperties;
+import app.webhook.WebhookUrls;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 public class PreferenceService {
 
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final NotificationPreferenceRepository preferenceRepository;
+    private final PreferenceCache preferenceCache;
+    private final PreferenceInvalidationBus invalidationBus;
+    private final ShardRouter shardRouter;
+    private final WebhookProperties webhookProperties;
 
-    public PreferenceService(NotificationPreferenceRepository preferenceRepository) {
+    public PreferenceService(NotificationPreferenceRepository preferenceRepository,
+                             PreferenceCache preferenceCache,
+                             PreferenceInvalidationBus invalidationBus,
+                             ShardRouter shardRouter,
+                             WebhookProperties webhookProperties) {
         this.preferenceRepository = preferenceRepository;
+        this.preferenceCache = preferenceCache;
+        this.invalidationBus = invalidationBus;
+        this.shardRouter = shardRouter;
+        this.webhookProperties = webhookProperties;
     }
 
+    // Single INSERT ... ON DUPLICATE KEY UPDATE keyed on the unique userId, so concurrent upserts
+    // for a new user cannot collide. The returned preference reflects the values written; for an existing row
+    // its id and createdOn are not the stored ones, which no caller reads.
     public NotificationPreference upsert(PreferenceRequest preferenceRequest) {
 
-        Optional<NotificationPreference> preferenceOptional = preferenceRepository.findByUserId(preferenceRequest.getUserId());
+        NotificationPreference preference = toPreference(preferenceRequest, now());
+        shardRouter.write(preference.getUserId(), () -> preferenceRepository.upsert(preference), ignored -> preferenceRepository.upsert(preference));
+        invalidate(preference);
+
+        return preference;
+    }
+
+    public int upsertAll(Collection<PreferenceRequest> preferenceRequests) {
+        if (preferenceRequests.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = now();
+        List<NotificationPreference> preferences = preferenceRequests.stream()
+                .map(request -> toPreference(request, now))
+                .toList();
+
+        shardRouter.writeAll(preferences, NotificationPreference::getUserId, preferenceRepository::upsertAll, preferenceRepository::upsertAll);
+        preferences.forEach(this::invalidate);
+
+        return preferences.size();
+    }
+
+    public NotificationPreference getByUserId(UUID userId) {
+        return preferenceCache.get(userId, () -> shardRouter.read(userId, () -> preferenceRepository.findByUserId(userId))).orElseThrow(() -> new RuntimeException("Preference for this user does not exist!"));
+    }
+
+    public Map<UUID, NotificationPreference> getByUserIds(Collection<UUID> userIds) {
+        Map<UUID, NotificationPreference> preferences = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
 
-        if (preferenceOptional.isPresent()) {
-            NotificationPreference preference = preferenceOptional.get();
-            preference.setDeadLineNotificationEnabled(preferenceRequest.isDeadLineNotificationEnabled());
-            preference.setEmailNotificationEnabled(preferenceRequest.isEmailNotificationEnabled());
-            preference.setSummaryNotificationEnabled(preferenceRequest.isSummaryNotificationEnabled());
-            preference.setReminderNotificationEnabled(preferenceRequest.isReminderNotificationEnabled());
-            preference.setEmail(preferenceRequest.getEmail());
-            preference.setUpdatedOn(LocalDateTime.now());
+        userIds.stream().distinct().forEach(userId -> {
+            NotificationPreference cached = preferenceCache.getIfPresent(userId);
+            if (cached != null) {
+                preferences.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        });
 
-            return preferenceRepository.save(preference);
+        for (int from = 0; from < missing.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = missing.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, missing.size()));
+            shardRouter.readAll(chunk, preferenceRepository::findAllByUserIdIn).forEach(preference -> {
+                preferenceCache.put(preference);
+                preferences.put(preference.getUserId(), preference);
+            });
         }
 
-        NotificationPreference preference = NotificationPreference.builder()
+        return preferences;
+    }
+
+    // Versions are compared against updated_on read back from DATETIME(6), so they must not carry nanos.
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void invalidate(NotificationPreference preference) {
+        PreferenceInvalidation invalidation = new PreferenceInvalidation(preference.getUserId(), preference.getUpdatedOn());
+        preferenceCache.invalidate(invalidation);
+        invalidationBus.publish(invalidation);
+    }
+
+    private NotificationPreference toPreference(PreferenceRequest preferenceRequest, LocalDateTime now) {
+        validate(preferenceRequest);
+
+        return NotificationPreference.builder()
+                .id(UUID.randomUUID())
                 .userId(preferenceRequest.getUserId())
                 .deadLineNotificationEnabled(preferenceRequest.isDeadLineNotificationEnabled())
                 .emailNotificationEnabled(preferenceRequest.isEmailNotificationEnabled())
                 .summaryNotificationEnabled(preferenceRequest.isSummaryNotificationEnabled())
                 .reminderNotificationEnabled(preferenceRequest.isReminderNotificationEnabled())
                 .email(preferenceRequest.getEmail())
-                .updatedOn(LocalDateTime.now())
-                .createdOn(LocalDateTime.now())
+                .webhookUrl(preferenceRequest.getWebhookUrl())
+                .quietHoursStart(preferenceRequest.getQuietHoursStart())
+                .quietHoursEnd(preferenceRequest.getQuietHoursEnd())
+                .timeZone(preferenceRequest.getTimeZone())
+                .updatedOn(now)
+                .createdOn(now)
                 .build();
-
-        return preferenceRepository.save(preference);
     }
 
-    public NotificationPreference getByUserId(UUID userId) {
-        return preferenceRepository.findByUserId(userId).orElseThrow(() -> new RuntimeException("Preference for this user does not exist!"));
+    private void validate(PreferenceRequest preferenceRequest) {
+        if (!QuietHours.isValid(preferenceRequest.getQuietHoursStart(), preferenceRequest.getQuietHoursEnd(), preferenceRequest.getTimeZone())) {
+            throw new InvalidPreferenceException("Invalid quiet hours for user [%s]: they need both a start and an end and a known time zone"
+                    .formatted(preferenceRequest.getUserId()));
+        }
+
+        String webhookUrl = preferenceRequest.getWebhookUrl();
+        if (webhookUrl != null && !webhookUrl.isBlank()) {
+            try {
+                WebhookUrls.validate(webhookUrl, webhookProperties.isAllowPrivateHosts());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidPreferenceException(e.getMessage());
+            }
+        }
     }
 }
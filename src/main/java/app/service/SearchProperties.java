@@ -0,0 +1,12 @@
+package app.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.search")
+public class SearchProperties {
+
+    // Must match the server's innodb_ft_max_token_size; InnoDB does not index longer words.
+    private int maxTokenSize = 84;
+}
@@ -0,0 +1,65 @@
+package app.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Maps a userId to one of the member shards. Every member owns {@code virtualNodes} points on a 64-bit ring and
+ * a user belongs to the first point at or after its hash, so adding or removing a member only moves the users
+ * between the changed member's points and their predecessors, roughly {@code 1/members} of all users.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> members;
+    private final String onlyMember;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one member");
+        }
+
+        this.members = Collections.unmodifiableSet(new LinkedHashSet<>(members));
+        this.onlyMember = this.members.size() == 1 ? this.members.iterator().next() : null;
+        for (String member : this.members) {
+            for (int node = 0; node < virtualNodes; node++) {
+                points.putIfAbsent(fmix(hash(member + "#" + node)), member);
+            }
+        }
+    }
+
+    public String shardFor(UUID userId) {
+        if (onlyMember != null) {
+            return onlyMember;
+        }
+
+        long hash = fmix(userId.getMostSignificantBits() ^ fmix(userId.getLeastSignificantBits()));
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public Set<String> members() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer; spreads FNV's weak high bits so virtual nodes land evenly on the ring.
+    private static long fmix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
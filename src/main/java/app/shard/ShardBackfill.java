@@ -0,0 +1,234 @@
+package app.shard;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.ReadWatermark;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.repository.ReadWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Copies the rows of users whose owner changes in {@code resharding.target-ring} from their current shard to
+ * their target shard. Each source shard is walked in id order in pages of {@code backfill-batch-size}; copies
+ * are idempotent, so the backfill can be re-run after a crash or to repair failed dual writes. A preference is
+ * only copied when the target has none or an older one, so it never overwrites a newer dual-written row;
+ * read watermarks only ever move forward. A notification deleted on the source after it was read for copying is
+ * deleted again on the target once the copy has committed, so the copy can't bring it back.
+ * <p>
+ * Moved rows stay on the source shard until the resharding is finished. Once the target ring has become the ring,
+ * {@link #cleanup()} ({@code resharding.cleanup-on-startup}) deletes every row a shard no longer owns.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notifications.sharding.enabled", havingValue = "true")
+public class ShardBackfill {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final ShardRouter shardRouter;
+    private final NotificationRepository notificationRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final ReadWatermarkRepository readWatermarkRepository;
+    private final ShardingProperties properties;
+
+    public ShardBackfill(ShardRouter shardRouter,
+                         NotificationRepository notificationRepository,
+                         NotificationPreferenceRepository preferenceRepository,
+                         ReadWatermarkRepository readWatermarkRepository,
+                         ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.notificationRepository = notificationRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.readWatermarkRepository = readWatermarkRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getResharding().isBackfillOnStartup() && shardRouter.isResharding()) {
+            Thread thread = new Thread(this::run, "shard-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        } else if (properties.getResharding().isCleanupOnStartup() && !shardRouter.isResharding()) {
+            Thread thread = new Thread(this::cleanup, "shard-cleanup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public long run() {
+        if (!shardRouter.isResharding()) {
+            return 0;
+        }
+
+        long copied = 0;
+        for (String source : shardRouter.sourceShards()) {
+            long preferences = copy(source, preferenceRepository::findByIdGreaterThanOrderByIdAsc, NotificationPreference::getId,
+                    NotificationPreference::getUserId, this::copyPreferences);
+            long notifications = copy(source, notificationRepository::findByIdGreaterThanOrderByIdAsc, Notification::getId,
+                    Notification::getUserId, notificationRepository::copyAll,
+                    (target, rows) -> deleteRemovedFromSource(source, target, rows));
+            long watermarks = copy(source, readWatermarkRepository::findByUserIdGreaterThanOrderByUserIdAsc, ReadWatermark::getUserId,
+                    ReadWatermark::getUserId, this::copyWatermarks);
+            log.info("Backfilled shard [{}]: {} preferences, {} notifications, {} read watermarks moved to their target shard",
+                    source, preferences, notifications, watermarks);
+            copied += preferences + notifications + watermarks;
+        }
+        return copied;
+    }
+
+    /**
+     * Deletes, on each shard of the ring, the rows of users that shard no longer owns. Does nothing while resharding.
+     */
+    public long cleanup() {
+        if (shardRouter.isResharding()) {
+            return 0;
+        }
+
+        long deleted = 0;
+        for (String shard : shardRouter.sourceShards()) {
+            long preferences = deleteMoved(shard, preferenceRepository::findByIdGreaterThanOrderByIdAsc, NotificationPreference::getId,
+                    NotificationPreference::getUserId, preferenceRepository::deleteAllByIdInBatch);
+            long notifications = deleteMoved(shard, notificationRepository::findByIdGreaterThanOrderByIdAsc, Notification::getId,
+                    Notification::getUserId, notificationRepository::deleteAllByIdInBatch);
+            long watermarks = deleteMoved(shard, readWatermarkRepository::findByUserIdGreaterThanOrderByUserIdAsc, ReadWatermark::getUserId,
+                    ReadWatermark::getUserId, readWatermarkRepository::deleteAllByIdInBatch);
+            log.info("Cleaned up shard [{}]: {} preferences, {} notifications, {} read watermarks of users it no longer owns deleted",
+                    shard, preferences, notifications, watermarks);
+            deleted += preferences + notifications + watermarks;
+        }
+        return deleted;
+    }
+
+    // Runs after the copy committed: a delete that lands later is dual-written to the target and sees the copied row.
+    private void deleteRemovedFromSource(String source, String target, List<Notification> copied) {
+        List<UUID> ids = copied.stream().map(Notification::getId).toList();
+        Set<UUID> remaining = new HashSet<>();
+        shardRouter.onShard(source, () -> notificationRepository.findAllById(ids))
+                .forEach(notification -> remaining.add(notification.getId()));
+
+        List<UUID> removed = ids.stream().filter(id -> !remaining.contains(id)).toList();
+        if (!removed.isEmpty()) {
+            shardRouter.inTransactionOn(target, () -> {
+                notificationRepository.deleteAllByIdInBatch(removed);
+                return null;
+            });
+        }
+    }
+
+    private void copyPreferences(List<NotificationPreference> preferences) {
+        Map<UUID, LocalDateTime> existing = new HashMap<>();
+        preferenceRepository.findAllByUserIdIn(preferences.stream().map(NotificationPreference::getUserId).toList())
+                .forEach(preference -> existing.put(preference.getUserId(), preference.getUpdatedOn()));
+
+        List<NotificationPreference> stale = preferences.stream()
+                .filter(preference -> {
+                    LocalDateTime version = existing.get(preference.getUserId());
+                    return version == null || version.isBefore(preference.getUpdatedOn());
+                })
+                .toList();
+        if (!stale.isEmpty()) {
+            preferenceRepository.upsertAll(stale);
+        }
+    }
+
+    private void copyWatermarks(List<ReadWatermark> watermarks) {
+        watermarks.forEach(watermark -> readWatermarkRepository.advance(watermark.getUserId(), watermark.getReadUpTo()));
+    }
+
+    private <T> long copy(String source,
+                          BiFunction<UUID, PageRequest, List<T>> page,
+                          Function<T, UUID> idOf,
+                          Function<T, UUID> userIdOf,
+                          Consumer<List<T>> writer) {
+        return copy(source, page, idOf, userIdOf, writer, (target, rows) -> {
+        });
+    }
+
+    private <T> long copy(String source,
+                          BiFunction<UUID, PageRequest, List<T>> page,
+                          Function<T, UUID> idOf,
+                          Function<T, UUID> userIdOf,
+                          Consumer<List<T>> writer,
+                          BiConsumer<String, List<T>> afterCopy) {
+        int batchSize = properties.getResharding().getBackfillBatchSize();
+        UUID afterId = FIRST_ID;
+        long copied = 0;
+
+        List<T> rows;
+        do {
+            UUID from = afterId;
+            rows = shardRouter.onShard(source, () -> page.apply(from, PageRequest.of(0, batchSize)));
+
+            Map<String, List<T>> moving = new LinkedHashMap<>();
+            for (T row : rows) {
+                String target = shardRouter.targetOwner(userIdOf.apply(row));
+                if (!target.equals(source)) {
+                    moving.computeIfAbsent(target, shard -> new ArrayList<>()).add(row);
+                }
+            }
+
+            for (Map.Entry<String, List<T>> entry : moving.entrySet()) {
+                shardRouter.inTransactionOn(entry.getKey(), () -> {
+                    writer.accept(entry.getValue());
+                    return null;
+                });
+                afterCopy.accept(entry.getKey(), entry.getValue());
+                copied += entry.getValue().size();
+            }
+
+            if (!rows.isEmpty()) {
+                afterId = idOf.apply(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == batchSize);
+
+        return copied;
+    }
+
+    private <T> long deleteMoved(String shard,
+                                 BiFunction<UUID, PageRequest, List<T>> page,
+                                 Function<T, UUID> idOf,
+                                 Function<T, UUID> userIdOf,
+                                 Consumer<List<UUID>> deleter) {
+        int batchSize = properties.getResharding().getBackfillBatchSize();
+        UUID afterId = FIRST_ID;
+        long deleted = 0;
+
+        List<T> rows;
+        do {
+            UUID from = afterId;
+            rows = shardRouter.onShard(shard, () -> page.apply(from, PageRequest.of(0, batchSize)));
+
+            List<UUID> moved = rows.stream()
+                    .filter(row -> !shardRouter.currentOwner(userIdOf.apply(row)).equals(shard))
+                    .map(idOf)
+                    .toList();
+            if (!moved.isEmpty()) {
+                shardRouter.inTransactionOn(shard, () -> {
+                    deleter.accept(moved);
+                    return null;
+                });
+                deleted += moved.size();
+            }
+
+            if (!rows.isEmpty()) {
+                afterId = idOf.apply(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == batchSize);
+
+        return deleted;
+    }
+}
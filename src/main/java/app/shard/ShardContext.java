@@ -0,0 +1,29 @@
+package app.shard;
+
+import java.util.function.Supplier;
+
+final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    static <T> T callOn(String shard, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
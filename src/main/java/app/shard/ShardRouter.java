@@ -0,0 +1,200 @@
+package app.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a user's notifications and preferences and binds it for the duration of a unit of
+ * work, so the routing data source hands out a connection of that shard. Writes run in their own transaction,
+ * started after the shard is bound.
+ * <p>
+ * While {@code resharding.target-ring} is set, every write goes to the authoritative owner first and is then
+ * replayed on the user's owner in the target ring if that differs. Reads stay on the current ring until
+ * {@code resharding.read-from-target} flips them, after {@link ShardBackfill} has copied the existing rows.
+ * A failed replay does not fail the request; the backfill repairs it.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    static final String SINGLE_SHARD = "default";
+
+    private final ConsistentHashRing ring;
+    private final ConsistentHashRing targetRing;
+    private final boolean readFromTarget;
+    private final TransactionOperations transactions;
+    private final LongAdder replicaFailures = new LongAdder();
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this(properties, new TransactionTemplate(transactionManager));
+    }
+
+    public ShardRouter(ShardingProperties properties, TransactionOperations transactions) {
+        this.transactions = transactions;
+
+        if (!properties.isEnabled()) {
+            this.ring = new ConsistentHashRing(List.of(SINGLE_SHARD), 1);
+            this.targetRing = null;
+            this.readFromTarget = false;
+            return;
+        }
+
+        ShardingProperties.Resharding resharding = properties.getResharding();
+        validate(properties);
+        this.ring = new ConsistentHashRing(properties.getRing(), properties.getVirtualNodes());
+        this.targetRing = resharding.getTargetRing().isEmpty() ? null : new ConsistentHashRing(resharding.getTargetRing(), properties.getVirtualNodes());
+        this.readFromTarget = targetRing != null && resharding.isReadFromTarget();
+    }
+
+    public <T> T read(UUID userId, Supplier<T> work) {
+        return ShardContext.callOn(owner(userId), work);
+    }
+
+    public <T> List<T> readAll(Collection<UUID> userIds, Function<List<UUID>, List<T>> work) {
+        Map<String, List<UUID>> byShard = group(userIds, Function.identity(), this::owner);
+        if (byShard.size() == 1) {
+            Map.Entry<String, List<UUID>> only = byShard.entrySet().iterator().next();
+            return ShardContext.callOn(only.getKey(), () -> work.apply(only.getValue()));
+        }
+
+        List<T> results = new ArrayList<>();
+        byShard.forEach((shard, chunk) -> results.addAll(ShardContext.callOn(shard, () -> work.apply(chunk))));
+        return results;
+    }
+
+    public <T> T write(UUID userId, Supplier<T> primary, Consumer<T> replica) {
+        String owner = owner(userId);
+        T result = ShardContext.callOn(owner, () -> transactions.execute(status -> primary.get()));
+
+        String other = replicaOf(userId, owner);
+        if (other != null) {
+            replay(other, 1, () -> replica.accept(result));
+        }
+
+        return result;
+    }
+
+    public <T> void writeAll(Collection<T> items, Function<T, UUID> userIdOf, Consumer<List<T>> primary, Consumer<List<T>> replica) {
+        group(items, userIdOf, this::owner).forEach((shard, chunk) ->
+                ShardContext.callOn(shard, () -> transactions.execute(status -> {
+                    primary.accept(chunk);
+                    return null;
+                })));
+
+        if (targetRing != null) {
+            group(items, userIdOf, userId -> replicaOf(userId, owner(userId))).forEach((shard, chunk) -> {
+                if (shard != null) {
+                    replay(shard, chunk.size(), () -> replica.accept(chunk));
+                }
+            });
+        }
+    }
+
+    public <T> T onShard(String shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, work);
+    }
+
+    public <T> T inTransactionOn(String shard, Supplier<T> work) {
+        return ShardContext.callOn(shard, () -> transactions.execute(status -> work.get()));
+    }
+
+    public Set<String> shards() {
+        Set<String> shards = new LinkedHashSet<>(ring.members());
+        if (targetRing != null) {
+            shards.addAll(targetRing.members());
+        }
+        return shards;
+    }
+
+    public Set<String> sourceShards() {
+        return ring.members();
+    }
+
+    public boolean isResharding() {
+        return targetRing != null;
+    }
+
+    public String currentOwner(UUID userId) {
+        return ring.shardFor(userId);
+    }
+
+    public String targetOwner(UUID userId) {
+        return targetRing != null ? targetRing.shardFor(userId) : ring.shardFor(userId);
+    }
+
+    public long replicaFailures() {
+        return replicaFailures.sum();
+    }
+
+    static String homeShard(ShardingProperties properties) {
+        return properties.getRing().isEmpty() ? null : properties.getRing().get(0);
+    }
+
+    private String owner(UUID userId) {
+        return readFromTarget ? targetRing.shardFor(userId) : ring.shardFor(userId);
+    }
+
+    private String replicaOf(UUID userId, String owner) {
+        if (targetRing == null) {
+            return null;
+        }
+
+        String other = readFromTarget ? ring.shardFor(userId) : targetRing.shardFor(userId);
+        return other.equals(owner) ? null : other;
+    }
+
+    private void replay(String shard, int rows, Runnable replica) {
+        try {
+            ShardContext.callOn(shard, () -> transactions.execute(status -> {
+                replica.run();
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            replicaFailures.increment();
+            log.warn("Dual write of {} rows to shard [{}] failed, backfill will repair it: {}", rows, shard, e.getMessage());
+        }
+    }
+
+    private static <T> Map<String, List<T>> group(Collection<T> items, Function<T, UUID> userIdOf, Function<UUID, String> shardOf) {
+        Map<String, List<T>> byShard = new LinkedHashMap<>();
+        for (T item : items) {
+            byShard.computeIfAbsent(shardOf.apply(userIdOf.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return byShard;
+    }
+
+    private static void validate(ShardingProperties properties) {
+        List<String> ring = properties.getRing();
+        List<String> targetRing = properties.getResharding().getTargetRing();
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("notifications.sharding.ring must name at least one shard");
+        }
+
+        for (String member : concat(ring, targetRing)) {
+            if (!properties.getShards().containsKey(member)) {
+                throw new IllegalStateException("Shard [%s] is in the ring but has no notifications.sharding.shards entry".formatted(member));
+            }
+        }
+
+        if (!targetRing.isEmpty() && !targetRing.get(0).equals(ring.get(0))) {
+            throw new IllegalStateException("The target ring must keep [%s] as its first (home) shard".formatted(ring.get(0)));
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
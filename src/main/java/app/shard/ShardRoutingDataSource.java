@@ -0,0 +1,29 @@
+package app.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Hands out connections of the shard bound by {@link ShardRouter} on the calling thread. Unbound work, such as
+ * the scheduler's queue and Flyway's history table, runs on the first shard of the ring.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        getResolvedDataSources().values().forEach(ShardRoutingDataSource::closeQuietly);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package app.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "notifications.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties, Environment environment) {
+        // The shard pools are built here rather than by Boot, so the shared driver settings (e.g. the tuned
+        // profile's rewriteBatchedStatements) have to be carried over by hand. A shard's own entries win.
+        Map<String, String> shared = Binder.get(environment)
+                .bind("spring.datasource.hikari.data-source-properties", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> targets.put(name, shardDataSource(name, shard, shared)));
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(targets);
+        dataSource.setDefaultTargetDataSource(targets.get(ShardRouter.homeShard(properties)));
+        dataSource.setLenientFallback(false);
+        return dataSource;
+    }
+
+    // Boot's Flyway only sees the routing data source, i.e. the home shard; every shard needs the same schema.
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(DataSource dataSource) {
+        return flyway -> ((ShardRoutingDataSource) dataSource).getResolvedDataSources().values().forEach(shard ->
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate());
+    }
+
+    private static DataSource shardDataSource(String name, ShardingProperties.Shard shard, Map<String, String> shared) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+        dataSource.setPoolName("shard-" + name);
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        shared.forEach(dataSource::addDataSourceProperty);
+        shard.getDataSourceProperties().forEach(dataSource::addDataSourceProperty);
+        return dataSource;
+    }
+}
@@ -0,0 +1,53 @@
+package app.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private int virtualNodes = 160;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    private List<String> ring = new ArrayList<>();
+
+    private Resharding resharding = new Resharding();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        // Driver properties for this shard only, on top of spring.datasource.hikari.data-source-properties.*
+        private Map<String, String> dataSourceProperties = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Resharding {
+
+        private List<String> targetRing = new ArrayList<>();
+
+        private boolean readFromTarget = false;
+
+        private boolean backfillOnStartup = false;
+
+        private int backfillBatchSize = 500;
+
+        private boolean cleanupOnStartup = false;
+    }
+}
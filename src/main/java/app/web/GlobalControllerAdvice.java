@@ -1,5 +1,9 @@
 package app.web;
 
+import app.channel.ChannelSaturatedException;
+import app.lifecycle.ShuttingDownException;
+import app.limit.ConcurrencyLimitExceededException;
+import app.preference.InvalidPreferenceException;
 import app.web.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +15,20 @@ import java.time.LocalDateTime;
 @ControllerAdvice
 public class GlobalControllerAdvice {
 
+    @ExceptionHandler({ShuttingDownException.class, ChannelSaturatedException.class, ConcurrencyLimitExceededException.class})
+    public ResponseEntity<ErrorResponse> handleUnavailable(RuntimeException e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidPreferenceException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPreference(InvalidPreferenceException e) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), e.getMessage());
@@ -4,11 +4,13 @@ import app.model.Notification;
 import app.service.NotificationService;
 import app.web.dto.NotificationRequest;
 import app.web.dto.NotificationResponse;
+import app.web.dto.ReadRequest;
 import app.web.mapper.DtoMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +20,10 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/v1/notifications")
 public class NotificationController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_READ_IDS = 1000;
+
     private final NotificationService notificationService;
 
     public NotificationController(NotificationService notificationService) {
@@ -27,20 +33,60 @@ public class NotificationController {
     @PostMapping
     public ResponseEntity<NotificationResponse> sendNotification(@RequestBody NotificationRequest notificationRequest) {
 
-        Notification notification = notificationService.sendNotification(notificationRequest);
+        List<Notification> outcomes = notificationService.sendNotification(notificationRequest);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.from(notification));
+        return ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.fromOutcomes(outcomes));
     }
 
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getHistory(@RequestParam("userId") UUID userId) {
+    public ResponseEntity<List<NotificationResponse>> getHistory(@RequestParam("userId") UUID userId,
+                                                                 @RequestParam(value = "page", required = false) Integer page,
+                                                                 @RequestParam(value = "size", required = false) Integer size,
+                                                                 @RequestParam(value = "unread", required = false) boolean unread) {
+        if (page != null || size != null || unread) {
+            int pageNumber = page == null ? 0 : Math.max(0, page);
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(unread
+                    ? notificationService.getUnreadPage(userId, pageNumber, pageSize)
+                    : notificationService.getHistoryPage(userId, pageNumber, pageSize));
+        }
+
         List<Notification> notifications = notificationService.getHistory(userId);
-        List<NotificationResponse> responses = notifications.stream().map(DtoMapper::from)
+        LocalDateTime readUpTo = notificationService.getReadUpTo(userId);
+        List<NotificationResponse> responses = notifications.stream().map(notification -> DtoMapper.from(notification, readUpTo))
                 .sorted(Comparator.comparing(NotificationResponse::getCreatedOn).reversed()).collect(Collectors.toList());
 
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<NotificationResponse>> search(@RequestParam("userId") UUID userId,
+                                                             @RequestParam("q") String query,
+                                                             @RequestParam(value = "page", required = false) Integer page,
+                                                             @RequestParam(value = "size", required = false) Integer size) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        return ResponseEntity.ok(notificationService.search(userId, query, pageNumber, pageSize));
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<Void> markRead(@RequestBody ReadRequest readRequest) {
+        boolean hasIds = readRequest.getIds() != null && !readRequest.getIds().isEmpty();
+        if (readRequest.getUserId() == null || !hasIds && readRequest.getUpTo() == null
+                || hasIds && readRequest.getIds().size() > MAX_READ_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        notificationService.markRead(readRequest);
+
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/history")
     public ResponseEntity<Void> deleteHistory(@RequestParam("userId") UUID userId) {
         notificationService.deleteHistory(userId);
@@ -1,38 +1,120 @@
 package app.web;
 
 import app.model.NotificationPreference;
+import app.preference.InvalidPreferenceException;
 import app.service.PreferenceService;
+import app.web.dto.PreferenceImportResponse;
 import app.web.dto.PreferenceRequest;
 import app.web.dto.PreferenceResponse;
 import app.web.mapper.DtoMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/v1/preferences")
 public class PreferenceController {
 
     private final PreferenceService preferenceService;
+    private final ObjectMapper objectMapper;
+    private final int bulkBatchSize;
 
-    public PreferenceController(PreferenceService preferenceService) {
+    public PreferenceController(PreferenceService preferenceService,
+                                ObjectMapper objectMapper,
+                                @Value("${notifications.preferences.bulk-batch-size:500}") int bulkBatchSize) {
         this.preferenceService = preferenceService;
+        this.objectMapper = objectMapper;
+        this.bulkBatchSize = bulkBatchSize;
     }
 
     @PostMapping
     public ResponseEntity<PreferenceResponse> upsertPreference(@RequestBody PreferenceRequest preferenceRequest) {
-
         NotificationPreference notificationPreference = preferenceService.upsert(preferenceRequest);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(DtoMapper.from(notificationPreference));
     }
 
+    // Batches are committed as they fill up. A malformed or invalid element stops the import with a 400 that
+    // reports how many rows the earlier batches committed; the element's own batch is not written.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PreferenceImportResponse> bulkUpsertPreferences(HttpServletRequest request) throws IOException {
+        int imported = 0;
+        int batches = 0;
+        int elements = 0;
+        List<PreferenceRequest> batch = new ArrayList<>(bulkBatchSize);
+
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return rejected(imported, batches, "Bulk preference import expects a JSON array");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                batch.add(parser.readValueAs(PreferenceRequest.class));
+                elements++;
+
+                if (batch.size() == bulkBatchSize) {
+                    imported += preferenceService.upsertAll(batch);
+                    batches++;
+                    batch.clear();
+                }
+            }
+
+            if (token != JsonToken.END_ARRAY) {
+                return rejected(imported, batches, "Element %d of the bulk preference import is not a JSON object".formatted(elements + 1));
+            }
+            if (parser.nextToken() != null) {
+                return rejected(imported, batches, "Unexpected content after the bulk preference array");
+            }
+
+            if (!batch.isEmpty()) {
+                imported += preferenceService.upsertAll(batch);
+                batches++;
+            }
+        } catch (JsonProcessingException e) {
+            return rejected(imported, batches, "Element %d of the bulk preference import is not valid: %s".formatted(elements + 1, e.getOriginalMessage()));
+        } catch (InvalidPreferenceException e) {
+            return rejected(imported, batches, e.getMessage());
+        }
+
+        PreferenceImportResponse response = PreferenceImportResponse.builder()
+                .imported(imported)
+                .batches(batches)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<Map<UUID, PreferenceResponse>> lookupPreferences(@RequestBody List<UUID> userIds) {
+        Map<UUID, PreferenceResponse> responses = new LinkedHashMap<>();
+        preferenceService.getByUserIds(userIds).forEach((userId, preference) -> responses.put(userId, DtoMapper.from(preference)));
+
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping
     public ResponseEntity<PreferenceResponse> getPreferenceForUser(@RequestParam("userId") UUID userId) {
         NotificationPreference preference = preferenceService.getByUserId(userId);
 
         return ResponseEntity.ok(DtoMapper.from(preference));
     }
+
+    private static ResponseEntity<PreferenceImportResponse> rejected(int imported, int batches, String error) {
+        return ResponseEntity.badRequest().body(PreferenceImportResponse.builder()
+                .imported(imported)
+                .batches(batches)
+                .error(error)
+                .build());
+    }
 }
@@ -4,10 +4,12 @@ import app.model.NotificationType;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class NotificationRequest {
 
     private UUID userId;
@@ -17,4 +19,8 @@ public class NotificationRequest {
     private String body;
 
     private NotificationType type;
+
+    private Set<String> channels;
+
+    private LocalDateTime scheduledFor;
 }
@@ -5,11 +5,15 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Data
 @Builder
 public class NotificationResponse {
 
+    private UUID id;
+
     private String subject;
 
     private LocalDateTime createdOn;
@@ -18,4 +22,11 @@ public class NotificationResponse {
 
     private NotificationType type;
 
+    private boolean read;
+
+    private LocalDateTime readAt;
+
+    // Only set when sending: the outcome of each channel the notification went to.
+    private List<DeliveryResponse> deliveries;
+
 }
@@ -0,0 +1,17 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PreferenceImportResponse {
+
+    private int imported;
+
+    private int batches;
+
+    // Set when the import stopped early; the batches counted above stay committed.
+    private String error;
+
+}
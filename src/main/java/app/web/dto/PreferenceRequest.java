@@ -3,6 +3,7 @@ package app.web.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.LocalTime;
 import java.util.UUID;
 
 @Data
@@ -21,4 +22,12 @@ public class PreferenceRequest {
 
     private String email;
 
+    private String webhookUrl;
+
+    private LocalTime quietHoursStart;
+
+    private LocalTime quietHoursEnd;
+
+    private String timeZone;
+
 }
@@ -3,6 +3,8 @@ package app.web.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.LocalTime;
+
 @Data
 @Builder
 public class PreferenceResponse {
@@ -17,4 +19,12 @@ public class PreferenceResponse {
 
     private String email;
 
+    private String webhookUrl;
+
+    private LocalTime quietHoursStart;
+
+    private LocalTime quietHoursEnd;
+
+    private String timeZone;
+
 }
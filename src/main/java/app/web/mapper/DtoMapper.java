@@ -2,10 +2,14 @@ package app.web.mapper;
 
 import app.model.Notification;
 import app.model.NotificationPreference;
+import app.web.dto.DeliveryResponse;
 import app.web.dto.NotificationResponse;
 import app.web.dto.PreferenceResponse;
 import lombok.experimental.UtilityClass;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @UtilityClass
 public class DtoMapper {
 
@@ -13,19 +17,46 @@ public class DtoMapper {
 
         return PreferenceResponse.builder()
                 .email(preference.getEmail())
+                .webhookUrl(preference.getWebhookUrl())
                 .emailNotificationEnabled(preference.isEmailNotificationEnabled())
                 .summaryNotificationEnabled(preference.isSummaryNotificationEnabled())
                 .deadLineNotificationEnabled(preference.isDeadLineNotificationEnabled())
                 .reminderNotificationEnabled(preference.isReminderNotificationEnabled())
+                .quietHoursStart(preference.getQuietHoursStart())
+                .quietHoursEnd(preference.getQuietHoursEnd())
+                .timeZone(preference.getTimeZone())
                 .build();
     }
 
+    public static NotificationResponse fromOutcomes(List<Notification> outcomes) {
+        NotificationResponse response = from(outcomes.get(0));
+        response.setDeliveries(outcomes.stream()
+                .filter(outcome -> outcome.getChannel() != null)
+                .map(outcome -> DeliveryResponse.builder()
+                        .channel(outcome.getChannel())
+                        .id(outcome.getId())
+                        .status(outcome.getStatus())
+                        .build())
+                .toList());
+        return response;
+    }
+
     public static NotificationResponse from(Notification notification) {
+        return from(notification, null);
+    }
+
+    public static NotificationResponse from(Notification notification, LocalDateTime readUpTo) {
+        boolean read = notification.getReadAt() != null
+                || readUpTo != null && notification.getCreatedOn() != null && !notification.getCreatedOn().isAfter(readUpTo);
+
         return NotificationResponse.builder()
+                .id(notification.getId())
                 .subject(notification.getSubject())
                 .createdOn(notification.getCreatedOn())
                 .type(notification.getType())
                 .status(notification.getStatus())
+                .read(read)
+                .readAt(notification.getReadAt())
                 .build();
     }
 }
@@ -0,0 +1,229 @@
+package app.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Shared outbound webhook client. One {@link HttpClient} serves every destination, so connections are
+ * reused and HTTP/2 endpoints multiplex requests over a single connection. Each destination has its own
+ * in-flight limit, a queue of at most {@code max-queued-per-destination} calls waiting for it and, when the
+ * batch size is above one, its own batch buffer. A destination is dropped once nothing is outstanding for it.
+ * Cancelling a returned future drops the payload if it has not been posted yet; a request already on the
+ * wire cannot be recalled. Unless {@code allow-private-hosts} is set, the host is resolved right before each post
+ * and the post fails if any address is internal. The HTTP client resolves the host through the same JVM address
+ * cache, so it connects to the addresses that were checked, unless the cache entry expires in between.
+ */
+@Slf4j
+public class WebhookClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final WebhookProperties properties;
+    private final WebhookSigner signer;
+    private final int batchSize;
+    private final WebhookUrls.HostResolver resolver;
+    private final ScheduledExecutorService lingerScheduler;
+    private final Map<URI, Destination> destinations = new ConcurrentHashMap<>();
+
+    public WebhookClient(ObjectMapper objectMapper, WebhookProperties properties) {
+        this(objectMapper, properties, InetAddress::getAllByName);
+    }
+
+    WebhookClient(ObjectMapper objectMapper, WebhookProperties properties, WebhookUrls.HostResolver resolver) {
+        this.objectMapper = objectMapper;
+        this.resolver = resolver;
+        this.properties = properties;
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.signer = properties.getSigningSecret() == null || properties.getSigningSecret().isBlank()
+                ? null
+                : new WebhookSigner(properties.getSigningSecret());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-batch-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Integer> send(URI endpoint, Object payload) {
+        Destination destination = destinations.compute(endpoint, (uri, existing) -> {
+            Destination target = existing == null ? new Destination(uri) : existing;
+            target.outstanding++;
+            return target;
+        });
+
+        CompletableFuture<Integer> result = destination.enqueue(payload);
+        result.whenComplete((status, error) -> destinations.computeIfPresent(endpoint, (uri, target) -> --target.outstanding == 0 ? null : target));
+        return result;
+    }
+
+    int destinationCount() {
+        return destinations.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        destinations.values().forEach(Destination::flush);
+        lingerScheduler.shutdown();
+    }
+
+    private final class Destination {
+
+        private final URI endpoint;
+        private final ArrayDeque<List<Pending>> waiting = new ArrayDeque<>();
+        private List<Pending> batch = new ArrayList<>();
+        private ScheduledFuture<?> lingerTask;
+        private int inFlight;
+        // Payloads not yet completed; only changed inside destinations.compute, which serializes access per endpoint.
+        private int outstanding;
+
+        private Destination(URI endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private CompletableFuture<Integer> enqueue(Object payload) {
+            Pending pending = new Pending(payload, new CompletableFuture<>());
+
+            if (batchSize == 1) {
+                execute(List.of(pending));
+                return pending.result();
+            }
+
+            List<Pending> ready = null;
+            synchronized (this) {
+                batch.add(pending);
+                if (batch.size() >= batchSize) {
+                    ready = takeBatch();
+                } else if (lingerTask == null) {
+                    lingerTask = lingerScheduler.schedule(this::flush, properties.getBatchLinger().toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (ready != null) {
+                execute(ready);
+            }
+            return pending.result();
+        }
+
+        private void flush() {
+            List<Pending> ready;
+            synchronized (this) {
+                ready = takeBatch();
+            }
+            if (!ready.isEmpty()) {
+                execute(ready);
+            }
+        }
+
+        private List<Pending> takeBatch() {
+            List<Pending> ready = batch;
+            batch = new ArrayList<>();
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            return ready;
+        }
+
+        private void execute(List<Pending> ready) {
+            synchronized (this) {
+                if (inFlight >= properties.getMaxConcurrentPerDestination()) {
+                    if (waiting.size() >= properties.getMaxQueuedPerDestination()) {
+                        waiting.removeIf(queued -> queued.stream().allMatch(pending -> pending.result().isDone()));
+                    }
+                    if (waiting.size() >= properties.getMaxQueuedPerDestination()) {
+                        RejectedExecutionException full = new RejectedExecutionException("Webhook queue for [%s] is full".formatted(endpoint));
+                        ready.forEach(pending -> pending.result().completeExceptionally(full));
+                        return;
+                    }
+                    waiting.add(ready);
+                    return;
+                }
+                inFlight++;
+            }
+            post(ready);
+        }
+
+        private void release() {
+            List<Pending> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            post(next);
+        }
+
+        private void post(List<Pending> candidates) {
+            // Callers that timed out while this call was queued have cancelled their futures.
+            List<Pending> ready = candidates.stream().filter(pending -> !pending.result().isDone()).toList();
+            if (ready.isEmpty()) {
+                release();
+                return;
+            }
+
+            HttpRequest request;
+            try {
+                if (!properties.isAllowPrivateHosts()) {
+                    WebhookUrls.checkResolved(endpoint, resolver);
+                }
+                request = buildRequest(ready);
+            } catch (IOException | IllegalArgumentException e) {
+                ready.forEach(pending -> pending.result().completeExceptionally(e));
+                release();
+                return;
+            }
+
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        release();
+                        for (Pending pending : ready) {
+                            if (error != null) {
+                                pending.result().completeExceptionally(error);
+                            } else {
+                                pending.result().complete(response.statusCode());
+                            }
+                        }
+                    });
+        }
+
+        private HttpRequest buildRequest(List<Pending> ready) throws IOException {
+            Object body = batchSize == 1 ? ready.get(0).payload() : ready.stream().map(Pending::payload).toList();
+            byte[] json = objectMapper.writeValueAsBytes(body);
+
+            HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint)
+                    .timeout(properties.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json));
+
+            if (signer != null) {
+                long timestamp = System.currentTimeMillis() / 1000;
+                builder.header(WebhookSigner.TIMESTAMP_HEADER, Long.toString(timestamp));
+                builder.header(WebhookSigner.SIGNATURE_HEADER, signer.sign(timestamp, json));
+            }
+
+            return builder.build();
+        }
+    }
+
+    private record Pending(Object payload, CompletableFuture<Integer> result) {
+    }
+}
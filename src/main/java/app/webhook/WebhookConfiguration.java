@@ -0,0 +1,14 @@
+package app.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebhookConfiguration {
+
+    @Bean
+    public WebhookClient webhookClient(ObjectMapper objectMapper, WebhookProperties webhookProperties) {
+        return new WebhookClient(objectMapper, webhookProperties);
+    }
+}
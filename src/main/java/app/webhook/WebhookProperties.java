@@ -0,0 +1,29 @@
+package app.webhook;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notifications.webhook")
+public class WebhookProperties {
+
+    private String signingSecret;
+
+    private int maxConcurrentPerDestination = 4;
+
+    private int maxQueuedPerDestination = 100;
+
+    // Lets preferences point webhooks at loopback and private addresses, for local development.
+    private boolean allowPrivateHosts = false;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    // Above 1, notifications for the same endpoint are posted together as a JSON array. Only webhooks batch.
+    private int batchSize = 1;
+
+    private Duration batchLinger = Duration.ofMillis(50);
+}
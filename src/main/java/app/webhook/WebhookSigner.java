@@ -0,0 +1,34 @@
+package app.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+public class WebhookSigner {
+
+    public static final String SIGNATURE_HEADER = "X-Notification-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Notification-Timestamp";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public WebhookSigner(String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    // Signs "<timestamp>.<body>" so a captured request cannot be replayed with a fresh timestamp.
+    public String sign(long timestamp, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(Long.toString(timestamp).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) '.');
+            return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign webhook payload", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package app.webhook;
+
+import lombok.experimental.UtilityClass;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Rules for user-supplied webhook endpoints: http or https, a host, no credentials, and unless
+ * {@code allow-private-hosts} is set, no internal targets. {@link #validate} runs when a preference is stored
+ * and only checks literal addresses and reserved names. {@link #checkResolved} runs before every post and
+ * checks every address the host name resolves to, so a public name pointing at an internal address is refused.
+ */
+@UtilityClass
+public class WebhookUrls {
+
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    @FunctionalInterface
+    public interface HostResolver {
+
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    public static URI validate(String url, boolean allowPrivateHosts) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Webhook URL [%s] is not a valid URI".formatted(url));
+        }
+
+        String scheme = uri.getScheme();
+        if (scheme == null || !scheme.equalsIgnoreCase("https") && !scheme.equalsIgnoreCase("http")) {
+            throw new IllegalArgumentException("Webhook URL [%s] must use http or https".formatted(url));
+        }
+        if (uri.getHost() == null || uri.getHost().isBlank()) {
+            throw new IllegalArgumentException("Webhook URL [%s] has no host".formatted(url));
+        }
+        if (uri.getRawUserInfo() != null) {
+            throw new IllegalArgumentException("Webhook URL [%s] must not carry credentials".formatted(url));
+        }
+        if (!allowPrivateHosts && isPrivate(uri.getHost())) {
+            throw new IllegalArgumentException("Webhook URL [%s] points at a private or loopback host".formatted(url));
+        }
+
+        return uri;
+    }
+
+    /**
+     * Resolves the endpoint's host and rejects it if any of its addresses is internal.
+     */
+    public static void checkResolved(URI endpoint, HostResolver resolver) throws UnknownHostException {
+        String host = endpoint.getHost();
+        if (host.startsWith("[")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        for (InetAddress address : resolver.resolve(host)) {
+            if (isInternal(address)) {
+                throw new IllegalArgumentException("Webhook host [%s] resolves to internal address %s".formatted(endpoint.getHost(), address.getHostAddress()));
+            }
+        }
+    }
+
+    private static boolean isPrivate(String host) {
+        String name = host.toLowerCase(Locale.ROOT);
+        if (name.equals("localhost") || name.endsWith(".localhost") || name.endsWith(".local") || name.endsWith(".internal")) {
+            return true;
+        }
+
+        boolean ipv6 = name.startsWith("[");
+        if (!ipv6 && !IPV4_LITERAL.matcher(name).matches()) {
+            return false;
+        }
+
+        try {
+            // A literal is parsed without a DNS lookup.
+            return isInternal(InetAddress.getByName(ipv6 ? name.substring(1, name.length() - 1) : name));
+        } catch (UnknownHostException e) {
+            return true;
+        }
+    }
+
+    // Loopback, unspecified, RFC 1918, link-local (incl. cloud metadata), multicast, CGNAT 100.64/10 and ULA fc00::/7.
+    static boolean isInternal(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        boolean uniqueLocal = bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc;
+        boolean carrierGradeNat = bytes.length == 4 && (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64;
+        boolean thisNetwork = bytes.length == 4 && bytes[0] == 0;
+        return address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isSiteLocalAddress()
+                || address.isLinkLocalAddress() || address.isMulticastAddress() || uniqueLocal || carrierGradeNat || thisNetwork;
+    }
+}
@@ -0,0 +1,44 @@
+CREATE TABLE IF NOT EXISTS notifications
+(
+    id         BINARY(16)   NOT NULL,
+    subject    VARCHAR(255) NOT NULL,
+    body       VARCHAR(255) NOT NULL,
+    created_on DATETIME(6)  NOT NULL,
+    status     VARCHAR(32),
+    type       VARCHAR(32)  NOT NULL,
+    user_id    BINARY(16),
+    deleted    BIT          NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS notification_preference
+(
+    id                             BINARY(16)  NOT NULL,
+    user_id                        BINARY(16)  NOT NULL,
+    email_notification_enabled     BIT         NOT NULL,
+    dead_line_notification_enabled BIT         NOT NULL,
+    summary_notification_enabled   BIT         NOT NULL,
+    reminder_notification_enabled  BIT         NOT NULL,
+    email                          VARCHAR(255),
+    webhook_url                    VARCHAR(255),
+    created_on                     DATETIME(6) NOT NULL,
+    updated_on                     DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_notification_preference_user_id UNIQUE (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS scheduled_notifications
+(
+    id         BINARY(16)   NOT NULL,
+    user_id    BINARY(16)   NOT NULL,
+    subject    VARCHAR(255) NOT NULL,
+    body       VARCHAR(255) NOT NULL,
+    type       VARCHAR(32)  NOT NULL,
+    channels   VARCHAR(255),
+    due_at     DATETIME(6)  NOT NULL,
+    state      VARCHAR(32)  NOT NULL,
+    created_on DATETIME(6)  NOT NULL,
+    claimed_on DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_scheduled_state_due (state, due_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,16 @@
+-- Databases created by the old ddl-auto=update setup have MySQL ENUM columns, which reject new enum
+-- constants, and may predate webhook_url. Both statements are no-ops on a schema created by V1.
+ALTER TABLE notifications MODIFY status VARCHAR(32);
+ALTER TABLE notifications MODIFY type VARCHAR(32) NOT NULL;
+
+SET @add_webhook_url = IF(
+        (SELECT COUNT(*)
+         FROM information_schema.columns
+         WHERE table_schema = DATABASE()
+           AND table_name = 'notification_preference'
+           AND column_name = 'webhook_url') = 0,
+        'ALTER TABLE notification_preference ADD COLUMN webhook_url VARCHAR(255)',
+        'SELECT 1');
+PREPARE add_webhook_url FROM @add_webhook_url;
+EXECUTE add_webhook_url;
+DEALLOCATE PREPARE add_webhook_url;
@@ -0,0 +1 @@
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_on);
@@ -0,0 +1 @@
+CREATE INDEX idx_notification_preference_updated_on ON notification_preference (updated_on, user_id);
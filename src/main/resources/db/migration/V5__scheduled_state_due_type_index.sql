@@ -0,0 +1,2 @@
+CREATE INDEX idx_scheduled_state_due_type ON scheduled_notifications (state, due_at, type);
+DROP INDEX idx_scheduled_state_due ON scheduled_notifications;
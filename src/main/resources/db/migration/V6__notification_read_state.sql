@@ -0,0 +1,9 @@
+ALTER TABLE notifications ADD COLUMN read_at DATETIME(6) NULL;
+CREATE INDEX idx_notifications_user_unread ON notifications (user_id, read_at, created_on);
+
+CREATE TABLE IF NOT EXISTS notification_read_watermark
+(
+    user_id    BINARY(16)  NOT NULL,
+    read_up_to DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
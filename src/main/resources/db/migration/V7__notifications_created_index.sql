@@ -0,0 +1 @@
+CREATE INDEX idx_notifications_created ON notifications (created_on);
@@ -0,0 +1,12 @@
+-- Search is always scoped to one user, but a FULLTEXT index can't be combined with user_id. Each word in
+-- search_text is prefixed with a token derived from the user id (the first 8 bytes of user_id in hex, see
+-- NotificationService.searchToken), so a search term only reaches that user's rows in the index and its cost
+-- grows with the user's history, not with how common the word is across all users.
+--
+-- Adding a stored generated column and the table's first FULLTEXT index rebuilds notifications with a table
+-- copy, and writes to it wait until the copy finishes. On a large table, run this in a low-traffic window.
+ALTER TABLE notifications
+    ADD COLUMN search_text TEXT AS (
+        REGEXP_REPLACE(CONCAT(subject, ' ', body), '([[:alnum:]]+)', CONCAT(LOWER(HEX(LEFT(user_id, 8))), '$1'))
+        ) STORED,
+    ADD FULLTEXT INDEX idx_notifications_fulltext (search_text);
@@ -0,0 +1,4 @@
+ALTER TABLE notification_preference
+    ADD COLUMN quiet_hours_start TIME        NULL,
+    ADD COLUMN quiet_hours_end   TIME        NULL,
+    ADD COLUMN time_zone         VARCHAR(64) NULL;
@@ -8,6 +8,7 @@ import app.repository.NotificationRepository;
 import app.service.NotificationService;
 import app.service.PreferenceService;
 import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,8 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -61,9 +64,10 @@ public class NotificationITest {
                 .userId(userId)
                 .subject("Subject")
                 .body("body")
+                .type(NotificationType.EMAIL)
                 .build();
 
-        Notification saved = notificationService.sendEmail(request);
+        Notification saved = notificationService.sendNotification(request).get(0);
 
         assertThat(saved.getId()).isNotNull();
         assertThat(saved.getStatus()).isEqualTo(NotificationStatus.SUCCEEDED);
@@ -92,10 +96,11 @@ public class NotificationITest {
                 .userId(userId)
                 .subject("Subject")
                 .body("Body")
+                .type(NotificationType.EMAIL)
                 .build();
 
         assertThrows(IllegalStateException.class, () -> {
-            notificationService.sendEmail(request);
+            notificationService.sendNotification(request);
         });
 
         assertEquals(0, notificationRepository.findAllByUserId(userId).size());
@@ -122,9 +127,10 @@ public class NotificationITest {
                 .userId(userId)
                 .subject("Subject")
                 .body("Body")
+                .type(NotificationType.EMAIL)
                 .build();
 
-        Notification saved = notificationService.sendEmail(request);
+        Notification saved = notificationService.sendNotification(request).get(0);
 
         assertThat(saved.getStatus()).isEqualTo(NotificationStatus.FAILED);
 
@@ -132,4 +138,27 @@ public class NotificationITest {
         assertThat(result.getStatus()).isEqualTo(NotificationStatus.FAILED);
     }
 
+    @Test
+    void search_whenAnotherUserHasTheSameWords_thenOnlyTheUsersOwnMatchesAreReturned() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        Notification match = notificationRepository.save(stored(userId, "Invoice overdue", "Pay invoice #42 today"));
+        notificationRepository.save(stored(userId, "Weekly summary", "Nothing due"));
+        notificationRepository.save(stored(otherUserId, "Invoice overdue", "Pay invoice #7 today"));
+
+        List<NotificationResponse> results = notificationService.search(userId, "invoic overdue", 0, 20);
+
+        assertEquals(List.of(match.getId()), results.stream().map(NotificationResponse::getId).toList());
+    }
+
+    private static Notification stored(UUID userId, String subject, String body) {
+        return Notification.builder()
+                .userId(userId)
+                .subject(subject)
+                .body(body)
+                .type(NotificationType.REMINDER)
+                .status(NotificationStatus.SUCCEEDED)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
 }
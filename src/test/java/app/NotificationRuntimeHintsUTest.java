@@ -0,0 +1,32 @@
+package app;
+
+import app.model.NotificationPreference;
+import app.web.dto.PreferenceRequest;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationRuntimeHintsUTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void whenRegisterHints_thenStreamParsedDtosAndEntitiesAreReflective() throws Exception {
+        new NotificationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PreferenceRequest.class.getMethod("setWebhookUrl", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(NotificationPreference.class.getDeclaredField("webhookUrl")).test(hints));
+    }
+
+    @Test
+    void whenRegisterHints_thenJavaMailProvidersAndMailcapAreIncluded() {
+        new NotificationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SMTPTransport.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/mailcap").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/javamail.default.providers").test(hints));
+    }
+}
@@ -0,0 +1,139 @@
+package app.admin;
+
+import app.channel.AgeBucket;
+import app.channel.ChannelDispatcher;
+import app.channel.ChannelStats;
+import app.channel.InAppWriteBuffer;
+import app.channel.Priority;
+import app.mail.CircuitState;
+import app.mail.GuardedMailSender;
+import app.mail.SmtpProperties;
+import app.model.NotificationType;
+import app.repository.ScheduledNotificationRepository;
+import app.repository.ScheduledNotificationRepository.TypeCount;
+import app.schedule.ScheduledDeliveryService;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BacklogMonitorUTest {
+
+    @Mock
+    private ScheduledNotificationRepository scheduledNotificationRepository;
+    @Mock
+    private ScheduledDeliveryService scheduledDeliveryService;
+    @Mock
+    private ChannelDispatcher channelDispatcher;
+    @Mock
+    private InAppWriteBuffer writeBuffer;
+    @Mock
+    private GuardedMailSender mailSender;
+
+    private final BacklogProperties properties = new BacklogProperties();
+    private BacklogMonitor backlogMonitor;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxOverduePending(10);
+        properties.setRefreshInterval(Duration.ofMinutes(1));
+        backlogMonitor = new BacklogMonitor(scheduledNotificationRepository, scheduledDeliveryService, channelDispatcher, writeBuffer,
+                mailSender, new SmtpProperties(), new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction()), properties);
+
+        when(scheduledNotificationRepository.countPendingDueBetween(any(), any())).thenReturn(List.of());
+        when(scheduledNotificationRepository.countPendingDueUpTo(any())).thenReturn(List.of());
+        when(scheduledNotificationRepository.findFirstByStateOrderByDueAtAsc(any())).thenReturn(Optional.empty());
+        when(channelDispatcher.stats()).thenReturn(List.of());
+        when(mailSender.getCircuitState()).thenReturn(CircuitState.CLOSED);
+        when(mailSender.getAvailableSendPermits()).thenReturn(10);
+    }
+
+    @Test
+    void whenOverduePendingExceedsThreshold_thenWarnButStayReady() {
+        when(scheduledNotificationRepository.countPendingDueBetween(any(), any()))
+                .thenReturn(List.of(count(NotificationType.EMAIL, 6)))
+                .thenReturn(List.of(count(NotificationType.ALERT, 5)))
+                .thenReturn(List.of());
+
+        BacklogReport report = backlogMonitor.report();
+
+        assertEquals(11, report.getOverduePending());
+        assertEquals(Map.of(AgeBucket.UNDER_1M, 6L), report.getPendingByAge().get(NotificationType.EMAIL));
+        assertEquals(Map.of(AgeBucket.UNDER_5M, 5L), report.getPendingByAge().get(NotificationType.ALERT));
+        assertEquals(1, report.getWarnings().size());
+        assertTrue(backlogMonitor.notReadyReasons(report).isEmpty());
+    }
+
+    @Test
+    void whenSmtpFailureRateCrossesThresholdWithCircuitClosed_thenWarnButStayReady() {
+        when(mailSender.getFailureRate()).thenReturn(0.6);
+
+        BacklogReport report = backlogMonitor.report();
+
+        assertEquals(1, report.getWarnings().size());
+        assertTrue(backlogMonitor.notReadyReasons(report).isEmpty());
+    }
+
+    @Test
+    void whenSmtpCircuitIsOpenOrChannelQueueCrossesThreshold_thenNotReady() {
+        when(mailSender.getCircuitState()).thenReturn(CircuitState.OPEN);
+        when(mailSender.getFailureRate()).thenReturn(0.6);
+        when(channelDispatcher.stats()).thenReturn(List.of(ChannelStats.builder()
+                .channel("email")
+                .queueCapacity(100)
+                .queuedByPriority(Map.of(Priority.CRITICAL, 0, Priority.NORMAL, 5, Priority.BULK, 95))
+                .build()));
+
+        List<String> reasons = backlogMonitor.notReadyReasons(backlogMonitor.report());
+
+        assertEquals(2, reasons.size());
+    }
+
+    @Test
+    void whenNothingIsBehind_thenReady() {
+        BacklogReport report = backlogMonitor.report();
+
+        assertTrue(backlogMonitor.notReadyReasons(report).isEmpty());
+        assertTrue(report.getWarnings().isEmpty());
+    }
+
+    @Test
+    void whenReportIsRequestedWithinRefreshInterval_thenDatabaseIsQueriedOnce() {
+        backlogMonitor.report();
+        backlogMonitor.report();
+
+        verify(scheduledNotificationRepository, times(1)).countPendingDueUpTo(any());
+        verify(scheduledNotificationRepository, times(1)).findFirstByStateOrderByDueAtAsc(any());
+    }
+
+    private static TypeCount count(NotificationType type, long count) {
+        return new TypeCount() {
+            @Override
+            public NotificationType getType() {
+                return type;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
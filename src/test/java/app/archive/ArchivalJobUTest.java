@@ -0,0 +1,69 @@
+package app.archive;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ArchivalJobUTest {
+
+    @TempDir
+    private Path directory;
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+
+    @Test
+    void whenRowIsMarkedReadBetweenReadAndDelete_thenTheArchivedCopyIsRead() {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setRescanInterval(Duration.ZERO);
+        ArchiveStore archiveStore = new ArchiveStore(properties);
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.getShards().put("a", new ShardingProperties.Shard());
+        shardingProperties.setRing(List.of("a"));
+        ShardRouter shardRouter = new ShardRouter(shardingProperties, TransactionOperations.withoutTransaction());
+
+        UUID userId = UUID.randomUUID();
+        Notification unread = notification(userId);
+        LocalDateTime readAt = LocalDateTime.now().withNano(0);
+        Notification readMeanwhile = notification(userId);
+        readMeanwhile.setId(unread.getId());
+        readMeanwhile.setReadAt(readAt);
+        when(notificationRepository.findByCreatedOnBeforeOrderByCreatedOnAsc(any(), any())).thenReturn(List.of(unread));
+        when(notificationRepository.lockAllById(List.of(unread.getId()))).thenReturn(List.of(readMeanwhile));
+
+        long moved = new ArchivalJob(notificationRepository, archiveStore, shardRouter, properties)
+                .archiveShard("a", LocalDateTime.now());
+
+        assertEquals(1, moved);
+        verify(notificationRepository).deleteAllByIdInBatch(List.of(unread.getId()));
+        assertEquals(readAt, new ArchiveStore(properties).find(userId).get(0).getReadAt());
+    }
+
+    private static Notification notification(UUID userId) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .subject("Hello")
+                .body("Body")
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.SUCCEEDED)
+                .createdOn(LocalDateTime.now().minusDays(100))
+                .build();
+    }
+}
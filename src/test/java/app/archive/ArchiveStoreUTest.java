@@ -0,0 +1,138 @@
+package app.archive;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveStoreUTest {
+
+    @TempDir
+    private Path directory;
+
+    private ArchiveProperties properties;
+    private ArchiveStore archiveStore;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setRescanInterval(Duration.ZERO);
+        archiveStore = new ArchiveStore(properties);
+    }
+
+    @Test
+    void whenUserSpansSeveralSegments_thenFindMergesThemNewestFirst() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        archiveStore.append(List.of(notification(userId, "Oldest", now.minusDays(3)), notification(otherUserId, "Other", now.minusDays(3))));
+        archiveStore.append(List.of(notification(userId, "Newest", now.minusDays(1)), notification(userId, "Middle", now.minusDays(2))));
+
+        List<Notification> found = archiveStore.find(userId);
+
+        assertEquals(List.of("Newest", "Middle", "Oldest"), found.stream().map(Notification::getSubject).toList());
+        assertEquals(NotificationStatus.SUCCEEDED, found.get(0).getStatus());
+        assertEquals(userId, found.get(0).getUserId());
+        assertTrue(archiveStore.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void whenSameNotificationIsArchivedTwice_thenFindReturnsItOnce() {
+        Notification notification = notification(UUID.randomUUID(), "Hello", LocalDateTime.now().minusDays(1));
+
+        archiveStore.append(List.of(notification));
+        archiveStore.append(List.of(notification));
+
+        assertEquals(1, archiveStore.find(notification.getUserId()).size());
+    }
+
+    @Test
+    void whenHistoryIsDeleted_thenArchivedNotificationsAreHiddenAcrossRestarts() {
+        UUID userId = UUID.randomUUID();
+        archiveStore.append(List.of(notification(userId, "Hello", LocalDateTime.now().minusDays(1))));
+
+        archiveStore.delete(userId);
+        assertTrue(archiveStore.find(userId).isEmpty());
+
+        archiveStore = new ArchiveStore(properties);
+        assertEquals(1, archiveStore.segmentCount());
+        assertTrue(archiveStore.find(userId).isEmpty());
+    }
+
+    @Test
+    void whenHistoryIsDeletedBeforeItsRowsAreArchived_thenTheyStayHidden() {
+        UUID userId = UUID.randomUUID();
+        Notification pending = notification(userId, "Hello", LocalDateTime.now().minusDays(1));
+
+        archiveStore.delete(userId);
+        archiveStore.append(List.of(pending));
+
+        assertTrue(archiveStore.find(userId).isEmpty());
+    }
+
+    @Test
+    void whenArchivedNotificationIsMarkedRead_thenItStaysReadAcrossRestarts() {
+        UUID userId = UUID.randomUUID();
+        Notification read = notification(userId, "Read", LocalDateTime.now().minusDays(2));
+        Notification unread = notification(userId, "Unread", LocalDateTime.now().minusDays(1));
+        archiveStore.append(List.of(read, unread));
+
+        assertEquals(1, archiveStore.markRead(userId, List.of(read.getId(), UUID.randomUUID()), LocalDateTime.now()));
+        assertEquals(0, archiveStore.markRead(UUID.randomUUID(), List.of(unread.getId()), LocalDateTime.now()));
+
+        archiveStore = new ArchiveStore(properties);
+        List<Notification> found = archiveStore.find(userId);
+        assertNull(found.get(0).getReadAt());
+        assertNotNull(found.get(1).getReadAt());
+    }
+
+    @Test
+    void whenAnotherInstanceWritesASegment_thenItIsPickedUpOnRescan() {
+        UUID userId = UUID.randomUUID();
+        ArchiveStore writer = new ArchiveStore(properties);
+        assertTrue(archiveStore.find(userId).isEmpty());
+
+        writer.append(List.of(notification(userId, "Hello", LocalDateTime.now().minusDays(1))));
+
+        assertEquals(1, archiveStore.find(userId).size());
+    }
+
+    @Test
+    void whenUserIsInFewSegments_thenFindOnlyLooksAtThose() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        archiveStore.append(List.of(notification(userId, "Hello", now.minusDays(3))));
+        for (int i = 0; i < 5; i++) {
+            archiveStore.append(List.of(notification(UUID.randomUUID(), "Other", now.minusDays(2))));
+        }
+
+        assertEquals(6, archiveStore.segmentCount());
+        assertEquals(1, archiveStore.segmentCount(userId));
+        assertEquals(1, new ArchiveStore(properties).segmentCount(userId));
+        assertEquals(1, archiveStore.find(userId).size());
+    }
+
+    private static Notification notification(UUID userId, String subject, LocalDateTime createdOn) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .subject(subject)
+                .body("Body")
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.SUCCEEDED)
+                .createdOn(createdOn)
+                .build();
+    }
+}
@@ -0,0 +1,267 @@
+package app.channel;
+
+import app.lifecycle.ShuttingDownException;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelDispatcherUTest {
+
+    private ChannelDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void whenRequestNamesSeveralChannels_thenFanOutInParallel() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        BiFunction<NotificationRequest, NotificationPreference, Notification> waitForPeer = (request, preference) -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return Notification.builder().subject(request.getSubject()).build();
+        };
+
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, waitForPeer),
+                new StubChannel("in-app", NotificationType.REMINDER, waitForPeer)), properties());
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject("fan-out")
+                .type(NotificationType.REMINDER)
+                .channels(Set.of("email", "in-app"))
+                .build();
+
+        List<Notification> delivered = dispatcher.dispatch(request, new NotificationPreference());
+
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    void whenOneChannelIsStuck_thenOtherChannelsKeepDelivering() {
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> {
+                    await(release);
+                    return new Notification();
+                }),
+                new StubChannel("in-app", NotificationType.REMINDER, (request, preference) -> new Notification())), properties());
+
+        try {
+            NotificationRequest email = NotificationRequest.builder().type(NotificationType.EMAIL).build();
+            Thread stuckCaller = new Thread(() -> dispatcher.dispatch(email, new NotificationPreference()));
+            stuckCaller.start();
+
+            NotificationRequest reminder = NotificationRequest.builder().type(NotificationType.REMINDER).build();
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> dispatcher.dispatch(reminder, new NotificationPreference()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenBulkTrafficOccupiesSharedWorkers_thenAlertIsStillDelivered() {
+        CountDownLatch release = new CountDownLatch(1);
+        ChannelProperties properties = properties();
+        properties.getDefaults().setConcurrency(1);
+        properties.getDefaults().setCriticalConcurrency(1);
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("in-app", NotificationType.SUMMARY, (request, preference) -> {
+                    if (request.getType() == NotificationType.SUMMARY) {
+                        await(release);
+                    }
+                    return new Notification();
+                })), properties);
+
+        try {
+            NotificationRequest digest = NotificationRequest.builder().type(NotificationType.SUMMARY).channels(Set.of("in-app")).build();
+            for (int i = 0; i < 3; i++) {
+                new Thread(() -> dispatcher.dispatch(digest, new NotificationPreference())).start();
+            }
+
+            NotificationRequest alert = NotificationRequest.builder().type(NotificationType.ALERT).channels(Set.of("in-app")).build();
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> dispatcher.dispatch(alert, new NotificationPreference()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenOnlyChannelFails_thenPropagateItsException() {
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> {
+                    throw new IllegalStateException("turned off");
+                })), properties());
+
+        NotificationRequest request = NotificationRequest.builder().type(NotificationType.EMAIL).build();
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(request, new NotificationPreference()));
+        assertEquals(1, dispatcher.stats().get(0).getFailed());
+    }
+
+    @Test
+    void whenOneOfSeveralChannelsFails_thenReportItsOutcomeAlongsideTheOthers() {
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> {
+                    throw new IllegalStateException("turned off");
+                }),
+                new StubChannel("in-app", NotificationType.REMINDER, (request, preference) ->
+                        Notification.builder().status(NotificationStatus.SUCCEEDED).build())), properties());
+
+        NotificationRequest request = NotificationRequest.builder()
+                .type(NotificationType.REMINDER)
+                .channels(new LinkedHashSet<>(List.of("email", "in-app")))
+                .build();
+
+        List<Notification> outcomes = dispatcher.dispatch(request, new NotificationPreference());
+
+        assertEquals(List.of("email", "in-app"), outcomes.stream().map(Notification::getChannel).toList());
+        assertEquals(List.of(NotificationStatus.FAILED, NotificationStatus.SUCCEEDED), outcomes.stream().map(Notification::getStatus).toList());
+    }
+
+    @Test
+    void whenTimeoutRunsOut_thenCancelQueuedSendAndReportRunningOneAsPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        ChannelProperties properties = properties();
+        properties.getDefaults().setConcurrency(1);
+        properties.getDefaults().setTimeout(Duration.ofMillis(200));
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> {
+                    started.countDown();
+                    await(release);
+                    sent.incrementAndGet();
+                    return new Notification();
+                })), properties);
+
+        try {
+            NotificationRequest request = NotificationRequest.builder().type(NotificationType.EMAIL).build();
+            AtomicReference<List<Notification>> running = new AtomicReference<>();
+            Thread runningCaller = new Thread(() -> running.set(dispatcher.dispatch(request, new NotificationPreference())));
+            runningCaller.start();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ChannelSaturatedException.class, () -> dispatcher.dispatch(request, new NotificationPreference()));
+
+            runningCaller.join(5_000);
+            assertEquals(NotificationStatus.PENDING, running.get().get(0).getStatus());
+        } finally {
+            release.countDown();
+        }
+
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitDrained(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void whenRequestNamesUnknownChannel_thenThrowException() {
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> new Notification())), properties());
+
+        NotificationRequest request = NotificationRequest.builder()
+                .type(NotificationType.EMAIL)
+                .channels(Set.of("pigeon"))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.dispatch(request, new NotificationPreference()));
+    }
+
+    @Test
+    void whenIntakeIsStopped_thenRejectNewDispatchesAndHandBackQueuedWork() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ChannelProperties properties = properties();
+        properties.getDefaults().setConcurrency(1);
+        dispatcher = new ChannelDispatcher(List.of(
+                new StubChannel("email", NotificationType.EMAIL, (request, preference) -> {
+                    started.countDown();
+                    await(release);
+                    interrupted.set(Thread.currentThread().isInterrupted());
+                    finished.countDown();
+                    return new Notification();
+                })), properties);
+
+        try {
+            NotificationRequest running = NotificationRequest.builder().subject("running").type(NotificationType.EMAIL).build();
+            NotificationRequest queued = NotificationRequest.builder().subject("queued").type(NotificationType.EMAIL).build();
+            new Thread(() -> dispatcher.dispatch(running, new NotificationPreference())).start();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            new Thread(() -> assertThrows(RuntimeException.class, () -> dispatcher.dispatch(queued, new NotificationPreference()))).start();
+            Thread.sleep(100);
+
+            dispatcher.stopIntake();
+
+            assertThrows(ShuttingDownException.class,
+                    () -> dispatcher.dispatch(running, new NotificationPreference()));
+            assertFalse(dispatcher.awaitDrained(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50)));
+
+            List<NotificationRequest> leftovers = dispatcher.abandon();
+
+            assertEquals(1, leftovers.size());
+            assertEquals("queued", leftovers.get(0).getSubject());
+            assertEquals(Set.of("email"), leftovers.get(0).getChannels());
+
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertFalse(interrupted.get(), "the running send must not be interrupted");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static ChannelProperties properties() {
+        ChannelProperties properties = new ChannelProperties();
+        properties.getDefaults().setConcurrency(2);
+        properties.getDefaults().setTimeout(Duration.ofSeconds(5));
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record StubChannel(String name,
+                               NotificationType type,
+                               BiFunction<NotificationRequest, NotificationPreference, Notification> delivery) implements NotificationChannel {
+
+        @Override
+        public boolean supports(NotificationRequest request) {
+            return request.getType() == type;
+        }
+
+        @Override
+        public Notification deliver(NotificationRequest request, NotificationPreference preference) {
+            return delivery.apply(request, preference);
+        }
+    }
+}
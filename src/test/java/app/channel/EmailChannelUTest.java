@@ -0,0 +1,144 @@
+package app.channel;
+
+import app.mail.GuardedMailSender;
+import app.mail.MailUnavailableException;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailChannelUTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private GuardedMailSender mailSender;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction());
+
+    @InjectMocks
+    private EmailChannel emailChannel;
+
+    @Test
+    void whenDeliver_andEmailNotificationIsNotEnabled_thenThrowException() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .body("")
+                .subject("")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .emailNotificationEnabled(false)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> emailChannel.deliver(request, preference));
+    }
+
+    @Test
+    void whenDeliver_andNotificationStatusIsSucceeded_thenPersistToDatabase() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .body("test")
+                .subject("test")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .email("ivan@gmail.com")
+                .emailNotificationEnabled(true)
+                .build();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+
+        emailChannel.deliver(request, preference);
+        verify(notificationRepository).save(captor.capture());
+
+        Notification notification = captor.getValue();
+
+        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+    }
+
+    @Test
+    void whenDeliver_andNotificationStatusIsFailed_thenPersistToDatabase() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .body("test")
+                .subject("test")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .email("ivan@test.bg")
+                .emailNotificationEnabled(true)
+                .build();
+
+        doThrow(new RuntimeException("fail test")).when(mailSender)
+                .send(any(SimpleMailMessage.class), anyBoolean());
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+
+        emailChannel.deliver(request, preference);
+        verify(notificationRepository).save(captor.capture());
+
+        Notification notification = captor.getValue();
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+    }
+
+    @Test
+    void whenDeliver_andSmtpIsUnavailable_thenFailFastAndPersistAsFailed() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .body("test")
+                .subject("test")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(userId)
+                .email("ivan@test.bg")
+                .emailNotificationEnabled(true)
+                .build();
+
+        doThrow(new MailUnavailableException("SMTP circuit is open")).when(mailSender)
+                .send(any(SimpleMailMessage.class), anyBoolean());
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+
+        emailChannel.deliver(request, preference);
+        verify(notificationRepository).save(captor.capture());
+
+        assertEquals(NotificationStatus.FAILED, captor.getValue().getStatus());
+    }
+}
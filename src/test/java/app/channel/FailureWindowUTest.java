@@ -0,0 +1,44 @@
+package app.channel;
+
+import app.model.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailureWindowUTest {
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(1).toMillis());
+    private final FailureWindow failureWindow = new FailureWindow(now::get);
+
+    @Test
+    void whenFailuresAreRecordedOverTime_thenGroupByTypeAndAge() {
+        failureWindow.record(NotificationType.EMAIL);
+        advance(Duration.ofMinutes(3));
+        failureWindow.record(NotificationType.EMAIL);
+        failureWindow.record(NotificationType.ALERT);
+
+        Map<NotificationType, Map<AgeBucket, Long>> byAge = failureWindow.byAge();
+
+        assertEquals(Map.of(AgeBucket.UNDER_1M, 1L, AgeBucket.UNDER_5M, 1L), byAge.get(NotificationType.EMAIL));
+        assertEquals(Map.of(AgeBucket.UNDER_1M, 1L), byAge.get(NotificationType.ALERT));
+    }
+
+    @Test
+    void whenFailureIsOlderThanAnHour_thenItIsDropped() {
+        failureWindow.record(NotificationType.EMAIL);
+        advance(Duration.ofMinutes(60));
+
+        assertTrue(failureWindow.byAge().isEmpty());
+
+        failureWindow.record(NotificationType.SUMMARY);
+        assertEquals(Map.of(NotificationType.SUMMARY, Map.of(AgeBucket.UNDER_1M, 1L)), failureWindow.byAge());
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toMillis());
+    }
+}
@@ -0,0 +1,109 @@
+package app.channel;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InAppChannelUTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private InAppWriteBuffer writeBuffer;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction());
+
+    @InjectMocks
+    private InAppChannel inAppChannel;
+
+    @Test
+    void whenDeliver_andParticularNotificationIsNotEnabled_thenSetStatusToFailedAndPersistInTheDatabase() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.REMINDER)
+                .body("test")
+                .subject("test")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .email("ivan@test.bg")
+                .reminderNotificationEnabled(false)
+                .build();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        inAppChannel.deliver(request, preference);
+
+        verify(notificationRepository).save(captor.capture());
+        Notification notification = captor.getValue();
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+    }
+
+    @Test
+    void whenDeliver_andParticularNotificationIsEnabled_thenSetStatusToFailedAndPersistInTheDatabase() {
+        UUID userId = UUID.randomUUID();
+
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.REMINDER)
+                .body("test")
+                .subject("test")
+                .build();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(UUID.randomUUID())
+                .email("ivan@test.bg")
+                .reminderNotificationEnabled(true)
+                .build();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        inAppChannel.deliver(request, preference);
+
+        verify(notificationRepository).save(captor.capture());
+        Notification notification = captor.getValue();
+
+        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+    }
+
+    @Test
+    void whenDeliver_andWriteBehindEnabled_thenHandNotificationToBufferInsteadOfSaving() {
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .type(NotificationType.ALERT)
+                .body("test")
+                .subject("test")
+                .build();
+
+        when(writeBuffer.isEnabled()).thenReturn(true);
+        when(writeBuffer.write(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Notification notification = inAppChannel.deliver(request, new NotificationPreference());
+
+        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+        verify(writeBuffer).write(notification);
+        verifyNoInteractions(notificationRepository);
+    }
+}
@@ -0,0 +1,144 @@
+package app.channel;
+
+import app.model.Notification;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InAppWriteBufferUTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private final ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction());
+
+    private InAppWriteBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void whenManyWritesArrive_thenFlushThemAsFullBatchesWithOneCommitEach() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(notificationRepository.insertAll(any())).thenAnswer(invocation -> {
+            batchSizes.add(((Collection<?>) invocation.getArgument(0)).size());
+            return batchSizes.get(batchSizes.size() - 1);
+        });
+
+        buffer = new InAppWriteBuffer(notificationRepository, properties(250, Duration.ofSeconds(10), 1000, false), shardRouter);
+        buffer.start();
+
+        for (int i = 0; i < 1000; i++) {
+            buffer.write(notification());
+        }
+
+        assertTrue(buffer.awaitDrained(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(List.of(250, 250, 250, 250), batchSizes);
+        assertEquals(4, buffer.commits());
+        assertEquals(1000, buffer.written());
+    }
+
+    @Test
+    void whenFewerRowsThanBatchSize_thenFlushAfterInterval() {
+        buffer = new InAppWriteBuffer(notificationRepository, properties(500, Duration.ofMillis(20), 100, false), shardRouter);
+        buffer.start();
+
+        buffer.write(notification());
+        buffer.write(notification());
+
+        verify(notificationRepository, timeout(2000)).insertAll(argThat(batch -> ((Collection<?>) batch).size() == 2));
+    }
+
+    @Test
+    void whenWriteReturnsBeforeFlush_thenCallerGetsACopyWithTheIdThatIsPersisted() {
+        buffer = new InAppWriteBuffer(notificationRepository, properties(500, Duration.ofMillis(20), 100, false), shardRouter);
+        buffer.start();
+        Notification queued = notification();
+
+        Notification returned = buffer.write(queued);
+
+        assertNotNull(returned.getId());
+        assertNotSame(queued, returned);
+        verify(notificationRepository, timeout(2000)).insertAll(argThat(batch ->
+                ((Collection<Notification>) batch).iterator().next().getId().equals(returned.getId())));
+    }
+
+    @Test
+    void whenDurable_andBatchFailsToCommit_thenCallerSeesTheFailure() {
+        when(notificationRepository.insertAll(any())).thenThrow(new IllegalStateException("deadlock"));
+
+        buffer = new InAppWriteBuffer(notificationRepository, properties(10, Duration.ofMillis(10), 100, true), shardRouter);
+        buffer.start();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> buffer.write(notification()));
+        assertEquals("deadlock", failure.getMessage());
+    }
+
+    @Test
+    void whenQueueIsFull_thenRejectAfterOfferTimeout() {
+        buffer = new InAppWriteBuffer(notificationRepository, properties(10, Duration.ofMillis(10), 1, false), shardRouter);
+
+        buffer.write(notification());
+
+        assertThrows(ChannelSaturatedException.class, () -> buffer.write(notification()));
+    }
+
+    @Test
+    void whenAbandoned_thenQueuedWritesComeBackAsInAppRequests() {
+        buffer = new InAppWriteBuffer(notificationRepository, properties(10, Duration.ofMillis(10), 10, false), shardRouter);
+        buffer.write(notification());
+
+        List<NotificationRequest> leftovers = buffer.abandon();
+
+        assertEquals(1, leftovers.size());
+        assertEquals(Set.of(InAppChannel.NAME), leftovers.get(0).getChannels());
+        assertEquals(NotificationType.ALERT, leftovers.get(0).getType());
+        verifyNoInteractions(notificationRepository);
+    }
+
+    private static WriteBehindProperties properties(int batchSize, Duration flushInterval, int capacity, boolean durable) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(batchSize);
+        properties.setFlushInterval(flushInterval);
+        properties.setCapacity(capacity);
+        properties.setOfferTimeout(Duration.ofMillis(20));
+        properties.setDurable(durable);
+        properties.setCommitTimeout(Duration.ofSeconds(2));
+        return properties;
+    }
+
+    private static Notification notification() {
+        return Notification.builder()
+                .userId(UUID.randomUUID())
+                .subject("storm")
+                .body("alert")
+                .type(NotificationType.ALERT)
+                .build();
+    }
+}
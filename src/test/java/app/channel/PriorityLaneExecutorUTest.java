@@ -0,0 +1,124 @@
+package app.channel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityLaneExecutorUTest {
+
+    private PriorityLaneExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenSharedWorkersAreBusyWithBulk_thenCriticalTaskRunsOnReservedWorker() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch alertDone = new CountDownLatch(1);
+        executor = new PriorityLaneExecutor("test", 1, 1, 100, weights(8, 4, 1));
+
+        executor.offer(() -> await(release), Priority.BULK);
+        executor.offer(() -> await(release), Priority.BULK);
+        executor.offer(alertDone::countDown, Priority.CRITICAL);
+
+        try {
+            assertTrue(alertDone.await(2, TimeUnit.SECONDS));
+            waitUntil(() -> executor.queued().get(Priority.BULK) == 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenSeveralLanesHaveWork_thenSharedWorkersServeThemByWeight() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        executor = new PriorityLaneExecutor("test", 1, 0, 100, weights(8, 3, 1));
+
+        executor.offer(() -> {
+            started.countDown();
+            await(release);
+        }, Priority.NORMAL);
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 8; i++) {
+            executor.offer(() -> order.add(Priority.BULK), Priority.BULK);
+            executor.offer(() -> order.add(Priority.NORMAL), Priority.NORMAL);
+        }
+        release.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+        List<Priority> firstEight = order.subList(0, 8);
+        assertEquals(6, firstEight.stream().filter(priority -> priority == Priority.NORMAL).count());
+        assertEquals(2, firstEight.stream().filter(priority -> priority == Priority.BULK).count());
+    }
+
+    @Test
+    void whenLaneIsFull_thenRejectOnlyThatLane() {
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PriorityLaneExecutor("test", 1, 0, 1, weights(8, 4, 1));
+
+        try {
+            executor.offer(() -> await(release), Priority.BULK);
+            waitUntil(() -> executor.queued().get(Priority.BULK) == 0);
+
+            assertTrue(executor.offer(() -> { }, Priority.BULK));
+            assertFalse(executor.offer(() -> { }, Priority.BULK));
+            assertTrue(executor.offer(() -> { }, Priority.NORMAL));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenShutDownNow_thenHandBackQueuedTasksAndRejectNewOnes() {
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PriorityLaneExecutor("test", 1, 0, 10, weights(8, 4, 1));
+        Runnable queued = () -> { };
+
+        try {
+            executor.offer(() -> await(release), Priority.NORMAL);
+            waitUntil(() -> executor.activeWorkers() == 1);
+            executor.offer(queued, Priority.BULK);
+
+            assertEquals(List.of(queued), executor.shutdownNow());
+            assertFalse(executor.offer(() -> { }, Priority.CRITICAL));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static Map<Priority, Integer> weights(int critical, int normal, int bulk) {
+        return Map.of(Priority.CRITICAL, critical, Priority.NORMAL, normal, Priority.BULK, bulk);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package app.channel;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import app.web.dto.NotificationRequest;
+import app.webhook.WebhookClient;
+import app.webhook.WebhookProperties;
+import app.webhook.WebhookSigner;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WebhookChannelUTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final BlockingQueue<ReceivedCall> received = new LinkedBlockingQueue<>();
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction());
+
+    private HttpServer stubServer;
+    private volatile int responseStatus = 204;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubServer.createContext("/hook", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            received.add(new ReceivedCall(
+                    body,
+                    objectMapper.readTree(body),
+                    exchange.getRequestHeaders().getFirst(WebhookSigner.SIGNATURE_HEADER),
+                    exchange.getRequestHeaders().getFirst(WebhookSigner.TIMESTAMP_HEADER)));
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        stubServer.setExecutor(Executors.newCachedThreadPool());
+        stubServer.start();
+
+        when(notificationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        stubServer.stop(0);
+    }
+
+    @Test
+    void whenDeliver_thenPostSignedPayloadAndPersistSucceeded() throws Exception {
+        WebhookProperties properties = properties();
+        WebhookChannel channel = new WebhookChannel(notificationRepository, new WebhookClient(objectMapper, properties), properties, shardRouter);
+
+        Notification notification = channel.deliver(request("Deploy finished"), preference());
+
+        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+
+        ReceivedCall call = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(call);
+        assertEquals("Deploy finished", call.body().get("subject").asText());
+        assertEquals(new WebhookSigner("s3cret").sign(Long.parseLong(call.timestamp()), call.raw()), call.signature());
+    }
+
+    @Test
+    void whenBatchingIsEnabled_thenConcurrentDeliveriesShareOneCall() throws Exception {
+        WebhookProperties properties = properties();
+        properties.setBatchSize(2);
+        properties.setBatchLinger(Duration.ofSeconds(2));
+        WebhookChannel channel = new WebhookChannel(notificationRepository, new WebhookClient(objectMapper, properties), properties, shardRouter);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Notification>> results = callers.invokeAll(List.of(
+                    () -> channel.deliver(request("first"), preference()),
+                    () -> channel.deliver(request("second"), preference())));
+
+            for (Future<Notification> result : results) {
+                assertEquals(NotificationStatus.SUCCEEDED, result.get().getStatus());
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        ReceivedCall call = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(call);
+        assertTrue(call.body().isArray());
+        assertEquals(2, call.body().size());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void whenEndpointRejects_thenPersistFailed() {
+        responseStatus = 500;
+        WebhookProperties properties = properties();
+        WebhookChannel channel = new WebhookChannel(notificationRepository, new WebhookClient(objectMapper, properties), properties, shardRouter);
+
+        Notification notification = channel.deliver(request("rejected"), preference());
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+    }
+
+    @Test
+    void whenUserHasNoWebhookEndpoint_thenThrowException() {
+        WebhookProperties properties = properties();
+        WebhookChannel channel = new WebhookChannel(notificationRepository, new WebhookClient(objectMapper, properties), properties, shardRouter);
+
+        assertThrows(IllegalStateException.class, () -> channel.deliver(request("nowhere"), new NotificationPreference()));
+    }
+
+    private WebhookProperties properties() {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setSigningSecret("s3cret");
+        properties.setAllowPrivateHosts(true);
+        return properties;
+    }
+
+    private NotificationPreference preference() {
+        return NotificationPreference.builder()
+                .webhookUrl("http://localhost:" + stubServer.getAddress().getPort() + "/hook")
+                .build();
+    }
+
+    private NotificationRequest request(String subject) {
+        return NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject(subject)
+                .body("body")
+                .type(NotificationType.ALERT)
+                .build();
+    }
+
+    private record ReceivedCall(byte[] raw, JsonNode body, String signature, String timestamp) {
+    }
+}
@@ -0,0 +1,118 @@
+package app.dedup;
+
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeduplicationWindowUTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void whenSameNotificationRepeatsWithinWindow_thenReportDuplicate() {
+        DeduplicationWindow window = new DeduplicationWindow(properties(Duration.ofSeconds(30)), clock::get);
+        NotificationRequest request = reminder(UUID.randomUUID(), "Task due");
+
+        assertFalse(window.isDuplicate(request));
+        clock.addAndGet(10_000);
+        assertTrue(window.isDuplicate(request.toBuilder().build()));
+    }
+
+    @Test
+    void whenWindowHasPassed_thenAcceptAgain() {
+        DeduplicationWindow window = new DeduplicationWindow(properties(Duration.ofSeconds(30)), clock::get);
+        NotificationRequest request = reminder(UUID.randomUUID(), "Task due");
+
+        assertFalse(window.isDuplicate(request));
+        clock.addAndGet(31_000);
+        assertFalse(window.isDuplicate(request));
+    }
+
+    @Test
+    void whenContentUserOrScheduleDiffers_thenNotDuplicate() {
+        DeduplicationWindow window = new DeduplicationWindow(properties(Duration.ofSeconds(30)), clock::get);
+        UUID userId = UUID.randomUUID();
+        NotificationRequest request = reminder(userId, "Task due");
+
+        assertFalse(window.isDuplicate(request));
+        assertFalse(window.isDuplicate(reminder(userId, "Other task due")));
+        assertFalse(window.isDuplicate(reminder(UUID.randomUUID(), "Task due")));
+        assertFalse(window.isDuplicate(request.toBuilder().type(NotificationType.DEADLINE).build()));
+        assertFalse(window.isDuplicate(request.toBuilder().scheduledFor(LocalDateTime.of(2026, 1, 1, 9, 0)).build()));
+    }
+
+    @Test
+    void whenDisabled_thenNeverDuplicate() {
+        DedupProperties properties = properties(Duration.ofSeconds(30));
+        properties.setEnabled(false);
+        DeduplicationWindow window = new DeduplicationWindow(properties, clock::get);
+        NotificationRequest request = reminder(UUID.randomUUID(), "Task due");
+
+        assertFalse(window.isDuplicate(request));
+        assertFalse(window.isDuplicate(request));
+    }
+
+    @Test
+    void whenIdenticalRequestsRace_thenExactlyOnePasses() throws Exception {
+        DeduplicationWindow window = new DeduplicationWindow(properties(Duration.ofSeconds(30)), clock::get);
+        NotificationRequest request = reminder(UUID.randomUUID(), "Task due");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger passed = new AtomicInteger();
+
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    if (!window.isDuplicate(request)) {
+                        passed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, passed.get());
+    }
+
+    private static DedupProperties properties(Duration window) {
+        DedupProperties properties = new DedupProperties();
+        properties.setWindow(window);
+        return properties;
+    }
+
+    @Test
+    void whenKeyIsForgotten_thenSameNotificationIsAcceptedAgain() {
+        DeduplicationWindow window = new DeduplicationWindow(properties(Duration.ofSeconds(30)), clock::get);
+        NotificationRequest request = reminder(UUID.randomUUID(), "Task due");
+
+        assertFalse(window.isDuplicate(request));
+        clock.addAndGet(10_000);
+        window.forget(request);
+
+        assertFalse(window.isDuplicate(request));
+        assertTrue(window.isDuplicate(request));
+    }
+
+    private static NotificationRequest reminder(UUID userId, String subject) {
+        return NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.REMINDER)
+                .subject(subject)
+                .body("Finish the report")
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package app.history;
+
+import app.web.dto.NotificationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecentHistoryCacheUTest {
+
+    @Test
+    void whenFirstPageMissed_thenLoadOnceAndServeLaterReadsFromMemory() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(5, 100));
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<NotificationResponse> first = cache.firstPage(userId, 2, limit -> {
+            loads.incrementAndGet();
+            assertEquals(5, limit);
+            return responses("c", "b", "a");
+        }).orElseThrow();
+        List<NotificationResponse> second = cache.firstPage(userId, 3, limit -> fail("should be a memory hit")).orElseThrow();
+
+        assertEquals(List.of("c", "b"), subjects(first));
+        assertEquals(List.of("c", "b", "a"), subjects(second));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void whenRingIsOlderThanTtl_thenReloadItFromTheDatabase() {
+        AtomicLong now = new AtomicLong();
+        RecentHistoryCache cache = new RecentHistoryCache(properties(5, 100), now::get);
+        UUID userId = UUID.randomUUID();
+        cache.firstPage(userId, 2, limit -> responses("b", "a"));
+
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.firstPage(userId, 2, limit -> fail("should be a memory hit"));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        List<NotificationResponse> reloaded = cache.firstPage(userId, 2, limit -> responses("c", "b")).orElseThrow();
+
+        assertEquals(List.of("c", "b"), subjects(reloaded));
+        assertEquals(2, cache.entries());
+    }
+
+    @Test
+    void whenRecordedPastCapacity_thenKeepOnlyLatestEntriesNewestFirst() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(3, 100));
+        UUID userId = UUID.randomUUID();
+        cache.firstPage(userId, 3, limit -> List.of());
+
+        cache.record(userId, responses("a", "b"));
+        cache.record(userId, responses("c", "d"));
+
+        assertEquals(List.of("d", "c", "b"), subjects(cache.firstPage(userId, 3, limit -> fail()).orElseThrow()));
+        assertEquals(3, cache.entries());
+    }
+
+    @Test
+    void whenPageLargerThanRing_thenDoNotUseCache() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(3, 100));
+
+        assertEquals(Optional.empty(), cache.firstPage(UUID.randomUUID(), 4, limit -> fail()));
+    }
+
+    @Test
+    void whenCleared_thenServeEmptyHistoryWithoutLoading() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(3, 100));
+        UUID userId = UUID.randomUUID();
+        cache.firstPage(userId, 3, limit -> responses("a"));
+
+        cache.clear(userId);
+
+        assertEquals(List.of(), cache.firstPage(userId, 3, limit -> fail()).orElseThrow());
+    }
+
+    @Test
+    void whenSendRacesWithLoad_thenDropTheStaleLoadResult() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(3, 100));
+        UUID userId = UUID.randomUUID();
+
+        cache.firstPage(userId, 3, limit -> {
+            cache.record(userId, responses("new"));
+            return responses("old");
+        });
+
+        List<String> reloaded = new ArrayList<>();
+        cache.firstPage(userId, 3, limit -> {
+            reloaded.add("loaded");
+            return responses("new", "old");
+        });
+        assertEquals(List.of("loaded"), reloaded);
+    }
+
+    @Test
+    void whenGlobalCapExceeded_thenEvictLeastRecentlyUsedUsers() {
+        RecentHistoryCache cache = new RecentHistoryCache(properties(2, 4));
+        List<UUID> users = IntStream.range(0, 3).mapToObj(i -> UUID.randomUUID()).toList();
+
+        cache.firstPage(users.get(0), 2, limit -> responses("a", "b"));
+        cache.firstPage(users.get(1), 2, limit -> responses("a", "b"));
+        cache.firstPage(users.get(0), 2, limit -> fail());
+        cache.firstPage(users.get(2), 2, limit -> responses("a", "b"));
+
+        assertEquals(2, cache.users());
+        assertEquals(4, cache.entries());
+        assertTrue(cache.firstPage(users.get(0), 2, limit -> fail()).isPresent());
+    }
+
+    private static HistoryCacheProperties properties(int perUser, int maxEntries) {
+        HistoryCacheProperties properties = new HistoryCacheProperties();
+        properties.setPerUser(perUser);
+        properties.setMaxEntries(maxEntries);
+        return properties;
+    }
+
+    private static List<NotificationResponse> responses(String... subjects) {
+        return List.of(subjects).stream().map(subject -> NotificationResponse.builder().subject(subject).build()).toList();
+    }
+
+    private static List<String> subjects(List<NotificationResponse> responses) {
+        return responses.stream().map(NotificationResponse::getSubject).toList();
+    }
+}
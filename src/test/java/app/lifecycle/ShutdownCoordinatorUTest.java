@@ -0,0 +1,73 @@
+package app.lifecycle;
+
+import app.schedule.ScheduledDeliveryService;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ShutdownCoordinatorUTest {
+
+    private final Drainable scheduler = mock(Drainable.class);
+    private final Drainable channels = mock(Drainable.class);
+    private final ScheduledDeliveryService scheduledDeliveryService = mock(ScheduledDeliveryService.class);
+
+    @Test
+    void whenStopping_thenCloseAllIntakeBeforeWaitingForAnyDrain() throws InterruptedException {
+        when(scheduler.awaitDrained(anyLong())).thenReturn(true);
+        when(channels.awaitDrained(anyLong())).thenReturn(true);
+
+        coordinator().stop();
+
+        InOrder inOrder = inOrder(scheduler, channels);
+        inOrder.verify(scheduler).stopIntake();
+        inOrder.verify(channels).stopIntake();
+        inOrder.verify(scheduler).awaitDrained(anyLong());
+        inOrder.verify(channels).awaitDrained(anyLong());
+        verify(channels, never()).abandon();
+        verifyNoInteractions(scheduledDeliveryService);
+    }
+
+    @Test
+    void whenDrainDeadlinePasses_thenPersistLeftoversAsPending() throws InterruptedException {
+        NotificationRequest leftover = NotificationRequest.builder().userId(UUID.randomUUID()).build();
+
+        when(scheduler.awaitDrained(anyLong())).thenReturn(true);
+        when(channels.awaitDrained(anyLong())).thenReturn(false);
+        when(channels.abandon()).thenReturn(List.of(leftover));
+
+        coordinator().stop();
+
+        verify(scheduledDeliveryService).persistForRecovery(List.of(leftover));
+    }
+
+    @Test
+    void whenWorkIsAbandoned_thenGiveRunningWorkTheGraceToFinish() throws InterruptedException {
+        when(scheduler.awaitDrained(anyLong())).thenReturn(true);
+        when(channels.awaitDrained(anyLong())).thenReturn(false, true);
+        when(channels.abandon()).thenReturn(List.of());
+
+        coordinator().stop();
+
+        InOrder inOrder = inOrder(channels);
+        inOrder.verify(channels).awaitDrained(anyLong());
+        inOrder.verify(channels).abandon();
+        inOrder.verify(channels).awaitDrained(anyLong());
+        verify(scheduler, times(1)).awaitDrained(anyLong());
+    }
+
+    private ShutdownCoordinator coordinator() {
+        ShutdownProperties properties = new ShutdownProperties();
+        properties.setDrainTimeout(Duration.ofMillis(100));
+
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(List.of(scheduler, channels), scheduledDeliveryService, properties);
+        coordinator.start();
+        return coordinator;
+    }
+}
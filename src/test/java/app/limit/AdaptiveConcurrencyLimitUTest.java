@@ -0,0 +1,75 @@
+package app.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitUTest {
+
+    @Test
+    void whenLimitIsReached_thenRejectUntilARequestCompletes() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1.5, 0.2, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(millis(10));
+
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    void whenLatencyStaysFlatUnderFullUse_thenLimitGrows() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1.5, 0.2, 10);
+
+        runWindows(limit, 20, 10);
+
+        assertTrue(limit.limit() > 20, "limit was " + limit.limit());
+    }
+
+    @Test
+    void whenLatencyRisesUnderFullUse_thenLimitShrinksButNotBelowMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 5, 100, 1.5, 0.2, 10);
+        runWindows(limit, 5, 10);
+        int before = limit.limit();
+
+        runWindows(limit, 10, 100);
+        assertTrue(limit.limit() < before / 2, "limit was " + limit.limit());
+
+        runWindows(limit, 50, 1_000);
+        assertTrue(limit.limit() >= 5);
+    }
+
+    @Test
+    void whenMostOfTheLimitIsUnused_thenLimitDoesNotMove() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, 1.5, 0.2, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(millis(i < 50 ? 10 : 500));
+        }
+
+        assertEquals(50, limit.limit());
+    }
+
+    // Fills the current limit, then completes every request with the given latency, window after window.
+    private static void runWindows(AdaptiveConcurrencyLimit limit, int windows, long latencyMillis) {
+        for (int window = 0; window < windows; window++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(millis(latencyMillis));
+            }
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,28 @@
+package app.loadtest;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+
+class LatencyInjectingMailSender extends JavaMailSenderImpl {
+
+    private final Duration latency;
+
+    LatencyInjectingMailSender(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        super.doSend(mimeMessages, originalMessages);
+    }
+}
@@ -0,0 +1,113 @@
+package app.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are issued on a fixed schedule regardless of how long earlier
+ * ones take, and latency is measured from the intended start time so queueing inside the service
+ * is not hidden (no coordinated omission).
+ */
+class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final List<UUID> users;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    LoadGenerator(HttpClient httpClient, URI baseUri, LoadTestSettings settings, List<UUID> users) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.users = users;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    Map<Operation, OperationStats> run() {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long waitNanos = intended - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+
+            Operation operation = nextOperation();
+            boolean measured = intended >= measureFrom;
+            long intendedStart = intended;
+
+            inFlight.add(httpClient.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (measured) {
+                            boolean success = error == null && response.statusCode() < 300;
+                            stats.get(operation).record(System.nanoTime() - intendedStart, success);
+                        }
+                    }));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .orTimeout(1, TimeUnit.MINUTES)
+                .join();
+
+        return stats;
+    }
+
+    private Operation nextOperation() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < settings.deleteShare()) {
+            return Operation.DELETE_HISTORY;
+        }
+        if (roll < settings.deleteShare() + settings.historyShare()) {
+            return Operation.GET_HISTORY;
+        }
+        if (roll < settings.deleteShare() + settings.historyShare() + settings.emailShare()) {
+            return Operation.SEND_EMAIL;
+        }
+        return Operation.SEND_IN_APP;
+    }
+
+    private HttpRequest request(Operation operation) {
+        UUID userId = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+
+        return switch (operation) {
+            case SEND_EMAIL -> post(userId, "EMAIL");
+            case SEND_IN_APP -> post(userId, "REMINDER");
+            case GET_HISTORY -> HttpRequest.newBuilder(baseUri.resolve("/api/v1/notifications?userId=" + userId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            case DELETE_HISTORY -> HttpRequest.newBuilder(baseUri.resolve("/api/v1/notifications/history?userId=" + userId))
+                    .timeout(Duration.ofSeconds(30))
+                    .DELETE()
+                    .build();
+        };
+    }
+
+    private HttpRequest post(UUID userId, String type) {
+        String body = """
+                {"userId":"%s","subject":"Load test","body":"Generated by the load test harness","type":"%s"}"""
+                .formatted(userId, type);
+
+        return HttpRequest.newBuilder(baseUri.resolve("/api/v1/notifications"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
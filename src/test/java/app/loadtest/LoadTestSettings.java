@@ -0,0 +1,28 @@
+package app.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+record LoadTestSettings(int ratePerSecond,
+                        Duration duration,
+                        Duration warmup,
+                        int users,
+                        double emailShare,
+                        double historyShare,
+                        double deleteShare,
+                        Path reportDir) {
+
+    static LoadTestSettings from(Environment environment) {
+        return new LoadTestSettings(
+                environment.getProperty("loadtest.rate-per-second", Integer.class, 200),
+                Duration.ofSeconds(environment.getProperty("loadtest.duration-seconds", Long.class, 30L)),
+                Duration.ofSeconds(environment.getProperty("loadtest.warmup-seconds", Long.class, 5L)),
+                environment.getProperty("loadtest.users", Integer.class, 500),
+                environment.getProperty("loadtest.email-share", Double.class, 0.3),
+                environment.getProperty("loadtest.history-share", Double.class, 0.25),
+                environment.getProperty("loadtest.delete-share", Double.class, 0.02),
+                Path.of(environment.getProperty("loadtest.report-dir", "target/loadtest")));
+    }
+}
@@ -0,0 +1,141 @@
+package app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("loadtest")
+@ActiveProfiles({"h2", "loadtest"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class NotificationLoadTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+            .withPerMethodLifecycle(false);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void driveNotificationApiAtTargetRate() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from(environment);
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<UUID> users = seedPreferences(httpClient, baseUri, settings.users());
+
+        Map<Operation, OperationStats> stats = new LoadGenerator(httpClient, baseUri, settings, users).run();
+
+        report(settings, stats);
+
+        long total = stats.values().stream().mapToLong(OperationStats::count).sum();
+        long errors = stats.values().stream().mapToLong(OperationStats::errors).sum();
+        assertThat(total).isPositive();
+        assertThat(errors).isLessThanOrEqualTo(total / 100);
+    }
+
+    private List<UUID> seedPreferences(HttpClient httpClient, URI baseUri, int count) throws IOException, InterruptedException {
+        List<UUID> users = IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+        List<Map<String, Object>> preferences = users.stream()
+                .map(userId -> Map.<String, Object>of(
+                        "userId", userId,
+                        "emailNotificationEnabled", true,
+                        "deadLineNotificationEnabled", true,
+                        "summaryNotificationEnabled", true,
+                        "reminderNotificationEnabled", true,
+                        "email", userId + "@loadtest.local"))
+                .toList();
+
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/v1/preferences/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(preferences)))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+
+        return users;
+    }
+
+    private void report(LoadTestSettings settings, Map<Operation, OperationStats> stats) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        double seconds = settings.duration().toMillis() / 1000.0;
+
+        System.out.printf("%nLoad test: target %d req/s for %ss (warmup %ss)%n",
+                settings.ratePerSecond(), settings.duration().toSeconds(), settings.warmup().toSeconds());
+        System.out.printf("%-16s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Histogram histogram = operationStats.histogram();
+
+            System.out.printf("%-16s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    operationStats.count(),
+                    operationStats.errors(),
+                    operationStats.count() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(settings.reportDir().resolve(entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class SmtpStandInConfiguration {
+
+        @Bean
+        JavaMailSenderImpl mailSender(@Value("${spring.mail.host}") String host,
+                                      @Value("${spring.mail.port}") int port,
+                                      @Value("${loadtest.smtp-latency-ms:0}") long latencyMillis) {
+            LatencyInjectingMailSender mailSender = new LatencyInjectingMailSender(Duration.ofMillis(latencyMillis));
+            mailSender.setHost(host);
+            mailSender.setPort(port);
+
+            return mailSender;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package app.loadtest;
+
+enum Operation {
+    SEND_EMAIL, SEND_IN_APP, GET_HISTORY, DELETE_HISTORY
+}
@@ -0,0 +1,34 @@
+package app.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Histogram histogram() {
+        return latencyMicros;
+    }
+
+    long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+}
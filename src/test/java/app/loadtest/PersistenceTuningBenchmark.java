@@ -0,0 +1,150 @@
+package app.loadtest;
+
+import app.Application;
+import app.repository.NotificationPreferenceRepository;
+import app.service.PreferenceService;
+import app.web.dto.PreferenceRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same preference read workload against the repository, bypassing the application-level preference
+ * cache, once with the default persistence settings and once with the "tuned" profile, and compares throughput
+ * and the number of JDBC statements issued. Uses in-memory H2 unless {@code loadtest.jdbc-url} points at MySQL,
+ * where the driver's statement cache and server-side prepared statements also come into play.
+ */
+@Tag("loadtest")
+public class PersistenceTuningBenchmark {
+
+    private static final String DEFAULT = "default";
+    private static final String TUNED = "tuned";
+
+    @Test
+    void tunedProfileServesPreferenceReadsFasterThanDefault() throws IOException {
+        int users = Integer.getInteger("loadtest.persistence-users", 2_000);
+        int reads = Integer.getInteger("loadtest.persistence-reads", 50_000);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        results.put(DEFAULT, run(users, reads, false));
+        results.put(TUNED, run(users, reads, true));
+
+        report(results);
+
+        assertThat(results.get(TUNED).readsPerSecond()).isGreaterThan(results.get(DEFAULT).readsPerSecond());
+        assertThat(results.get(TUNED).statements()).isLessThan(results.get(DEFAULT).statements());
+    }
+
+    private Result run(int users, int reads, boolean tuned) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles(profiles(tuned))
+                .properties(properties())
+                .run()) {
+            PreferenceService preferenceService = context.getBean(PreferenceService.class);
+            NotificationPreferenceRepository repository = context.getBean(NotificationPreferenceRepository.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            List<UUID> userIds = seed(preferenceService, users);
+            readAll(repository, userIds, reads / 5);
+            statistics.clear();
+
+            long start = System.nanoTime();
+            readAll(repository, userIds, reads);
+            long pointNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            lookUpAll(repository, userIds, reads / 20);
+            long lookupNanos = System.nanoTime() - start;
+
+            return new Result(reads * 1_000_000_000d / pointNanos, (reads / 20) * 1_000_000_000d / lookupNanos,
+                    statistics.getPrepareStatementCount(), statistics.getQueryCacheHitCount());
+        }
+    }
+
+    private static String[] profiles(boolean tuned) {
+        List<String> profiles = new ArrayList<>();
+        if (System.getProperty("loadtest.jdbc-url") == null) {
+            profiles.add("h2");
+        }
+        if (tuned) {
+            profiles.add(TUNED);
+        }
+        return profiles.toArray(String[]::new);
+    }
+
+    private static String[] properties() {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "notifications.preferences.cache.invalidation=loopback"));
+
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl == null) {
+            // The tuned profile's MySQL driver settings mean nothing to H2.
+            properties.add("spring.datasource.url=jdbc:h2:mem:persistence-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE");
+        } else {
+            properties.add("spring.datasource.url=" + jdbcUrl);
+            properties.add("spring.datasource.username=" + System.getProperty("loadtest.jdbc-username", "root"));
+            properties.add("spring.datasource.password=" + System.getProperty("loadtest.jdbc-password", ""));
+        }
+        return properties.toArray(String[]::new);
+    }
+
+    private static List<UUID> seed(PreferenceService preferenceService, int users) {
+        List<PreferenceRequest> requests = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            requests.add(PreferenceRequest.builder()
+                    .userId(UUID.randomUUID())
+                    .email("user" + i + "@test.bg")
+                    .emailNotificationEnabled(true)
+                    .build());
+        }
+        preferenceService.upsertAll(requests);
+        return requests.stream().map(PreferenceRequest::getUserId).toList();
+    }
+
+    private static void readAll(NotificationPreferenceRepository repository, List<UUID> userIds, int reads) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < reads; i++) {
+            assertThat(repository.findByUserId(userIds.get(random.nextInt(userIds.size())))).isPresent();
+        }
+    }
+
+    private static void lookUpAll(NotificationPreferenceRepository repository, List<UUID> userIds, int lookups) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < lookups; i++) {
+            int size = 1 + random.nextInt(64);
+            int from = random.nextInt(userIds.size() - size);
+            assertThat(repository.findAllByUserIdIn(userIds.subList(from, from + size))).hasSize(size);
+        }
+    }
+
+    private void report(Map<String, Result> results) throws IOException {
+        StringBuilder report = new StringBuilder(String.format("%-10s %14s %14s %12s %10s%n",
+                "profile", "reads/s", "lookups/s", "statements", "cache hits"));
+        results.forEach((profile, result) -> report.append(String.format("%-10s %14.0f %14.0f %12d %10d%n",
+                profile, result.readsPerSecond(), result.lookupsPerSecond(), result.statements(), result.cacheHits())));
+        System.out.printf("%nPersistence tuning benchmark%n%s", report);
+
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("persistence.txt"), report);
+    }
+
+    private record Result(double readsPerSecond, double lookupsPerSecond, long statements, long cacheHits) {
+    }
+}
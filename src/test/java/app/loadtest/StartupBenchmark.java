@@ -0,0 +1,154 @@
+package app.loadtest;
+
+import app.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the full application repeatedly in the default and the fast-startup configuration, with the real
+ * datasource and Flyway, and compares the time until the context is ready and until the first
+ * {@code POST /api/v1/notifications} and {@code GET /api/v1/notifications} succeed. Lazy initialization moves
+ * bean creation to the first request, so only the request timings show what fast-startup actually saves.
+ * Runs alternate between configurations and the first run of each is discarded, so class loading, JIT
+ * warm-up and the initial migration are not billed to whichever configuration goes first. The database is
+ * the one in application.properties unless {@code loadtest.jdbc-url} points elsewhere.
+ */
+@Tag("loadtest")
+public class StartupBenchmark {
+
+    private static final String DEFAULT = "default";
+    private static final String FAST_STARTUP = "fast-startup";
+    private static final UUID USER_ID = UUID.fromString("5ea7be0c-0000-4000-8000-000000000001");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void fastStartupProfileServesFirstRequestsSoonerThanDefault() throws Exception {
+        int runs = Integer.getInteger("loadtest.startup-runs", 5);
+        Map<String, List<Timing>> timings = new LinkedHashMap<>();
+        timings.put(DEFAULT, new ArrayList<>());
+        timings.put(FAST_STARTUP, new ArrayList<>());
+
+        for (int run = 0; run <= runs; run++) {
+            for (String configuration : timings.keySet()) {
+                Timing timing = boot(run == 0, configuration.equals(FAST_STARTUP) ? new String[]{FAST_STARTUP} : new String[0]);
+                if (run > 0) {
+                    timings.get(configuration).add(timing);
+                }
+            }
+        }
+
+        report(timings);
+
+        assertThat(median(timings.get(FAST_STARTUP), Timing::firstGetMillis))
+                .isLessThan(median(timings.get(DEFAULT), Timing::firstGetMillis));
+    }
+
+    private Timing boot(boolean seed, String... profiles) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles(profiles)
+                .properties(properties())
+                .run()) {
+            long ready = elapsedMillis(start);
+            URI baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+
+            if (seed) {
+                // Only on the discarded runs; the measured runs reuse the stored preference and send no extra requests.
+                send(baseUri, "/api/v1/preferences", Map.of(
+                        "userId", USER_ID,
+                        "email", "startup@loadtest.local",
+                        "reminderNotificationEnabled", true));
+            }
+
+            send(baseUri, "/api/v1/notifications", Map.of(
+                    "userId", USER_ID,
+                    "subject", "startup",
+                    "body", "startup",
+                    "type", "REMINDER",
+                    "channels", List.of("in-app")));
+            long firstPost = elapsedMillis(start);
+
+            HttpResponse<String> history = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/api/v1/notifications?userId=" + USER_ID + "&size=1")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(history.statusCode()).isEqualTo(200);
+            long firstGet = elapsedMillis(start);
+
+            return new Timing(ready, firstPost, firstGet);
+        }
+    }
+
+    private void send(URI baseUri, String path, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("%s %s", path, response.body()).isBetween(200, 299);
+    }
+
+    private static String[] properties() {
+        List<String> properties = new ArrayList<>(List.of("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN"));
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl != null) {
+            properties.add("spring.datasource.url=" + jdbcUrl);
+            properties.add("spring.datasource.username=" + System.getProperty("loadtest.jdbc-username", "root"));
+            properties.add("spring.datasource.password=" + System.getProperty("loadtest.jdbc-password", ""));
+        }
+        return properties.toArray(String[]::new);
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long median(List<Timing> timings, ToLongFunction<Timing> metric) {
+        long[] sorted = timings.stream().mapToLong(metric).sorted().toArray();
+        return sorted[sorted.length / 2];
+    }
+
+    private void report(Map<String, List<Timing>> timings) throws IOException {
+        StringBuilder report = new StringBuilder(String.format("%-14s %9s %14s %13s  %s%n",
+                "configuration", "ready ms", "first POST ms", "first GET ms", "runs (ready/POST/GET ms)"));
+        timings.forEach((configuration, runs) -> report.append(String.format("%-14s %9d %14d %13d  %s%n",
+                configuration,
+                median(runs, Timing::readyMillis),
+                median(runs, Timing::firstPostMillis),
+                median(runs, Timing::firstGetMillis),
+                runs.stream().map(Timing::toString).toList())));
+        System.out.printf("%nStartup benchmark%n%s", report);
+
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("startup.txt"), report);
+    }
+
+    private record Timing(long readyMillis, long firstPostMillis, long firstGetMillis) {
+
+        @Override
+        public String toString() {
+            return readyMillis + "/" + firstPostMillis + "/" + firstGetMillis;
+        }
+    }
+}
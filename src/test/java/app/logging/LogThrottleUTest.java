@@ -0,0 +1,39 @@
+package app.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogThrottleUTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final LogThrottle throttle = new LogThrottle(2, Duration.ofSeconds(1), now::get);
+
+    @Test
+    void whenPermitsAreUsedUp_thenSuppressAndCountUntilNextInterval() {
+        assertTrue(throttle.tryAcquire());
+        assertTrue(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+        assertFalse(throttle.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertTrue(throttle.tryAcquire());
+        assertEquals(2, throttle.takeSuppressed());
+        assertEquals(0, throttle.takeSuppressed());
+    }
+
+    @Test
+    void whenIntervalHasNotElapsed_thenPermitsAreNotRefilled() {
+        throttle.tryAcquire();
+        throttle.tryAcquire();
+
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+
+        assertFalse(throttle.tryAcquire());
+        assertEquals(1, throttle.takeSuppressed());
+    }
+}
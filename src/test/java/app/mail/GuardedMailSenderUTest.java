@@ -0,0 +1,182 @@
+package app.mail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GuardedMailSenderUTest {
+
+    @Mock
+    private MailSender mailSender;
+
+    @Test
+    void whenFailureRateCrossesThreshold_thenCircuitOpensAndSendsFailFastWithoutCallingSmtp() {
+        SmtpProperties properties = properties();
+        GuardedMailSender guardedMailSender = new GuardedMailSender(mailSender, properties);
+
+        doThrow(new MailSendException("auth failed")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        for (int i = 0; i < properties.getMinimumCalls(); i++) {
+            assertThrows(MailSendException.class, () -> guardedMailSender.send(new SimpleMailMessage()));
+        }
+
+        assertEquals(CircuitState.OPEN, guardedMailSender.getCircuitState());
+        assertThrows(MailUnavailableException.class, () -> guardedMailSender.send(new SimpleMailMessage()));
+        verify(mailSender, times(properties.getMinimumCalls())).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void whenOpenDurationElapses_thenSingleProbeClosesCircuitOnSuccess() {
+        AtomicLong now = new AtomicLong();
+        SmtpProperties properties = properties();
+        MailCircuitBreaker circuitBreaker = new MailCircuitBreaker(properties, now::get);
+
+        trip(circuitBreaker, properties);
+        assertNull(circuitBreaker.tryAcquirePermission());
+
+        now.addAndGet(properties.getOpenDuration().toNanos());
+
+        MailCircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+        assertNotNull(probe);
+        assertNull(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onSuccess(probe);
+
+        assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        assertNotNull(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void whenSendStartedBeforeCircuitOpenedFailsLate_thenOpenPeriodIsNotExtended() {
+        AtomicLong now = new AtomicLong();
+        SmtpProperties properties = properties();
+        MailCircuitBreaker circuitBreaker = new MailCircuitBreaker(properties, now::get);
+
+        MailCircuitBreaker.Permit slow = circuitBreaker.tryAcquirePermission();
+        trip(circuitBreaker, properties);
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+
+        now.addAndGet(properties.getOpenDuration().toNanos() - 1);
+        circuitBreaker.onFailure(slow);
+        now.addAndGet(1);
+
+        assertNotNull(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void whenSendStartedBeforeCircuitOpenedSucceedsWhileHalfOpen_thenOnlyTheProbeDecides() {
+        AtomicLong now = new AtomicLong();
+        SmtpProperties properties = properties();
+        MailCircuitBreaker circuitBreaker = new MailCircuitBreaker(properties, now::get);
+
+        MailCircuitBreaker.Permit slow = circuitBreaker.tryAcquirePermission();
+        trip(circuitBreaker, properties);
+        now.addAndGet(properties.getOpenDuration().toNanos());
+        MailCircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onSuccess(slow);
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onFailure(probe);
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void whenAllSendPermitsAreTaken_thenBulkheadRejectsExtraSends() throws Exception {
+        SmtpProperties properties = properties();
+        properties.setMaxConcurrentSends(1);
+        GuardedMailSender guardedMailSender = new GuardedMailSender(mailSender, properties);
+
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> guardedMailSender.send(new SimpleMailMessage()));
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            assertThrows(MailUnavailableException.class, () -> guardedMailSender.send(new SimpleMailMessage()));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void whenBulkSendsHoldEverySharedPermit_thenCriticalSendStillGoesOut() throws Exception {
+        SmtpProperties properties = properties();
+        properties.setMaxConcurrentSends(3);
+        properties.setCriticalConcurrentSends(1);
+        GuardedMailSender guardedMailSender = new GuardedMailSender(mailSender, properties);
+
+        SimpleMailMessage alert = new SimpleMailMessage();
+        alert.setSubject("alert");
+        CountDownLatch sending = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (!"alert".equals(invocation.<SimpleMailMessage>getArgument(0).getSubject())) {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.submit(() -> guardedMailSender.send(new SimpleMailMessage()));
+            }
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            assertThrows(MailUnavailableException.class, () -> guardedMailSender.send(new SimpleMailMessage()));
+
+            guardedMailSender.send(alert, true);
+
+            verify(mailSender).send(alert);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private SmtpProperties properties() {
+        SmtpProperties properties = new SmtpProperties();
+        properties.setMinimumCalls(4);
+        properties.setSlidingWindowSize(10);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        properties.setBulkheadMaxWait(Duration.ofMillis(10));
+        return properties;
+    }
+
+    private static void trip(MailCircuitBreaker circuitBreaker, SmtpProperties properties) {
+        for (int i = 0; i < properties.getMinimumCalls(); i++) {
+            MailCircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+            assertNotNull(permit);
+            circuitBreaker.onFailure(permit);
+        }
+    }
+}
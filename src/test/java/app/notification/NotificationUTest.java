@@ -1,13 +1,29 @@
 package app.notification;
 
+import app.archive.ArchiveStore;
+import app.channel.ChannelDispatcher;
+import app.channel.ChannelSaturatedException;
+import app.dedup.DedupProperties;
+import app.dedup.DeduplicationWindow;
+import app.history.RecentHistoryCache;
 import app.model.Notification;
 import app.model.NotificationPreference;
 import app.model.NotificationStatus;
 import app.model.NotificationType;
+import app.model.ReadWatermark;
 import app.repository.NotificationRepository;
+import app.repository.ReadWatermarkRepository;
+import app.schedule.DeliveryWindow;
+import app.schedule.ScheduledDeliveryService;
+import app.schedule.ScheduledNotificationDueEvent;
 import app.service.NotificationService;
 import app.service.PreferenceService;
+import app.service.SearchProperties;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
 import app.web.dto.NotificationRequest;
+import app.web.dto.NotificationResponse;
+import app.web.dto.ReadRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -15,16 +31,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-import static java.lang.invoke.ConstantBootstraps.invoke;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -37,191 +52,159 @@ public class NotificationUTest {
     @Mock
     private PreferenceService preferenceService;
     @Mock
-    private MailSender mailSender;
+    private ChannelDispatcher channelDispatcher;
+    @Mock
+    private ScheduledDeliveryService scheduledDeliveryService;
+    @Mock
+    private RecentHistoryCache recentHistoryCache;
+    @Mock
+    private DeduplicationWindow deduplicationWindow;
+    @Mock
+    private ReadWatermarkRepository readWatermarkRepository;
+    @Mock
+    private ArchiveStore archiveStore;
+    @Mock
+    private DeliveryWindow deliveryWindow;
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction());
 
     @Spy
     @InjectMocks
     private NotificationService notificationService;
 
     @Test
-    void whenSendEmail_andEmailNotificationIsNotEnabled_thenThrowException() {
+    void whenSendNotification_thenDispatchToChannelsWithUserPreference() {
         UUID userId = UUID.randomUUID();
 
         NotificationRequest request = NotificationRequest.builder()
                 .userId(userId)
                 .type(NotificationType.EMAIL)
-                .body("")
-                .subject("")
                 .build();
 
         NotificationPreference preference = NotificationPreference.builder()
-                .userId(UUID.randomUUID())
-                .emailNotificationEnabled(false)
+                .userId(userId)
                 .build();
 
+        Notification expected = Notification.builder().id(UUID.randomUUID()).build();
+
         when(preferenceService.getByUserId(userId)).thenReturn(preference);
+        when(channelDispatcher.dispatch(request, preference)).thenReturn(List.of(expected));
 
-        assertThrows(IllegalStateException.class, () -> notificationService.sendEmail(request));
+        List<Notification> result = notificationService.sendNotification(request);
+
+        assertEquals(List.of(expected), result);
+        verify(channelDispatcher).dispatch(request, preference);
+        verify(recentHistoryCache).record(eq(userId), argThat(responses -> responses.size() == 1));
     }
 
     @Test
-    void whenSendEmail_andNotificationStatusIsSucceeded_thenPersistToDatabase() {
+    void whenSendNotification_andSeveralChannelsAnswer_thenReturnEveryOutcomeAcceptedFirst() {
         UUID userId = UUID.randomUUID();
 
         NotificationRequest request = NotificationRequest.builder()
                 .userId(userId)
-                .type(NotificationType.EMAIL)
-                .body("test")
-                .subject("test")
+                .type(NotificationType.REMINDER)
                 .build();
 
         NotificationPreference preference = NotificationPreference.builder()
-                .userId(UUID.randomUUID())
-                .email("ivan@gmail.com")
-                .emailNotificationEnabled(true)
+                .userId(userId)
                 .build();
 
-        when(preferenceService.getByUserId(userId)).thenReturn(preference);
-
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-
-        notificationService.sendEmail(request);
-        verify(notificationRepository).save(captor.capture());
+        Notification failed = Notification.builder().channel("email").status(NotificationStatus.FAILED).build();
+        Notification delivered = Notification.builder().id(UUID.randomUUID()).channel("in-app").status(NotificationStatus.SUCCEEDED).build();
 
-        Notification notification = captor.getValue();
+        when(preferenceService.getByUserId(userId)).thenReturn(preference);
+        when(channelDispatcher.dispatch(request, preference)).thenReturn(List.of(failed, delivered));
 
-        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+        assertEquals(List.of(delivered, failed), notificationService.sendNotification(request));
+        // The failed outcome was never stored, so the cached first page is dropped rather than patched.
+        verify(recentHistoryCache).evict(userId);
     }
 
     @Test
-    void whenSendEmail_andNotificationStatusIsFailed_thenPersistToDatabase() {
-        UUID userId = UUID.randomUUID();
-
+    void whenSendNotification_andScheduledForFuture_thenHandOverToSchedulerWithoutDispatching() {
         NotificationRequest request = NotificationRequest.builder()
-                .userId(userId)
-                .type(NotificationType.EMAIL)
-                .body("test")
-                .subject("test")
-                .build();
-
-        NotificationPreference preference = NotificationPreference.builder()
                 .userId(UUID.randomUUID())
-                .email("ivan@test.bg")
-                .emailNotificationEnabled(true)
+                .type(NotificationType.REMINDER)
+                .scheduledFor(LocalDateTime.now().plusHours(2))
                 .build();
 
-        when(preferenceService.getByUserId(userId)).thenReturn(preference);
-
-        doThrow(new RuntimeException("fail test")).when(mailSender)
-                .send(any(SimpleMailMessage.class));
+        Notification pending = Notification.builder().status(NotificationStatus.PENDING).build();
+        when(scheduledDeliveryService.schedule(request)).thenReturn(pending);
 
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-
-        notificationService.sendEmail(request);
-        verify(notificationRepository).save(captor.capture());
-
-        Notification notification = captor.getValue();
-
-        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertEquals(List.of(pending), notificationService.sendNotification(request));
+        verifyNoInteractions(channelDispatcher, preferenceService);
     }
 
     @Test
-    void whenSendInAppNotification_andParticularNotificationIsNotEnabled_thenSetStatusToFailedAndPersistInTheDatabase() {
-        UUID userId = UUID.randomUUID();
-
+    void whenSendNotification_andDuplicateWithinWindow_thenSuppressWithoutDispatchingOrScheduling() {
         NotificationRequest request = NotificationRequest.builder()
-                .userId(userId)
-                .type(NotificationType.REMINDER)
-                .body("test")
-                .subject("test")
-                .build();
-
-        NotificationPreference preference = NotificationPreference.builder()
                 .userId(UUID.randomUUID())
-                .email("ivan@test.bg")
-                .reminderNotificationEnabled(false)
+                .type(NotificationType.REMINDER)
+                .subject("Task due")
                 .build();
 
-        when(preferenceService.getByUserId(userId)).thenReturn(preference);
-
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        notificationService.sendInAppNotification(request);
+        when(deduplicationWindow.isDuplicate(request)).thenReturn(true);
 
-        verify(notificationRepository).save(captor.capture());
-        Notification notification = captor.getValue();
+        Notification result = notificationService.sendNotification(request).get(0);
 
-        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertEquals(NotificationStatus.SUPPRESSED, result.getStatus());
+        assertEquals("Task due", result.getSubject());
+        verifyNoInteractions(channelDispatcher, preferenceService, scheduledDeliveryService, notificationRepository);
     }
 
     @Test
-    void whenSendInAppNotification_andParticularNotificationIsEnabled_thenSetStatusToFailedAndPersistInTheDatabase() {
+    void whenScheduledNotificationBecomesDue_thenDeliverWithoutDedupCheck() {
         UUID userId = UUID.randomUUID();
-
         NotificationRequest request = NotificationRequest.builder()
                 .userId(userId)
                 .type(NotificationType.REMINDER)
-                .body("test")
-                .subject("test")
-                .build();
-
-        NotificationPreference preference = NotificationPreference.builder()
-                .userId(UUID.randomUUID())
-                .email("ivan@test.bg")
-                .reminderNotificationEnabled(true)
                 .build();
+        NotificationPreference preference = NotificationPreference.builder().userId(userId).build();
 
         when(preferenceService.getByUserId(userId)).thenReturn(preference);
+        when(channelDispatcher.dispatch(request, preference)).thenReturn(List.of(new Notification()));
 
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        notificationService.sendInAppNotification(request);
-
-        verify(notificationRepository).save(captor.capture());
-        Notification notification = captor.getValue();
+        notificationService.onScheduledNotificationDue(new ScheduledNotificationDueEvent(request));
 
-        assertEquals(NotificationStatus.SUCCEEDED, notification.getStatus());
+        verify(channelDispatcher).dispatch(request, preference);
+        verifyNoInteractions(deduplicationWindow);
     }
 
     @Test
-    void whenSendNotification_andNotificationTypeIsEmail_thenInvokeSendEmailMethod() {
-        NotificationRequest request = NotificationRequest.builder()
-                .type(NotificationType.EMAIL)
-                .build();
-
-        Notification expected = new Notification();
-
-        doReturn(expected).when(notificationService).sendEmail(request);
+    void whenDeleteHistory_shouldCallRepositoryWithCorrectUserId() {
+        UUID userId = UUID.randomUUID();
 
-        Notification result = notificationService.sendNotification(request);
+        notificationService.deleteHistory(userId);
 
-        assertSame(expected, result);
-        verify(notificationService).sendEmail(request);
-        verify(notificationService, never()).sendInAppNotification(any());
+        verify(notificationRepository).deleteAllByUserId(userId);
+        verify(recentHistoryCache).clear(userId);
     }
 
     @Test
-    void whenSendNotification_andNotificationTypeIsEmail_thenInvokeSendInAppNotificationMethod() {
-        NotificationRequest request = NotificationRequest.builder()
-                .type(NotificationType.REMINDER)
-                .build();
-
-        Notification expected = new Notification();
-
-        doReturn(expected).when(notificationService).sendInAppNotification(request);
+    void whenGetFirstHistoryPage_andCacheHasIt_thenDoNotQueryRepository() {
+        UUID userId = UUID.randomUUID();
+        List<NotificationResponse> cached = List.of(NotificationResponse.builder().subject("Hello").build());
 
-        Notification result = notificationService.sendNotification(request);
+        when(recentHistoryCache.firstPage(eq(userId), eq(10), any())).thenReturn(Optional.of(cached));
 
-        assertSame(expected, result);
-        verify(notificationService).sendInAppNotification(request);
-        verify(notificationService, never()).sendEmail(any());
+        assertSame(cached, notificationService.getHistoryPage(userId, 0, 10));
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
-    void whenDeleteHistory_shouldCallRepositoryWithCorrectUserId() {
+    void whenGetOlderHistoryPage_thenQueryRepositoryNewestFirst() {
         UUID userId = UUID.randomUUID();
+        Notification older = Notification.builder().userId(userId).subject("Older").build();
 
-        notificationService.deleteHistory(userId);
+        when(notificationRepository.findAllByUserIdAndDeletedFalseOrderByCreatedOnDesc(userId, PageRequest.of(2, 10))).thenReturn(List.of(older));
 
-        verify(notificationRepository).deleteAllByUserId(userId);
+        List<NotificationResponse> page = notificationService.getHistoryPage(userId, 2, 10);
+
+        assertEquals("Older", page.get(0).getSubject());
+        verify(recentHistoryCache, never()).firstPage(any(), anyInt(), any());
     }
 
     @Test
@@ -249,4 +232,163 @@ public class NotificationUTest {
 
         assertSame(list, result);
     }
+
+    @Test
+    void whenMarkRead_withWatermarkInTheFuture_thenAdvanceWatermarkToNowAndEvictCachedHistory() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime before = LocalDateTime.now();
+
+        notificationService.markRead(ReadRequest.builder().userId(userId).upTo(before.plusDays(1)).build());
+
+        ArgumentCaptor<LocalDateTime> upTo = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(readWatermarkRepository).advance(eq(userId), upTo.capture());
+        assertFalse(upTo.getValue().isAfter(LocalDateTime.now()));
+        assertFalse(upTo.getValue().isBefore(before));
+        verify(notificationRepository, never()).markRead(any(), any(), any());
+        verify(recentHistoryCache).evict(userId);
+    }
+
+    @Test
+    void whenMarkRead_withIds_thenMarkThemInOneUpdate() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        notificationService.markRead(ReadRequest.builder().userId(userId).ids(ids).build());
+
+        verify(notificationRepository).markRead(eq(userId), eq(ids), any());
+        verify(readWatermarkRepository, never()).advance(any(), any());
+    }
+
+    @Test
+    void whenMarkRead_withArchivedIds_thenMarkThemInTheArchive() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(notificationRepository.markRead(eq(userId), eq(ids), any())).thenReturn(1);
+
+        notificationService.markRead(ReadRequest.builder().userId(userId).ids(ids).build());
+
+        verify(archiveStore).markRead(eq(userId), eq(ids), any());
+    }
+
+    @Test
+    void whenMarkRead_andEveryIdIsHot_thenLeaveTheArchiveAlone() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(notificationRepository.markRead(eq(userId), eq(ids), any())).thenReturn(2);
+
+        notificationService.markRead(ReadRequest.builder().userId(userId).ids(ids).build());
+
+        verify(archiveStore, never()).markRead(any(), any(), any());
+    }
+
+    @Test
+    void whenGetUnreadPage_thenOnlyLookPastTheWatermark() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime watermark = LocalDateTime.now().minusHours(1);
+        when(readWatermarkRepository.findById(userId)).thenReturn(Optional.of(new ReadWatermark(userId, watermark)));
+        when(notificationRepository.findUnread(userId, watermark, PageRequest.of(0, 20)))
+                .thenReturn(List.of(Notification.builder().userId(userId).subject("New").createdOn(LocalDateTime.now()).build()));
+
+        List<NotificationResponse> unread = notificationService.getUnreadPage(userId, 0, 20);
+
+        assertEquals(1, unread.size());
+        assertFalse(unread.get(0).isRead());
+    }
+
+    @Test
+    void whenHistoryPageReachesPastHotRows_thenContinueWithArchivedNotifications() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Notification hot = Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Hot").createdOn(now).build();
+        List<Notification> archived = List.of(
+                Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Archived 1").createdOn(now.minusDays(100)).build(),
+                Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Archived 2").createdOn(now.minusDays(101)).build(),
+                Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Archived 3").createdOn(now.minusDays(102)).build());
+        when(archiveStore.find(userId)).thenReturn(archived);
+        when(notificationRepository.findAllByUserIdAndDeletedFalseOrderByCreatedOnDesc(userId, PageRequest.of(0, 2))).thenReturn(List.of(hot));
+        when(notificationRepository.findAllByUserIdAndDeletedFalseOrderByCreatedOnDesc(userId, PageRequest.of(1, 2))).thenReturn(List.of());
+        when(notificationRepository.countByUserIdAndDeletedFalse(userId)).thenReturn(1L);
+
+        List<NotificationResponse> first = notificationService.getHistoryPage(userId, 0, 2);
+        List<NotificationResponse> second = notificationService.getHistoryPage(userId, 1, 2);
+
+        assertEquals(List.of("Hot", "Archived 1"), first.stream().map(NotificationResponse::getSubject).toList());
+        assertEquals(List.of("Archived 2", "Archived 3"), second.stream().map(NotificationResponse::getSubject).toList());
+    }
+
+    @Test
+    void whenSearching_thenRequireEveryKeywordAsPrefixOfTheUsersTokensAndDropOperators() {
+        UUID userId = UUID.fromString("0a1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9");
+        Notification match = Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Invoice overdue").createdOn(LocalDateTime.now()).build();
+        when(notificationRepository.search(userId, "+0a1b2c3d4e5f6071invoice* +0a1b2c3d4e5f6071overdue*", PageRequest.of(0, 20)))
+                .thenReturn(List.of(match));
+
+        List<NotificationResponse> results = notificationService.search(userId, "Invoice -overdue* \"at\" invoice", 0, 20);
+
+        assertEquals(List.of("Invoice overdue"), results.stream().map(NotificationResponse::getSubject).toList());
+    }
+
+    @Test
+    void whenKeywordIsLongerThanTheIndexKeepsWithItsToken_thenItIsDropped() {
+        UUID userId = UUID.fromString("0a1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9");
+        SearchProperties properties = new SearchProperties();
+        properties.setMaxTokenSize("0a1b2c3d4e5f6071".length() + "invoice".length());
+        NotificationService service = new NotificationService(notificationRepository, preferenceService, channelDispatcher, scheduledDeliveryService,
+                recentHistoryCache, deduplicationWindow, shardRouter, readWatermarkRepository, archiveStore, deliveryWindow, properties);
+
+        service.search(userId, "invoice invoices", 0, 20);
+
+        verify(notificationRepository).search(userId, "+0a1b2c3d4e5f6071invoice*", PageRequest.of(0, 20));
+    }
+
+    @Test
+    void whenSearchHasNoIndexableKeyword_thenReturnNothingWithoutQuerying() {
+        List<NotificationResponse> results = notificationService.search(UUID.randomUUID(), "a + ()", 0, 20);
+
+        assertTrue(results.isEmpty());
+        verify(notificationRepository, never()).search(any(), any(), any());
+    }
+
+    @Test
+    void whenSendNotification_duringQuietHours_thenDeferToSchedulerWithoutDispatching() {
+        UUID userId = UUID.randomUUID();
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .build();
+        NotificationPreference preference = NotificationPreference.builder().userId(userId).build();
+        LocalDateTime windowOpens = LocalDateTime.now().plusHours(4);
+        Notification pending = Notification.builder().status(NotificationStatus.PENDING).build();
+
+        when(preferenceService.getByUserId(userId)).thenReturn(preference);
+        when(deliveryWindow.deferUntil(request, preference)).thenReturn(Optional.of(windowOpens));
+        when(scheduledDeliveryService.schedule(argThat(deferred -> windowOpens.equals(deferred.getScheduledFor())))).thenReturn(pending);
+
+        assertEquals(List.of(pending), notificationService.sendNotification(request));
+        verifyNoInteractions(channelDispatcher);
+    }
+
+    @Test
+    void whenSendFails_thenRetryWithinDedupWindowIsDelivered() {
+        UUID userId = UUID.randomUUID();
+        NotificationRequest request = NotificationRequest.builder().userId(userId).type(NotificationType.EMAIL).subject("Hi").body("Body").build();
+        NotificationPreference preference = NotificationPreference.builder().userId(userId).build();
+        Notification failed = Notification.builder().status(NotificationStatus.FAILED).build();
+        Notification succeeded = Notification.builder().status(NotificationStatus.SUCCEEDED).build();
+        NotificationService service = new NotificationService(notificationRepository, preferenceService, channelDispatcher, scheduledDeliveryService,
+                recentHistoryCache, new DeduplicationWindow(new DedupProperties()), shardRouter, readWatermarkRepository, archiveStore, deliveryWindow,
+                searchProperties);
+
+        when(preferenceService.getByUserId(userId)).thenReturn(preference);
+        when(channelDispatcher.dispatch(request, preference))
+                .thenThrow(new ChannelSaturatedException("email"))
+                .thenReturn(List.of(failed))
+                .thenReturn(List.of(succeeded))
+                .thenReturn(List.of(succeeded));
+
+        assertThrows(ChannelSaturatedException.class, () -> service.sendNotification(request));
+        assertEquals(List.of(failed), service.sendNotification(request));
+        assertEquals(List.of(succeeded), service.sendNotification(request));
+        assertEquals(NotificationStatus.SUPPRESSED, service.sendNotification(request).get(0).getStatus());
+    }
 }
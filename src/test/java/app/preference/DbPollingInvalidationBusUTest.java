@@ -0,0 +1,52 @@
+package app.preference;
+
+import app.repository.NotificationPreferenceRepository;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DbPollingInvalidationBusUTest {
+
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Test
+    void whenMoreRowsChangedThanBatchSize_thenPageByVersionAndUserIdUntilExhausted() {
+        PreferenceCacheProperties properties = new PreferenceCacheProperties();
+        properties.setPollBatchSize(2);
+        DbPollingInvalidationBus bus = new DbPollingInvalidationBus(preferenceRepository, properties,
+                new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction()));
+        List<PreferenceInvalidation> received = new ArrayList<>();
+        bus.subscribe(received::add);
+
+        LocalDateTime version = LocalDateTime.now();
+        UUID first = new UUID(0L, 1L);
+        UUID second = new UUID(0L, 2L);
+        UUID third = new UUID(0L, 3L);
+
+        when(preferenceRepository.findChangedSince(any(), eq(new UUID(0L, 0L)), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(new PreferenceInvalidation(first, version), new PreferenceInvalidation(second, version)));
+        when(preferenceRepository.findChangedSince(version, second, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new PreferenceInvalidation(third, version)));
+
+        bus.poll();
+
+        assertEquals(List.of(first, second, third), received.stream().map(PreferenceInvalidation::userId).toList());
+    }
+}
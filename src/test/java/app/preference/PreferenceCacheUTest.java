@@ -0,0 +1,82 @@
+package app.preference;
+
+import app.model.NotificationPreference;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreferenceCacheUTest {
+
+    private final LoopbackInvalidationBus bus = new LoopbackInvalidationBus();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void whenAnotherNodePublishesNewerVersion_thenEvictStaleEntry() {
+        PreferenceCache nodeA = new PreferenceCache(new PreferenceCacheProperties(), bus, clock::get);
+        PreferenceCache nodeB = new PreferenceCache(new PreferenceCacheProperties(), bus, clock::get);
+        UUID userId = UUID.randomUUID();
+        LocalDateTime v1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+        nodeB.put(preference(userId, v1, true));
+        bus.publish(new PreferenceInvalidation(userId, v1.plusSeconds(1)));
+
+        assertNull(nodeB.getIfPresent(userId));
+        assertEquals(0, nodeA.size());
+    }
+
+    @Test
+    void whenInvalidationCarriesSameVersion_thenKeepEntry() {
+        PreferenceCache cache = new PreferenceCache(new PreferenceCacheProperties(), bus, clock::get);
+        UUID userId = UUID.randomUUID();
+        LocalDateTime v1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+        cache.put(preference(userId, v1, true));
+        cache.invalidate(new PreferenceInvalidation(userId, v1));
+
+        assertNotNull(cache.getIfPresent(userId));
+    }
+
+    @Test
+    void whenLoadReturnsVersionOlderThanLastInvalidation_thenRefuseToCacheIt() {
+        PreferenceCache cache = new PreferenceCache(new PreferenceCacheProperties(), bus, clock::get);
+        UUID userId = UUID.randomUUID();
+        LocalDateTime v1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+        Optional<NotificationPreference> loaded = cache.get(userId, () -> {
+            bus.publish(new PreferenceInvalidation(userId, v1.plusSeconds(1)));
+            return Optional.of(preference(userId, v1, true));
+        });
+
+        assertTrue(loaded.isPresent());
+        assertNull(cache.getIfPresent(userId));
+        assertFalse(cache.put(preference(userId, v1, true)));
+        assertTrue(cache.put(preference(userId, v1.plusSeconds(1), false)));
+    }
+
+    @Test
+    void whenEntryOutlivesTtl_thenTreatAsMiss() {
+        PreferenceCacheProperties properties = new PreferenceCacheProperties();
+        properties.setTtl(Duration.ofMinutes(1));
+        PreferenceCache cache = new PreferenceCache(properties, bus, clock::get);
+        UUID userId = UUID.randomUUID();
+
+        cache.put(preference(userId, LocalDateTime.now(), true));
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertNull(cache.getIfPresent(userId));
+    }
+
+    private static NotificationPreference preference(UUID userId, LocalDateTime version, boolean emailEnabled) {
+        return NotificationPreference.builder()
+                .userId(userId)
+                .emailNotificationEnabled(emailEnabled)
+                .updatedOn(version)
+                .build();
+    }
+}
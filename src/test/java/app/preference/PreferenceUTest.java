@@ -3,23 +3,31 @@ package app.preference;
 import app.model.NotificationPreference;
 import app.repository.NotificationPreferenceRepository;
 import app.service.PreferenceService;
+import app.shard.ShardRouter;
+import app.shard.ShardingProperties;
 import app.web.dto.PreferenceRequest;
+import app.webhook.WebhookProperties;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.assertj.core.api.BDDAssertions.within;
 
 
@@ -28,47 +36,19 @@ public class PreferenceUTest {
 
     @Mock
     private NotificationPreferenceRepository preferenceRepository;
+    @Mock
+    private PreferenceInvalidationBus invalidationBus;
 
-    @InjectMocks
     private PreferenceService preferenceService;
 
-    @Test
-    void whenUpsertPreferences_andPreferenceIsPresent_thenUpdatePreferencesAndPersistToDatabase() {
-        UUID userId = UUID.randomUUID();
-
-        PreferenceRequest request = PreferenceRequest.builder()
-                .deadLineNotificationEnabled(true)
-                .emailNotificationEnabled(true)
-                .summaryNotificationEnabled(true)
-                .reminderNotificationEnabled(true)
-                .email("ivan@gmail.com")
-                .userId(userId)
-                .build();
-
-        NotificationPreference notificationPreference = NotificationPreference.builder()
-                .deadLineNotificationEnabled(false)
-                .emailNotificationEnabled(false)
-                .summaryNotificationEnabled(false)
-                .reminderNotificationEnabled(false)
-                .email("ivan@gmail.com")
-                .userId(userId)
-                .build();
-        when(preferenceRepository.findByUserId(userId)).thenReturn(Optional.of(notificationPreference));
-
-        preferenceService.upsert(request);
-
-        assertTrue(notificationPreference.isDeadLineNotificationEnabled());
-        assertTrue(notificationPreference.isEmailNotificationEnabled());
-        assertTrue(notificationPreference.isSummaryNotificationEnabled());
-        assertTrue(notificationPreference.isReminderNotificationEnabled());
-        assertEquals(request.getEmail(), notificationPreference.getEmail());
-        assertThat(notificationPreference.getUpdatedOn()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.SECONDS));
-
-        verify(preferenceRepository).save(notificationPreference);
+    @BeforeEach
+    void setUp() {
+        preferenceService = new PreferenceService(preferenceRepository, new PreferenceCache(new PreferenceCacheProperties(), invalidationBus), invalidationBus,
+                new ShardRouter(new ShardingProperties(), TransactionOperations.withoutTransaction()), new WebhookProperties());
     }
 
     @Test
-    void whenUpsertPreferences_andPreferenceIsEmpty_thenPersistPreferencesToDatabase() {
+    void whenUpsertPreferences_thenIssueSingleUpsertWithoutReadingFirst() {
         UUID userId = UUID.randomUUID();
 
         PreferenceRequest request = PreferenceRequest.builder()
@@ -80,15 +60,18 @@ public class PreferenceUTest {
                 .userId(userId)
                 .build();
 
-        when(preferenceRepository.findByUserId(userId)).thenReturn(Optional.empty());
-
-        preferenceService.upsert(request);
+        NotificationPreference result = preferenceService.upsert(request);
 
         ArgumentCaptor<NotificationPreference> captor = ArgumentCaptor.forClass(NotificationPreference.class);
 
-        verify(preferenceRepository).save(captor.capture());
+        verify(preferenceRepository).upsert(captor.capture());
+        verify(preferenceRepository, never()).findByUserId(any());
+        verify(invalidationBus).publish(new PreferenceInvalidation(userId, result.getUpdatedOn()));
         NotificationPreference saved = captor.getValue();
 
+        assertSame(saved, result);
+        assertNotNull(saved.getId());
+        assertEquals(userId, saved.getUserId());
         assertTrue(saved.isDeadLineNotificationEnabled());
         assertTrue(saved.isEmailNotificationEnabled());
         assertTrue(saved.isSummaryNotificationEnabled());
@@ -96,7 +79,58 @@ public class PreferenceUTest {
         assertEquals(request.getEmail(), saved.getEmail());
         assertThat(saved.getUpdatedOn()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.SECONDS));
         assertThat(saved.getCreatedOn()).isCloseTo(LocalDateTime.now(), within(1, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void whenUpsertAllPreferences_thenIssueOneBulkUpsertForAllUsers() {
+        List<PreferenceRequest> requests = List.of(
+                PreferenceRequest.builder().userId(UUID.randomUUID()).email("a@gmail.com").emailNotificationEnabled(true).build(),
+                PreferenceRequest.builder().userId(UUID.randomUUID()).email("b@gmail.com").reminderNotificationEnabled(true).build());
+
+        int upserted = preferenceService.upsertAll(requests);
+
+        ArgumentCaptor<Collection<NotificationPreference>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(preferenceRepository).upsertAll(captor.capture());
+        verify(invalidationBus, times(2)).publish(any());
 
+        assertEquals(2, upserted);
+        assertEquals(List.of("a@gmail.com", "b@gmail.com"), captor.getValue().stream().map(NotificationPreference::getEmail).toList());
+    }
+
+    @Test
+    void whenUpsertAllPreferences_andNothingToImport_thenDoNotTouchDatabase() {
+        assertEquals(0, preferenceService.upsertAll(List.of()));
+
+        verifyNoInteractions(preferenceRepository);
+    }
+
+    @Test
+    void whenGetPreferenceByUserIdTwice_thenLoadFromRepositoryOnce() {
+        UUID userId = UUID.randomUUID();
+        NotificationPreference preference = NotificationPreference.builder().userId(userId).updatedOn(LocalDateTime.now()).build();
+
+        when(preferenceRepository.findByUserId(userId)).thenReturn(Optional.of(preference));
+
+        assertSame(preference, preferenceService.getByUserId(userId));
+        assertSame(preference, preferenceService.getByUserId(userId));
+        verify(preferenceRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    void whenGetPreferencesByUserIds_thenServeCachedUsersAndLoadOnlyTheRest() {
+        UUID cachedUser = UUID.randomUUID();
+        UUID missingUser = UUID.randomUUID();
+        NotificationPreference cached = NotificationPreference.builder().userId(cachedUser).updatedOn(LocalDateTime.now()).build();
+        NotificationPreference loaded = NotificationPreference.builder().userId(missingUser).updatedOn(LocalDateTime.now()).build();
+
+        when(preferenceRepository.findByUserId(cachedUser)).thenReturn(Optional.of(cached));
+        when(preferenceRepository.findAllByUserIdIn(List.of(missingUser))).thenReturn(List.of(loaded));
+        preferenceService.getByUserId(cachedUser);
+
+        Map<UUID, NotificationPreference> result = preferenceService.getByUserIds(List.of(cachedUser, missingUser));
+
+        assertSame(cached, result.get(cachedUser));
+        assertSame(loaded, result.get(missingUser));
     }
 
     @Test
@@ -107,4 +141,29 @@ public class PreferenceUTest {
         assertThrows(RuntimeException.class, () -> preferenceService.getByUserId(userId));
     }
 
+    @Test
+    void whenWebhookUrlIsNotPublicHttp_thenRejectUpsertWithoutWriting() {
+        for (String url : List.of("file:///etc/passwd", "gopher://example.com", "http://localhost:8080/hook",
+                "http://127.0.0.1/hook", "https://10.0.0.5/hook", "http://169.254.169.254/latest", "http://[::1]/hook", "not a url")) {
+            PreferenceRequest request = PreferenceRequest.builder().userId(UUID.randomUUID()).webhookUrl(url).build();
+
+            assertThrows(InvalidPreferenceException.class, () -> preferenceService.upsert(request), url);
+        }
+
+        verifyNoInteractions(preferenceRepository);
+        assertDoesNotThrow(() -> preferenceService.upsert(PreferenceRequest.builder()
+                .userId(UUID.randomUUID()).webhookUrl("https://hooks.example.com/notify").build()));
+    }
+
+    @Test
+    void whenQuietHoursAreIncomplete_orZoneIsUnknown_thenRejectBeforeWriting() {
+        UUID userId = UUID.randomUUID();
+
+        assertThrows(InvalidPreferenceException.class, () -> preferenceService.upsert(PreferenceRequest.builder()
+                .userId(userId).quietHoursStart(LocalTime.of(22, 0)).build()));
+        assertThrows(InvalidPreferenceException.class, () -> preferenceService.upsertAll(List.of(PreferenceRequest.builder()
+                .userId(userId).quietHoursStart(LocalTime.of(22, 0)).quietHoursEnd(LocalTime.of(7, 0)).timeZone("Mars/Olympus_Mons").build())));
+
+        verifyNoInteractions(preferenceRepository);
+    }
 }
@@ -0,0 +1,70 @@
+package app.repository;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class NotificationRepositoryUTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void whenInsertBatchHasABadRow_thenTheWholeBatchFails() {
+        UUID userId = UUID.randomUUID();
+        Notification good = notification(userId, "Hello");
+        Notification tooLong = notification(userId, "x".repeat(300));
+
+        assertThrows(RuntimeException.class, () -> notificationRepository.insertAll(List.of(good, tooLong)));
+
+        assertTrue(notificationRepository.findAllByUserId(userId).isEmpty());
+    }
+
+    @Test
+    void whenInsertBatchRepeatsAnId_thenTheWholeBatchFails() {
+        UUID userId = UUID.randomUUID();
+        Notification first = notification(userId, "Hello");
+        notificationRepository.insertAll(List.of(first));
+
+        assertThrows(RuntimeException.class, () -> notificationRepository.insertAll(List.of(notification(userId, "Other"), first)));
+
+        assertEquals(1, notificationRepository.findAllByUserId(userId).size());
+    }
+
+    @Test
+    void whenCopyingARowThatExists_thenSkipIt() {
+        UUID userId = UUID.randomUUID();
+        Notification first = notification(userId, "Hello");
+        notificationRepository.insertAll(List.of(first));
+
+        assertEquals(1, notificationRepository.copyAll(List.of(first, notification(userId, "Other"))));
+
+        assertEquals(2, notificationRepository.findAllByUserId(userId).size());
+    }
+
+    private static Notification notification(UUID userId, String subject) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .subject(subject)
+                .body("Body")
+                .type(NotificationType.REMINDER)
+                .status(NotificationStatus.SUCCEEDED)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
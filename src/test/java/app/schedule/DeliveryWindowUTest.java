@@ -0,0 +1,85 @@
+package app.schedule;
+
+import app.model.NotificationPreference;
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeliveryWindowUTest {
+
+    private static final ZoneId SERVER_ZONE = ZoneOffset.UTC;
+
+    @Test
+    void whenInsideOvernightQuietHours_thenDeferToTheirEndInTheUsersZone() {
+        // 03:00 in Berlin (CEST, UTC+2) on a summer night
+        DeliveryWindow window = windowAt(Instant.parse("2026-07-01T01:00:00Z"), Duration.ZERO);
+
+        Optional<LocalDateTime> deferUntil = window.deferUntil(request(NotificationType.EMAIL), quietHours("22:00", "07:00", "Europe/Berlin"));
+
+        assertEquals(Optional.of(LocalDateTime.of(2026, 7, 1, 5, 0)), deferUntil);
+    }
+
+    @Test
+    void whenQuietHoursStartedBeforeMidnight_thenDeferToTheNextMorning() {
+        DeliveryWindow window = windowAt(Instant.parse("2026-07-01T23:30:00Z"), Duration.ZERO);
+
+        Optional<LocalDateTime> deferUntil = window.deferUntil(request(NotificationType.REMINDER), quietHours("22:00", "07:00", null));
+
+        assertEquals(Optional.of(LocalDateTime.of(2026, 7, 2, 7, 0)), deferUntil);
+    }
+
+    @Test
+    void whenOutsideQuietHours_thenDeliverNow() {
+        DeliveryWindow window = windowAt(Instant.parse("2026-07-01T12:00:00Z"), Duration.ZERO);
+
+        assertTrue(window.deferUntil(request(NotificationType.EMAIL), quietHours("22:00", "07:00", null)).isEmpty());
+        assertTrue(window.deferUntil(request(NotificationType.EMAIL), quietHours("13:00", "15:00", null)).isEmpty());
+    }
+
+    @Test
+    void whenAlertOrNoQuietHours_thenDeliverNow() {
+        DeliveryWindow window = windowAt(Instant.parse("2026-07-01T23:30:00Z"), Duration.ZERO);
+
+        assertTrue(window.deferUntil(request(NotificationType.ALERT), quietHours("22:00", "07:00", null)).isEmpty());
+        assertTrue(window.deferUntil(request(NotificationType.EMAIL), NotificationPreference.builder().build()).isEmpty());
+    }
+
+    @Test
+    void whenReleaseIsSpread_thenSameUserAlwaysGetsTheSameOffsetWithinTheSpread() {
+        DeliveryWindow window = windowAt(Instant.parse("2026-07-01T23:30:00Z"), Duration.ofMinutes(15));
+        NotificationRequest request = request(NotificationType.EMAIL);
+        NotificationPreference preference = quietHours("22:00", "07:00", null);
+        LocalDateTime windowEnd = LocalDateTime.of(2026, 7, 2, 7, 0);
+
+        LocalDateTime first = window.deferUntil(request, preference).orElseThrow();
+        LocalDateTime second = window.deferUntil(request, preference).orElseThrow();
+
+        assertEquals(first, second);
+        assertFalse(first.isBefore(windowEnd));
+        assertTrue(first.isBefore(windowEnd.plusMinutes(15)));
+    }
+
+    private static DeliveryWindow windowAt(Instant now, Duration releaseSpread) {
+        QuietHoursProperties properties = new QuietHoursProperties();
+        properties.setReleaseSpread(releaseSpread);
+        return new DeliveryWindow(properties, Clock.fixed(now, SERVER_ZONE));
+    }
+
+    private static NotificationRequest request(NotificationType type) {
+        return NotificationRequest.builder().userId(UUID.randomUUID()).type(type).build();
+    }
+
+    private static NotificationPreference quietHours(String start, String end, String timeZone) {
+        return NotificationPreference.builder()
+                .quietHoursStart(LocalTime.parse(start))
+                .quietHoursEnd(LocalTime.parse(end))
+                .timeZone(timeZone)
+                .build();
+    }
+}
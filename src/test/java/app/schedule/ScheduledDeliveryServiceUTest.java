@@ -0,0 +1,130 @@
+package app.schedule;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.model.ScheduleState;
+import app.model.ScheduledNotification;
+import app.repository.ScheduledNotificationRepository;
+import app.web.dto.NotificationRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ScheduledDeliveryServiceUTest {
+
+    private final ScheduledNotificationRepository repository = mock(ScheduledNotificationRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private ScheduledDeliveryService service;
+
+    @BeforeEach
+    void setUp() {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setTick(Duration.ofMillis(10));
+        properties.setHorizon(Duration.ofMinutes(1));
+        properties.setLoadBatchSize(2);
+
+        service = new ScheduledDeliveryService(repository, eventPublisher, properties);
+        service.start();
+
+        when(repository.save(any())).thenAnswer(invocation -> {
+            ScheduledNotification scheduled = invocation.getArgument(0);
+            scheduled.setId(UUID.randomUUID());
+            return scheduled;
+        });
+        when(repository.transition(any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void whenScheduleWithinHorizon_thenPersistPendingAndFireFromTheWheel() {
+        NotificationRequest request = NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject("Standup")
+                .body("in 5 minutes")
+                .type(NotificationType.REMINDER)
+                .channels(Set.of("in-app"))
+                .scheduledFor(LocalDateTime.now().plusNanos(50_000_000))
+                .build();
+
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.of(ScheduledNotification.builder()
+                .id(invocation.getArgument(0))
+                .userId(request.getUserId())
+                .subject(request.getSubject())
+                .body(request.getBody())
+                .type(request.getType())
+                .channels("in-app")
+                .build()));
+
+        Notification pending = service.schedule(request);
+
+        assertEquals(NotificationStatus.PENDING, pending.getStatus());
+        verify(eventPublisher, timeout(2_000)).publishEvent(any(ScheduledNotificationDueEvent.class));
+        verify(repository, timeout(2_000)).transition(any(), eq(ScheduleState.DISPATCHING), eq(ScheduleState.DISPATCHED), any());
+    }
+
+    @Test
+    void whenAnotherInstanceAlreadyClaimedTheItem_thenDoNotPublish() {
+        when(repository.transition(any(), eq(ScheduleState.PENDING), eq(ScheduleState.DISPATCHING), any())).thenReturn(0);
+
+        service.schedule(NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject("s")
+                .body("b")
+                .type(NotificationType.DEADLINE)
+                .scheduledFor(LocalDateTime.now().minusSeconds(1))
+                .build());
+
+        verify(repository, timeout(2_000)).transition(any(), eq(ScheduleState.PENDING), eq(ScheduleState.DISPATCHING), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void whenLoadingUpcoming_thenPageThroughIndexWithKeysetCursor() {
+        LocalDateTime soon = LocalDateTime.now().plusMinutes(10);
+        ScheduledNotification first = ScheduledNotification.builder().id(UUID.randomUUID()).dueAt(soon).build();
+        ScheduledNotification second = ScheduledNotification.builder().id(UUID.randomUUID()).dueAt(soon).build();
+        ScheduledNotification third = ScheduledNotification.builder().id(UUID.randomUUID()).dueAt(soon.plusSeconds(1)).build();
+
+        when(repository.findPendingAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        service.loadUpcoming();
+
+        verify(repository).findPendingAfter(eq(soon), eq(second.getId()), any(), any());
+        assertEquals(3, service.pendingInMemory());
+    }
+
+    @Test
+    void whenOverduePendingRowIsBehindTheWatermark_thenNextLoadPicksItUp() {
+        when(repository.findPendingAfter(any(), any(), any(), any())).thenReturn(List.of());
+        service.loadUpcoming();
+
+        // Left PENDING by an instance that crashed with it in its wheel.
+        ScheduledNotification orphan = ScheduledNotification.builder().id(UUID.randomUUID()).dueAt(LocalDateTime.now().minusMinutes(5)).build();
+        when(repository.findPendingAfter(eq(LocalDateTime.of(1970, 1, 1, 0, 0)), any(), any(), any())).thenReturn(List.of(orphan));
+        when(repository.transition(eq(orphan.getId()), eq(ScheduleState.PENDING), eq(ScheduleState.DISPATCHING), any())).thenReturn(0);
+
+        service.loadUpcoming();
+
+        verify(repository, timeout(2_000)).transition(eq(orphan.getId()), eq(ScheduleState.PENDING), eq(ScheduleState.DISPATCHING), any());
+    }
+}
@@ -0,0 +1,58 @@
+package app.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelUTest {
+
+    @Test
+    void whenItemIsAlreadyDue_thenAddReturnsFalse() {
+        long now = System.currentTimeMillis();
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, now);
+
+        assertFalse(wheel.add("overdue", now - 1_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void whenItemsSpanSeveralWheelLevels_thenTheyExpireInDueOrder() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, now);
+
+        assertTrue(wheel.add("level-2", now + 250));
+        assertTrue(wheel.add("level-0", now + 25));
+        assertTrue(wheel.add("level-1", now + 90));
+        assertEquals(3, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (fired.size() < 3 && System.currentTimeMillis() < deadline) {
+            for (String item : wheel.poll(50)) {
+                fired.add(item);
+                assertTrue(System.currentTimeMillis() >= now + dueOffset(item) - 10, item + " fired early");
+            }
+        }
+
+        assertEquals(List.of("level-0", "level-1", "level-2"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void whenNothingIsScheduled_thenPollTimesOutEmpty() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, System.currentTimeMillis());
+
+        assertTrue(wheel.poll(20).isEmpty());
+    }
+
+    private static long dueOffset(String item) {
+        return switch (item) {
+            case "level-0" -> 25;
+            case "level-1" -> 90;
+            default -> 250;
+        };
+    }
+}
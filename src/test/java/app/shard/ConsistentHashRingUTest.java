@@ -0,0 +1,49 @@
+package app.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingUTest {
+
+    @Test
+    void whenUsersAreMapped_thenSpreadThemRoughlyEvenlyAcrossMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.shardFor(UUID.randomUUID()), 1, Integer::sum);
+        }
+
+        assertEquals(Set.of("a", "b", "c"), counts.keySet());
+        counts.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, "unbalanced: " + counts));
+    }
+
+    @Test
+    void whenMemberIsAdded_thenOnlyUsersMovingToItChangeOwner() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 160);
+        int moved = 0;
+
+        for (int i = 0; i < 20_000; i++) {
+            UUID userId = UUID.randomUUID();
+            String owner = after.shardFor(userId);
+            if (!owner.equals(before.shardFor(userId))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 3_000 && moved < 7_000, "moved " + moved);
+    }
+
+    @Test
+    void whenSameUserIsMappedTwice_thenReturnSameShard() {
+        UUID userId = UUID.randomUUID();
+
+        assertEquals(new ConsistentHashRing(List.of("a", "b"), 64).shardFor(userId),
+                new ConsistentHashRing(List.of("a", "b"), 64).shardFor(userId));
+    }
+}
@@ -0,0 +1,97 @@
+package app.shard;
+
+import app.model.Notification;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.repository.ReadWatermarkRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ShardBackfillUTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final NotificationPreferenceRepository preferenceRepository = mock(NotificationPreferenceRepository.class);
+    private final ReadWatermarkRepository readWatermarkRepository = mock(ReadWatermarkRepository.class);
+
+    @Test
+    void whenNotificationIsDeletedOnSourceDuringCopy_thenDeleteItOnTargetAfterwards() {
+        ShardingProperties properties = properties(List.of("a", "b"), List.of("a", "b", "c"));
+        ShardRouter router = new ShardRouter(properties, TransactionOperations.withoutTransaction());
+        UUID userId = userOwnedBy(router, "a", "c");
+        Notification kept = notification(userId);
+        Notification deleted = notification(userId);
+
+        when(notificationRepository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenAnswer(invocation -> "a".equals(ShardContext.current()) ? List.of(kept, deleted) : List.of());
+        when(notificationRepository.findAllById(any())).thenReturn(List.of(kept));
+        List<String> deletedOn = new ArrayList<>();
+        doAnswer(invocation -> deletedOn.add(ShardContext.current())).when(notificationRepository).deleteAllByIdInBatch(any());
+
+        backfill(router, properties).run();
+
+        verify(notificationRepository).copyAll(List.of(kept, deleted));
+        verify(notificationRepository).deleteAllByIdInBatch(List.of(deleted.getId()));
+        assertEquals(List.of("c"), deletedOn);
+    }
+
+    @Test
+    void whenCleaningUpAfterCutover_thenDeleteOnlyRowsOfUsersTheShardNoLongerOwns() {
+        ShardingProperties properties = properties(List.of("a", "b", "c"), List.of());
+        ShardRouter router = new ShardRouter(properties, TransactionOperations.withoutTransaction());
+        Notification moved = notification(userOwnedBy(router, "c", "c"));
+        Notification stays = notification(userOwnedBy(router, "a", "a"));
+
+        when(notificationRepository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenAnswer(invocation -> "a".equals(ShardContext.current()) ? List.of(moved, stays) : List.of());
+
+        long deleted = backfill(router, properties).cleanup();
+
+        assertEquals(1, deleted);
+        verify(notificationRepository).deleteAllByIdInBatch(eq(List.of(moved.getId())));
+        verify(preferenceRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void whenStillResharding_thenCleanupDoesNothing() {
+        ShardingProperties properties = properties(List.of("a", "b"), List.of("a", "b", "c"));
+        ShardRouter router = new ShardRouter(properties, TransactionOperations.withoutTransaction());
+
+        assertEquals(0, backfill(router, properties).cleanup());
+        verifyNoInteractions(notificationRepository);
+    }
+
+    private ShardBackfill backfill(ShardRouter router, ShardingProperties properties) {
+        return new ShardBackfill(router, notificationRepository, preferenceRepository, readWatermarkRepository, properties);
+    }
+
+    private static UUID userOwnedBy(ShardRouter router, String current, String target) {
+        while (true) {
+            UUID userId = UUID.randomUUID();
+            if (router.currentOwner(userId).equals(current) && router.targetOwner(userId).equals(target)) {
+                return userId;
+            }
+        }
+    }
+
+    private static Notification notification(UUID userId) {
+        return Notification.builder().id(UUID.randomUUID()).userId(userId).subject("Hello").build();
+    }
+
+    private static ShardingProperties properties(List<String> ring, List<String> targetRing) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (String name : List.of("a", "b", "c")) {
+            properties.getShards().put(name, new ShardingProperties.Shard());
+        }
+        properties.setRing(ring);
+        properties.getResharding().setTargetRing(targetRing);
+        return properties;
+    }
+}
@@ -0,0 +1,104 @@
+package app.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRouterUTest {
+
+    @Test
+    void whenResharding_andOwnerChanges_thenWriteToCurrentOwnerThenReplayOnTargetOwner() {
+        ShardRouter router = router(false);
+        UUID userId = userMovingTo(router, "c");
+        List<String> writes = new ArrayList<>();
+
+        String result = router.write(userId, () -> {
+            writes.add(ShardContext.current());
+            return "saved";
+        }, saved -> writes.add(ShardContext.current() + ":" + saved));
+
+        assertEquals("saved", result);
+        assertEquals(List.of(router.currentOwner(userId), "c:saved"), writes);
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    void whenReadingFromTarget_thenTargetOwnerIsAuthoritativeAndOldOwnerIsReplica() {
+        ShardRouter router = router(true);
+        UUID userId = userMovingTo(router, "c");
+        List<String> writes = new ArrayList<>();
+
+        router.write(userId, () -> writes.add(ShardContext.current()), ignored -> writes.add(ShardContext.current()));
+
+        assertEquals("c", router.read(userId, ShardContext::current));
+        assertEquals(List.of("c", router.currentOwner(userId)), writes);
+    }
+
+    @Test
+    void whenReplayFails_thenKeepPrimaryResultAndCountFailure() {
+        ShardRouter router = router(false);
+        UUID userId = userMovingTo(router, "c");
+
+        String result = router.write(userId, () -> "saved", saved -> {
+            throw new IllegalStateException("shard c is down");
+        });
+
+        assertEquals("saved", result);
+        assertEquals(1, router.replicaFailures());
+    }
+
+    @Test
+    void whenWritingBatch_thenRunOneUnitOfWorkPerShard() {
+        ShardRouter router = router(false);
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+        Map<String, List<UUID>> primary = new HashMap<>();
+        Map<String, List<UUID>> replica = new HashMap<>();
+
+        router.writeAll(userIds, userId -> userId, chunk -> primary.put(ShardContext.current(), chunk),
+                chunk -> replica.put(ShardContext.current(), chunk));
+
+        assertEquals(Set.of("a", "b"), primary.keySet());
+        assertEquals(Set.of("c"), replica.keySet());
+        primary.forEach((shard, chunk) -> chunk.forEach(userId -> assertEquals(shard, router.currentOwner(userId))));
+        replica.get("c").forEach(userId -> assertEquals("c", router.targetOwner(userId)));
+    }
+
+    @Test
+    void whenRingNamesUnknownShard_thenFailFast() {
+        ShardingProperties properties = properties(false);
+        properties.getResharding().setTargetRing(List.of("a", "b", "x"));
+
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(properties, TransactionOperations.withoutTransaction()));
+    }
+
+    private static UUID userMovingTo(ShardRouter router, String shard) {
+        while (true) {
+            UUID userId = UUID.randomUUID();
+            if (router.targetOwner(userId).equals(shard) && !router.currentOwner(userId).equals(shard)) {
+                return userId;
+            }
+        }
+    }
+
+    private static ShardRouter router(boolean readFromTarget) {
+        return new ShardRouter(properties(readFromTarget), TransactionOperations.withoutTransaction());
+    }
+
+    private static ShardingProperties properties(boolean readFromTarget) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (String name : List.of("a", "b", "c")) {
+            properties.getShards().put(name, new ShardingProperties.Shard());
+        }
+        properties.setRing(List.of("a", "b"));
+        properties.getResharding().setTargetRing(List.of("a", "b", "c"));
+        properties.getResharding().setReadFromTarget(readFromTarget);
+        return properties;
+    }
+}
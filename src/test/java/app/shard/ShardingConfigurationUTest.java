@@ -0,0 +1,45 @@
+package app.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardingConfigurationUTest {
+
+    @Test
+    void whenDataSourcePropertiesAreConfigured_thenEveryShardPoolGetsThemAndShardEntriesWin() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        for (String name : new String[]{"a", "b"}) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:shard-" + name);
+            properties.getShards().put(name, shard);
+        }
+        properties.getShards().get("b").getDataSourceProperties().put("prepStmtCacheSize", "50");
+        properties.setRing(List.of("a", "b"));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.data-source-properties.rewriteBatchedStatements", "true")
+                .withProperty("spring.datasource.hikari.data-source-properties.prepStmtCacheSize", "500");
+
+        ShardRoutingDataSource dataSource = (ShardRoutingDataSource) new ShardingConfiguration().dataSource(properties, environment);
+        dataSource.afterPropertiesSet();
+        Map<Object, DataSource> shards = dataSource.getResolvedDataSources();
+
+        try {
+            HikariDataSource a = (HikariDataSource) shards.get("a");
+            HikariDataSource b = (HikariDataSource) shards.get("b");
+            assertEquals("true", a.getDataSourceProperties().getProperty("rewriteBatchedStatements"));
+            assertEquals("500", a.getDataSourceProperties().getProperty("prepStmtCacheSize"));
+            assertEquals("true", b.getDataSourceProperties().getProperty("rewriteBatchedStatements"));
+            assertEquals("50", b.getDataSourceProperties().getProperty("prepStmtCacheSize"));
+        } finally {
+            shards.values().forEach(shard -> ((HikariDataSource) shard).close());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package app.web;
+
+import app.model.Notification;
+import app.model.NotificationType;
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = NotificationController.class, properties = {
+        "notifications.limiter.initial-limit=1",
+        "notifications.limiter.min-limit=1",
+        "notifications.limiter.max-limit=1"
+})
+public class ConcurrencyLimitApiTest {
+
+    @MockitoBean
+    private NotificationService service;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void whenLimitIsSaturated_thenRejectSendsWith503UntilASlotFrees() throws Exception {
+        CountDownLatch inService = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Notification saved = Notification.builder()
+                .id(UUID.randomUUID())
+                .subject("Hello")
+                .type(NotificationType.REMINDER)
+                .createdOn(LocalDateTime.now())
+                .channel("in-app")
+                .build();
+        when(service.sendNotification(any())).thenAnswer(invocation -> {
+            inService.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(saved);
+        });
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                mockMvc.perform(send()).andExpect(status().isCreated());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(inService.await(5, TimeUnit.SECONDS));
+
+        mockMvc.perform(send())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("message").isNotEmpty());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        mockMvc.perform(send()).andExpect(status().isCreated());
+        verify(service, times(2)).sendNotification(any());
+    }
+
+    private static MockHttpServletRequestBuilder send() throws Exception {
+        NotificationRequest request = NotificationRequest.builder()
+                .subject("Hello")
+                .userId(UUID.randomUUID())
+                .build();
+
+        return post("/api/v1/notifications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsBytes(request));
+    }
+}
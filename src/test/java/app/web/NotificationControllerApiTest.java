@@ -5,6 +5,7 @@ import app.model.NotificationType;
 import app.service.NotificationService;
 import app.web.dto.NotificationRequest;
 import app.web.dto.NotificationResponse;
+import app.web.dto.ReadRequest;
 import app.web.mapper.DtoMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,8 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -48,10 +51,11 @@ public class NotificationControllerApiTest {
                 .subject("Hello")
                 .type(NotificationType.REMINDER)
                 .createdOn(LocalDateTime.now())
+                .channel("in-app")
                 .build();
 
         when(service.sendNotification(any()))
-                .thenReturn(savedNotification);
+                .thenReturn(List.of(savedNotification));
 
         MockHttpServletRequestBuilder httpRequest = post("/api/v1/notifications")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -61,7 +65,8 @@ public class NotificationControllerApiTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("subject").isNotEmpty())
                 .andExpect(jsonPath("type").isNotEmpty())
-                .andExpect(jsonPath("createdOn").isNotEmpty());
+                .andExpect(jsonPath("createdOn").isNotEmpty())
+                .andExpect(jsonPath("deliveries[0].channel").value("in-app"));
         verify(service).sendNotification(any());
     }
 
@@ -91,6 +96,48 @@ public class NotificationControllerApiTest {
                 .andExpect(jsonPath("$[1].subject").value("Hello"));
     }
 
+    @Test
+    void getHistoryPage_shouldReturnRequestedPageFromService() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        when(service.getHistoryPage(userId, 0, 5)).thenReturn(List.of(NotificationResponse.builder().subject("Latest").build()));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/notifications")
+                .param("userId", userId.toString())
+                .param("page", "0")
+                .param("size", "5");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].subject").value("Latest"));
+        verify(service).getHistoryPage(userId, 0, 5);
+    }
+
+    @Test
+    void search_shouldReturnRankedPageFromService() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        when(service.search(userId, "invoice", 1, 10)).thenReturn(List.of(NotificationResponse.builder().subject("Invoice").build()));
+
+        mockMvc.perform(get("/api/v1/notifications/search")
+                        .param("userId", userId.toString())
+                        .param("q", "invoice")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].subject").value("Invoice"));
+    }
+
+    @Test
+    void search_withBlankQuery_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/notifications/search")
+                        .param("userId", UUID.randomUUID().toString())
+                        .param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).search(any(), any(), anyInt(), anyInt());
+    }
+
     public Notification randomNotification() {
         return Notification.builder()
                 .id(UUID.randomUUID())
@@ -115,4 +162,30 @@ public class NotificationControllerApiTest {
         verify(service).deleteHistory(any());
     }
 
+    @Test
+    void markRead_shouldReturn204AndDelegateToService() throws Exception {
+        ReadRequest request = ReadRequest.builder()
+                .userId(UUID.randomUUID())
+                .ids(List.of(UUID.randomUUID()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/notifications/read")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsBytes(request)))
+                .andExpect(status().isNoContent());
+
+        verify(service).markRead(any());
+    }
+
+    @Test
+    void markRead_withoutIdsOrWatermark_shouldReturn400() throws Exception {
+        ReadRequest request = ReadRequest.builder().userId(UUID.randomUUID()).build();
+
+        mockMvc.perform(post("/api/v1/notifications/read")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsBytes(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).markRead(any());
+    }
 }
@@ -0,0 +1,187 @@
+package app.web;
+
+import app.model.NotificationType;
+import app.web.dto.NotificationRequest;
+import app.web.dto.PreferenceRequest;
+import app.web.dto.ReadRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the real HTTP API end to end against H2 and a recording mail sender. Unlike the
+ * {@code @WebMvcTest} slices it uses no Mockito, so it is the suite the {@code nativeTest} profile runs.
+ */
+@Tag("native")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class NotificationFlowApiTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecordingMailSender mailSender;
+
+    @Test
+    void sendEmailNotification_thenAppearsInHistoryUntilDeleted() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        ResponseEntity<String> preference = restTemplate.postForEntity("/api/v1/preferences", json(PreferenceRequest.builder()
+                .userId(userId)
+                .emailNotificationEnabled(true)
+                .email("ivan@gmail.com")
+                .build()), String.class);
+        assertEquals(HttpStatus.CREATED, preference.getStatusCode());
+
+        ResponseEntity<String> sent = restTemplate.postForEntity("/api/v1/notifications", json(NotificationRequest.builder()
+                .userId(userId)
+                .subject("Hello")
+                .body("Native")
+                .type(NotificationType.EMAIL)
+                .build()), String.class);
+        assertEquals(HttpStatus.CREATED, sent.getStatusCode());
+        assertEquals("SUCCEEDED", objectMapper.readTree(sent.getBody()).get("status").asText());
+        assertTrue(mailSender.sent.stream().anyMatch(message -> "ivan@gmail.com".equals(message.getTo()[0])));
+
+        JsonNode history = objectMapper.readTree(restTemplate.getForObject("/api/v1/notifications?userId=" + userId, String.class));
+        assertEquals(1, history.size());
+        assertEquals("Hello", history.get(0).get("subject").asText());
+
+        restTemplate.exchange("/api/v1/notifications/history?userId=" + userId, HttpMethod.DELETE, null, Void.class);
+
+        JsonNode afterDelete = objectMapper.readTree(restTemplate.getForObject("/api/v1/notifications?userId=" + userId, String.class));
+        assertEquals(0, afterDelete.size());
+    }
+
+    @Test
+    void markReadByIdAndWatermark_thenUnreadFilterOnlyReturnsNewerNotifications() throws Exception {
+        UUID userId = UUID.randomUUID();
+        restTemplate.postForEntity("/api/v1/preferences", json(PreferenceRequest.builder()
+                .userId(userId)
+                .emailNotificationEnabled(true)
+                .email("maria@gmail.com")
+                .build()), String.class);
+
+        for (String subject : List.of("First", "Second", "Third")) {
+            restTemplate.postForEntity("/api/v1/notifications", json(NotificationRequest.builder()
+                    .userId(userId)
+                    .subject(subject)
+                    .body("Body")
+                    .type(NotificationType.EMAIL)
+                    .build()), String.class);
+        }
+
+        JsonNode history = objectMapper.readTree(restTemplate.getForObject("/api/v1/notifications?userId=" + userId, String.class));
+        UUID third = UUID.fromString(history.get(0).get("id").asText());
+        LocalDateTime firstCreatedOn = LocalDateTime.parse(history.get(2).get("createdOn").asText());
+
+        ResponseEntity<Void> byId = restTemplate.postForEntity("/api/v1/notifications/read",
+                json(ReadRequest.builder().userId(userId).ids(List.of(third)).build()), Void.class);
+        assertEquals(HttpStatus.NO_CONTENT, byId.getStatusCode());
+        restTemplate.postForEntity("/api/v1/notifications/read",
+                json(ReadRequest.builder().userId(userId).upTo(firstCreatedOn).build()), Void.class);
+
+        JsonNode unread = objectMapper.readTree(restTemplate.getForObject("/api/v1/notifications?userId=" + userId + "&unread=true", String.class));
+        assertEquals(1, unread.size());
+        assertEquals("Second", unread.get(0).get("subject").asText());
+
+        JsonNode page = objectMapper.readTree(restTemplate.getForObject("/api/v1/notifications?userId=" + userId + "&page=0", String.class));
+        assertTrue(page.get(0).get("read").asBoolean());
+        assertFalse(page.get(1).get("read").asBoolean());
+        assertTrue(page.get(2).get("read").asBoolean());
+    }
+
+    @Test
+    void sendDuringQuietHours_thenDeferInsteadOfMailing() throws Exception {
+        UUID userId = UUID.randomUUID();
+        LocalTime now = LocalTime.now(ZoneOffset.UTC);
+        restTemplate.postForEntity("/api/v1/preferences", json(PreferenceRequest.builder()
+                .userId(userId)
+                .emailNotificationEnabled(true)
+                .email("olga@gmail.com")
+                .quietHoursStart(now.minusHours(1))
+                .quietHoursEnd(now.plusHours(1))
+                .timeZone("UTC")
+                .build()), String.class);
+
+        JsonNode preference = objectMapper.readTree(restTemplate.getForObject("/api/v1/preferences?userId=" + userId, String.class));
+        assertEquals("UTC", preference.get("timeZone").asText());
+
+        ResponseEntity<String> sent = restTemplate.postForEntity("/api/v1/notifications", json(NotificationRequest.builder()
+                .userId(userId)
+                .subject("Good night")
+                .body("Body")
+                .type(NotificationType.EMAIL)
+                .build()), String.class);
+        assertEquals("PENDING", objectMapper.readTree(sent.getBody()).get("status").asText());
+        assertTrue(mailSender.sent.stream().noneMatch(message -> "olga@gmail.com".equals(message.getTo()[0])));
+    }
+
+    @Test
+    void bulkImportPreferences_thenLookupReturnsEveryUser() throws Exception {
+        List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<PreferenceRequest> requests = userIds.stream()
+                .map(userId -> PreferenceRequest.builder().userId(userId).email(userId + "@gmail.com").build())
+                .toList();
+
+        ResponseEntity<String> imported = restTemplate.postForEntity("/api/v1/preferences/bulk", json(requests), String.class);
+        assertEquals(HttpStatus.CREATED, imported.getStatusCode());
+        assertEquals(3, objectMapper.readTree(imported.getBody()).get("imported").asInt());
+
+        JsonNode lookup = objectMapper.readTree(restTemplate.postForObject("/api/v1/preferences/lookup", json(userIds), String.class));
+        userIds.forEach(userId -> assertEquals(userId + "@gmail.com", lookup.get(userId.toString()).get("email").asText()));
+    }
+
+    private HttpEntity<String> json(Object body) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(objectMapper.writeValueAsString(body), headers);
+    }
+
+    static class RecordingMailSender implements MailSender {
+
+        private final List<SimpleMailMessage> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SimpleMailMessage... messages) {
+            sent.addAll(List.of(messages));
+        }
+    }
+
+    @TestConfiguration
+    static class StubMailConfiguration {
+
+        @Bean
+        RecordingMailSender mailSender() {
+            return new RecordingMailSender();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package app.web;
 
 import app.model.NotificationPreference;
+import app.preference.InvalidPreferenceException;
 import app.service.PreferenceService;
 import app.web.dto.PreferenceRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,11 +14,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.*;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -106,4 +106,125 @@ public class PreferenceControllerApiTest {
     }
 
 
+    @Test
+    void postBulkUpsertPreferences_shouldStreamArrayInBatchesAndReturn201Created() throws Exception {
+        List<PreferenceRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            requests.add(PreferenceRequest.builder()
+                    .userId(UUID.randomUUID())
+                    .emailNotificationEnabled(true)
+                    .email("user" + i + "@gmail.com")
+                    .build());
+        }
+
+        when(service.upsertAll(any())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/preferences/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsBytes(requests));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("imported").value(1200))
+                .andExpect(jsonPath("batches").value(3));
+
+        verify(service, times(3)).upsertAll(any());
+    }
+
+    @Test
+    void postBulkUpsertPreferences_whenElementIsNotAnObject_shouldReturn400WithCommittedCount() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 501; i++) {
+            body.append("{\"userId\":\"").append(UUID.randomUUID()).append("\"},");
+        }
+        body.append("42]");
+
+        when(service.upsertAll(any())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        mockMvc.perform(post("/api/v1/preferences/bulk").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("imported").value(500))
+                .andExpect(jsonPath("batches").value(1))
+                .andExpect(jsonPath("error").value("Element 502 of the bulk preference import is not a JSON object"));
+
+        verify(service, times(1)).upsertAll(any());
+    }
+
+    @Test
+    void postBulkUpsertPreferences_whenArrayIsTruncated_shouldReturn400WithoutWriting() throws Exception {
+        String body = "[{\"userId\":\"" + UUID.randomUUID() + "\"}, {\"userId\":";
+
+        mockMvc.perform(post("/api/v1/preferences/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("imported").value(0))
+                .andExpect(jsonPath("error").isNotEmpty());
+
+        verify(service, never()).upsertAll(any());
+    }
+
+    @Test
+    void postLookupPreferences_shouldReturnPreferencesKeyedByUserId() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID unknownUserId = UUID.randomUUID();
+
+        NotificationPreference preference = NotificationPreference.builder()
+                .userId(userId)
+                .emailNotificationEnabled(true)
+                .email("maxim@gmail.com")
+                .build();
+
+        when(service.getByUserIds(any())).thenReturn(Map.of(userId, preference));
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/preferences/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsBytes(List.of(userId, unknownUserId)));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + userId + "'].email").value("maxim@gmail.com"))
+                .andExpect(jsonPath("$['" + unknownUserId + "']").doesNotExist());
+
+        verify(service).getByUserIds(List.of(userId, unknownUserId));
+    }
+
+    @Test
+    void postUpsertPreference_withUnknownTimeZone_shouldReturn400() throws Exception {
+        String request = """
+                {"userId": "%s", "quietHoursStart": "22:00", "quietHoursEnd": "07:00", "timeZone": "Mars/Olympus_Mons"}
+                """.formatted(UUID.randomUUID());
+        when(service.upsert(any())).thenThrow(new InvalidPreferenceException("Invalid quiet hours"));
+
+        mockMvc.perform(post("/api/v1/preferences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void postBulkUpsertPreferences_withInvalidQuietHours_shouldReturn400WithCommittedCount() throws Exception {
+        String request = """
+                [{"userId": "%s", "quietHoursStart": "22:00"}]
+                """.formatted(UUID.randomUUID());
+        when(service.upsertAll(any())).thenThrow(new InvalidPreferenceException("Invalid quiet hours"));
+
+        mockMvc.perform(post("/api/v1/preferences/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("imported").value(0))
+                .andExpect(jsonPath("error").value("Invalid quiet hours"));
+    }
+
+    @Test
+    void postUpsertPreference_withRejectedWebhookUrl_shouldReturn400() throws Exception {
+        when(service.upsert(any())).thenThrow(new InvalidPreferenceException("Webhook URL [file:///etc/passwd] must use http or https"));
+
+        mockMvc.perform(post("/api/v1/preferences")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"userId": "%s", "webhookUrl": "file:///etc/passwd"}
+                                """.formatted(UUID.randomUUID())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("message").value("Webhook URL [file:///etc/passwd] must use http or https"));
+    }
 }
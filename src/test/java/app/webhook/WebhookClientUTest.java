@@ -0,0 +1,101 @@
+package app.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebhookClientUTest {
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer stubServer;
+    private URI endpoint;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubServer.createContext("/hook", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes()));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        stubServer.setExecutor(Executors.newCachedThreadPool());
+        stubServer.start();
+        endpoint = URI.create("http://localhost:" + stubServer.getAddress().getPort() + "/hook");
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        release.countDown();
+        stubServer.stop(0);
+    }
+
+    @Test
+    void whenQueuedCallIsCancelled_thenItIsNeverPostedAndFullQueueRejects() throws Exception {
+        WebhookProperties properties = new WebhookProperties();
+        properties.setMaxConcurrentPerDestination(1);
+        properties.setMaxQueuedPerDestination(1);
+        properties.setAllowPrivateHosts(true);
+        WebhookClient client = new WebhookClient(new ObjectMapper(), properties);
+
+        CompletableFuture<Integer> first = client.send(endpoint, Map.of("n", "first"));
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = client.send(endpoint, Map.of("n", "queued"));
+        CompletableFuture<Integer> overflow = client.send(endpoint, Map.of("n", "overflow"));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> overflow.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+        queued.cancel(false);
+        release.countDown();
+
+        assertEquals(204, first.get(5, TimeUnit.SECONDS));
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (client.destinationCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "idle destination was not evicted");
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void whenHostNameResolvesToLoopback_thenPostIsRefused() throws Exception {
+        URI rebound = URI.create("http://hooks.example.com:" + stubServer.getAddress().getPort() + "/hook");
+        WebhookClient client = new WebhookClient(new ObjectMapper(), new WebhookProperties(),
+                host -> new InetAddress[]{InetAddress.getByName("203.0.113.7"), InetAddress.getLoopbackAddress()});
+
+        ExecutionException refused = assertThrows(ExecutionException.class,
+                () -> client.send(rebound, Map.of("n", "rebound")).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalArgumentException.class, refused.getCause());
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void whenAddressIsInternal_thenItIsRecognized() throws Exception {
+        for (String internal : List.of("127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1", "169.254.169.254", "100.64.0.1", "0.0.0.0", "::1", "fd00::1", "fe80::1")) {
+            assertTrue(WebhookUrls.isInternal(InetAddress.getByName(internal)), internal);
+        }
+        for (String external : List.of("203.0.113.7", "100.128.0.1", "2001:db8::1")) {
+            assertFalse(WebhookUrls.isInternal(InetAddress.getByName(external)), external);
+        }
+    }
+}